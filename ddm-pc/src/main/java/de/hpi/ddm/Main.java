@@ -5,6 +5,7 @@ import com.beust.jcommander.ParameterException;
 
 import de.hpi.ddm.configuration.CommandMaster;
 import de.hpi.ddm.configuration.CommandSlave;
+import de.hpi.ddm.configuration.CommandTable;
 import de.hpi.ddm.configuration.ConfigurationSingleton;
 import de.hpi.ddm.configuration.DatasetDescriptorSingleton;
 
@@ -14,9 +15,11 @@ public class Main {
 		
 		CommandMaster commandMaster = new CommandMaster();
         CommandSlave commandSlave = new CommandSlave();
+        CommandTable commandTable = new CommandTable();
         JCommander jCommander = JCommander.newBuilder()
         	.addCommand(MasterSystem.MASTER_ROLE, commandMaster)
             .addCommand(SlaveSystem.SLAVE_ROLE, commandSlave)
+            .addCommand(TableBuilder.TABLE_COMMAND, commandTable)
             .build();
         
         try {
@@ -38,6 +41,11 @@ public class Main {
                 	
                 	SlaveSystem.start();
                     break;
+                case TableBuilder.TABLE_COMMAND:
+                	ConfigurationSingleton.get().update(commandTable);
+                	
+                	TableBuilder.start(commandTable.getChars());
+                    break;
                 default:
                     throw new AssertionError();
             }
@@ -1,5 +1,6 @@
 package de.hpi.ddm;
 
+import java.io.IOException;
 import java.util.Scanner;
 import java.util.concurrent.TimeUnit;
 
@@ -16,6 +17,7 @@ import de.hpi.ddm.actors.Reaper;
 import de.hpi.ddm.actors.Worker;
 import de.hpi.ddm.configuration.Configuration;
 import de.hpi.ddm.configuration.ConfigurationSingleton;
+import de.hpi.ddm.io.DigestCacheSingleton;
 import scala.concurrent.Await;
 import scala.concurrent.duration.Duration;
 
@@ -40,6 +42,16 @@ public class MasterSystem {
 		
 		ActorRef reaper = system.actorOf(Reaper.props(), Reaper.DEFAULT_NAME);
 		
+		NodeSetup.start(system, c);
+		
+		// Only the master reads and writes the digest cache: it resolves cached digests before it dispatches any task
+		try {
+			DigestCacheSingleton.open(c.getDigestCache());
+			system.registerOnTermination(DigestCacheSingleton::close);
+		} catch (IOException e) {
+			system.log().warning("Digest cache {} is disabled: {}", c.getDigestCache(), e.getMessage());
+		}
+		
 		ActorRef reader = system.actorOf(Reader.props(), Reader.DEFAULT_NAME);
 		
 		ActorRef collector = system.actorOf(Collector.props(), Collector.DEFAULT_NAME);
@@ -0,0 +1,46 @@
+package de.hpi.ddm;
+
+import java.io.IOException;
+import java.util.List;
+
+import akka.actor.ActorSystem;
+import de.hpi.ddm.configuration.Configuration;
+import de.hpi.ddm.cracking.ForkJoinPoolSingleton;
+import de.hpi.ddm.cracking.HashKernelCalibration;
+import de.hpi.ddm.cracking.HashKernelSingleton;
+import de.hpi.ddm.cracking.HashKernels;
+import de.hpi.ddm.io.PermutationTablesSingleton;
+
+/**
+ * The resources that every node of the cluster opens before its actors start, no matter whether it hosts the master or
+ * only workers; all of them are closed again when the actor system terminates.
+ */
+public class NodeSetup {
+
+	public static void start(ActorSystem system, Configuration c) {
+		try {
+			PermutationTablesSingleton.open(c.getTableDirectory()).forEach(table -> system.log().info("Mapped digest table {}", table.getPath()));
+			system.registerOnTermination(PermutationTablesSingleton::close);
+		} catch (IOException e) {
+			system.log().warning("Digest tables in {} are disabled: {}", c.getTableDirectory(), e.getMessage());
+		}
+		
+		HashKernels kernel = c.getHashKernel();
+		if (kernel == HashKernels.AUTO) {
+			List<HashKernelCalibration.Measurement> measurements = HashKernelCalibration.measure(HashKernelCalibration.DEFAULT_MILLIS);
+			for (HashKernelCalibration.Measurement measurement : measurements)
+				system.log().info("Hash kernel {}: {} hashes/s{}", measurement.getKernel(), String.format("%,.0f", measurement.getHashesPerSecond()), measurement.isCorrect() ? "" : " (wrong digests)");
+			kernel = HashKernelCalibration.fastest(measurements);
+			for (HashKernelCalibration.Measurement measurement : measurements)
+				if (measurement.getKernel() == kernel)
+					HashKernelSingleton.setHashesPerSecond(measurement.getHashesPerSecond());
+		}
+		HashKernelSingleton.set(kernel);
+		system.log().info("Using hash kernel {}", kernel);
+		
+		if (ForkJoinPoolSingleton.open(c.getForkJoinParallelism()) != null) {
+			system.registerOnTermination(ForkJoinPoolSingleton::close);
+			system.log().info("Searching on a fork/join pool of {} threads", c.getForkJoinParallelism());
+		}
+	}
+}
@@ -9,7 +9,7 @@ import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
 import akka.cluster.Cluster;
 import de.hpi.ddm.actors.Reaper;
-import de.hpi.ddm.actors.Worker;
+import de.hpi.ddm.actors.Dispatcher;
 import de.hpi.ddm.configuration.Configuration;
 import de.hpi.ddm.configuration.ConfigurationSingleton;
 import scala.concurrent.Await;
@@ -36,11 +36,13 @@ public class SlaveSystem {
 		
 		ActorRef reaper = system.actorOf(Reaper.props(), Reaper.DEFAULT_NAME);
 		
+		NodeSetup.start(system, c);
+		
 		Cluster.get(system).registerOnMemberUp(new Runnable() {
 			@Override
 			public void run() {
-				for (int i = 0; i < c.getNumWorkers(); i++)
-					system.actorOf(Worker.props(), Worker.DEFAULT_NAME + i);
+				// A single dispatcher talks to the master on behalf of all workers of this node
+				system.actorOf(Dispatcher.props(c.getNumWorkers()), Dispatcher.DEFAULT_NAME);
 			}
 		});
 
@@ -0,0 +1,25 @@
+package de.hpi.ddm;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import de.hpi.ddm.configuration.Configuration;
+import de.hpi.ddm.configuration.ConfigurationSingleton;
+import de.hpi.ddm.configuration.DatasetDescriptorSingleton;
+import de.hpi.ddm.io.PermutationTable;
+
+public class TableBuilder {
+	
+	public static final String TABLE_COMMAND = "table";
+
+	public static void start(String chars) throws Exception {
+		final Configuration c = ConfigurationSingleton.get();
+		
+		System.out.println("Building the digest table of " + chars + " with " + c.getNumWorkers() + " threads ...");
+		long startTime = System.currentTimeMillis();
+		
+		Path table = PermutationTable.build(chars.getBytes(DatasetDescriptorSingleton.get().getCharset()), Paths.get(c.getTableDirectory()), c.getNumWorkers());
+		
+		System.out.println("Wrote " + table + " in " + (System.currentTimeMillis() - startTime) + " ms");
+	}
+}
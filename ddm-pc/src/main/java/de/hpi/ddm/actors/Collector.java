@@ -1,14 +1,21 @@
 package de.hpi.ddm.actors;
 
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 import akka.actor.AbstractLoggingActor;
+import akka.actor.Cancellable;
 import akka.actor.Props;
+import de.hpi.ddm.configuration.ConfigurationSingleton;
+import de.hpi.ddm.configuration.DatasetDescriptor;
+import de.hpi.ddm.configuration.DatasetDescriptorSingleton;
+import de.hpi.ddm.io.ResultWriter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import scala.concurrent.duration.FiniteDuration;
 
 public class Collector extends AbstractLoggingActor {
 
@@ -17,6 +24,8 @@ public class Collector extends AbstractLoggingActor {
 	////////////////////////
 	
 	public static final String DEFAULT_NAME = "collector";
+	
+	private static final int OUTPUT_BUFFER_SIZE = 1 << 16;		// Bytes of results that are written to the output file at once
 
 	public static Props props() {
 		return Props.create(Collector.class);
@@ -29,7 +38,12 @@ public class Collector extends AbstractLoggingActor {
 	@Data @NoArgsConstructor @AllArgsConstructor
 	public static class CollectMessage implements Serializable {
 		private static final long serialVersionUID = -102767440935270949L;
-		private String result;
+		private int id;
+		private String name;
+		private byte[] chars;
+		private int length;
+		private byte[] password;
+		private byte[][] hints;			// The clear text of every hint or null if it was not cracked
 	}
 
 	@Data
@@ -37,19 +51,40 @@ public class Collector extends AbstractLoggingActor {
 		private static final long serialVersionUID = -267778464637901383L;
 	}
 	
+	@Data
+	public static class FlushMessage implements Serializable {
+		private static final long serialVersionUID = 2911574046380452216L;
+	}
+	
 	/////////////////
 	// Actor State //
 	/////////////////
 	
-	private List<String> results = new ArrayList<>();
+	private ResultWriter writer;
+	private Cancellable flush;
 	
 	/////////////////////
 	// Actor Lifecycle //
 	/////////////////////
 
 	@Override
-	public void preStart() {
+	public void preStart() throws Exception {
 		Reaper.watchWithDefaultReaper(this);
+		
+		DatasetDescriptor descriptor = DatasetDescriptorSingleton.get();
+		this.writer = new ResultWriter(Paths.get(ConfigurationSingleton.get().getOutputFile()), descriptor.getCharset(), descriptor.getValueSeparator(), OUTPUT_BUFFER_SIZE);
+		
+		FiniteDuration interval = FiniteDuration.create(Math.max(1, ConfigurationSingleton.get().getFlushInterval()), TimeUnit.MILLISECONDS);
+		this.flush = this.context().system().scheduler().schedule(
+				interval, interval, this.self(), new FlushMessage(), this.context().dispatcher(), this.self());
+	}
+	
+	@Override
+	public void postStop() throws Exception {
+		if (this.flush != null)
+			this.flush.cancel();
+		if (this.writer != null)
+			this.writer.close();
 	}
 
 	////////////////////
@@ -60,16 +95,23 @@ public class Collector extends AbstractLoggingActor {
 	public Receive createReceive() {
 		return receiveBuilder()
 				.match(CollectMessage.class, this::handle)
+				.match(FlushMessage.class, this::handle)
 				.match(PrintMessage.class, this::handle)
 				.matchAny(object -> this.log().info("Received unknown message: \"{}\"", object.toString()))
 				.build();
 	}
 
-	protected void handle(CollectMessage message) {
-		this.results.add(message.getResult());
+	protected void handle(CollectMessage message) throws IOException {
+		this.writer.write(message.getId(), message.getName(), message.getChars(), message.getLength(), message.getPassword(), message.getHints());
+		this.log().info("Found password: {} for entry {}", new String(message.getPassword(), DatasetDescriptorSingleton.get().getCharset()), message.getId());
+	}
+	
+	protected void handle(FlushMessage message) throws IOException {
+		this.writer.flush();
 	}
 	
-	protected void handle(PrintMessage message) {
-		this.results.forEach(result -> this.log().info("{}", result));
+	protected void handle(PrintMessage message) throws IOException {
+		this.writer.flush();
+		this.log().info("Wrote {} results to {}", this.writer.getNumResults(), this.writer.getPath());
 	}
 }
@@ -0,0 +1,242 @@
+package de.hpi.ddm.actors;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+import akka.actor.AbstractLoggingActor;
+import akka.actor.ActorRef;
+import akka.actor.PoisonPill;
+import akka.actor.Props;
+import akka.cluster.Cluster;
+import akka.cluster.ClusterEvent.CurrentClusterState;
+import akka.cluster.ClusterEvent.MemberRemoved;
+import akka.cluster.ClusterEvent.MemberUp;
+import akka.cluster.Member;
+import akka.cluster.MemberStatus;
+import de.hpi.ddm.MasterSystem;
+import de.hpi.ddm.cracking.HashKernelSingleton;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The coordinator of the workers of one node. It registers with the master once for all of them, receives their tasks
+ * in batches, hands them out to its local workers and sends their results upstream in batches, so that the traffic of
+ * the master grows with the number of nodes rather than with the number of cores. To the master, the dispatcher is a
+ * single worker that processes several tasks at once.
+ */
+public class Dispatcher extends AbstractLoggingActor {
+
+    ////////////////////////
+    // Actor Construction //
+    ////////////////////////
+
+    public static final String DEFAULT_NAME = "dispatcher";
+
+    static final int LOCAL_CREDITS = 2;             // Tasks per local worker: one to work on and one to start right after it
+
+    public static Props props(int numWorkers) {
+        return props(numWorkers, Worker.props(false));
+    }
+
+    public static Props props(int numWorkers, Props workerProps) {
+        return Props.create(Dispatcher.class, () -> new Dispatcher(numWorkers, workerProps));
+    }
+
+    public Dispatcher(int numWorkers, Props workerProps) {
+        this.cluster = Cluster.get(this.context().system());
+        this.numWorkers = Math.max(1, numWorkers);
+        this.workerProps = workerProps;
+    }
+
+    ////////////////////
+    // Actor Messages //
+    ////////////////////
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskBatchMessage implements Serializable {
+        private static final long serialVersionUID = -5036185402773951628L;
+        private List<Serializable> tasks;   // Messages of tasks that are handed out at once
+    }
+
+    @Data
+    public static class FlushMessage implements Serializable {
+        private static final long serialVersionUID = 1867241306587612033L;
+    }
+
+    /////////////////
+    // Actor State //
+    /////////////////
+
+    private final Cluster cluster;
+    private final int numWorkers;
+    private final Props workerProps;    // The workers must not register on their own; tests may replace them
+    private final List<ActorRef> workers = new ArrayList<>();
+    private Member masterSystem;
+    private ActorRef master;
+
+    // Tasks wait here until a local worker has a free credit; every handed out task is remembered with its worker, so
+    // that a cancellation reaches the right one
+    private final Deque<Serializable> tasks = new ArrayDeque<>();
+    private final Int2ObjectOpenHashMap<ActorRef> assignments = new Int2ObjectOpenHashMap<>();
+    private final Object2IntOpenHashMap<ActorRef> credits = new Object2IntOpenHashMap<>();
+
+    // Results that arrive while a flush is pending travel upstream together
+    private final List<Serializable> results = new ArrayList<>();
+    private boolean flushPending = false;
+
+    /////////////////////
+    // Actor Lifecycle //
+    /////////////////////
+
+    @Override
+    public void preStart() {
+        Reaper.watchWithDefaultReaper(this);
+
+        for (int i = 0; i < this.numWorkers; i++) {
+            ActorRef worker = this.context().actorOf(this.workerProps, Worker.DEFAULT_NAME + i);
+            this.workers.add(worker);
+            this.credits.put(worker, LOCAL_CREDITS);
+        }
+        this.cluster.subscribe(this.self(), MemberUp.class, MemberRemoved.class);
+    }
+
+    @Override
+    public void postStop() {
+        this.cluster.unsubscribe(this.self());
+    }
+
+    ////////////////////
+    // Actor Behavior //
+    ////////////////////
+
+    @Override
+    public Receive createReceive() {
+        return receiveBuilder()
+                .match(CurrentClusterState.class, this::handle)
+                .match(MemberUp.class, this::handle)
+                .match(MemberRemoved.class, this::handle)
+                .match(Worker.CrackHintsMessage.class, this::enqueue)
+                .match(Worker.CrackPasswordMessage.class, this::enqueue)
+                .match(TaskBatchMessage.class, this::handle)
+                .match(Worker.CancelTaskMessage.class, this::handle)
+                .match(Master.HintsCrackedMessage.class, message -> this.completed(message.getId(), message))
+                .match(Master.FoundPassword.class, message -> this.completed(message.getId(), message))
+                .match(FlushMessage.class, this::handle)
+                .matchAny(object -> this.log().info("Received unknown message: \"{}\"", object.toString()))
+                .build();
+    }
+
+    private void enqueue(Serializable task) {
+        this.master = this.sender();
+        this.tasks.add(task);
+        this.dispatch();
+    }
+
+    private void handle(TaskBatchMessage message) {
+        this.master = this.sender();
+        this.tasks.addAll(message.getTasks());
+        this.dispatch();
+    }
+
+    // Hand out the waiting tasks to the local workers with the most free credits
+    private void dispatch() {
+        while (!this.tasks.isEmpty()) {
+            ActorRef worker = null;
+            for (ActorRef candidate : this.workers) {
+                if ((this.credits.getInt(candidate) > 0) && ((worker == null) || (this.credits.getInt(candidate) > this.credits.getInt(worker)))) {
+                    worker = candidate;
+                }
+            }
+            if (worker == null) {
+                return;
+            }
+            Serializable task = this.tasks.poll();
+            this.credits.addTo(worker, -1);
+            this.assignments.put(id(task), worker);
+            worker.tell(task, this.self());
+        }
+    }
+
+    private void handle(Worker.CancelTaskMessage message) {
+        for (Iterator<Serializable> iterator = this.tasks.iterator(); iterator.hasNext(); ) {
+            if (id(iterator.next()) == message.getId()) {
+                iterator.remove();
+                return;
+            }
+        }
+        // The worker does not answer a cancelled task, so its credit is free right away
+        ActorRef worker = this.assignments.remove(message.getId());
+        if (worker != null) {
+            worker.tell(message, this.self());
+            this.credits.addTo(worker, 1);
+            this.dispatch();
+        }
+    }
+
+    private void completed(int id, Serializable result) {
+        ActorRef worker = this.assignments.remove(id);
+        if (worker == null) {
+            // The task has been cancelled in the meantime
+            return;
+        }
+        this.credits.addTo(worker, 1);
+        this.dispatch();
+
+        this.results.add(result);
+        if (!this.flushPending) {
+            this.flushPending = true;
+            this.self().tell(new FlushMessage(), this.self());
+        }
+    }
+
+    private void handle(FlushMessage message) {
+        this.flushPending = false;
+        if (this.results.size() == 1) {
+            this.master.tell(this.results.get(0), this.self());
+        } else if (!this.results.isEmpty()) {
+            this.master.tell(new Master.ResultBatchMessage(new ArrayList<>(this.results)), this.self());
+        }
+        this.results.clear();
+    }
+
+    private static int id(Serializable task) {
+        if (task instanceof Worker.CrackHintsMessage)
+            return ((Worker.CrackHintsMessage) task).getId();
+        return ((Worker.CrackPasswordMessage) task).getId();
+    }
+
+    private void handle(CurrentClusterState message) {
+        message.getMembers().forEach(member -> {
+            if (member.status().equals(MemberStatus.up()))
+                this.register(member);
+        });
+    }
+
+    private void handle(MemberUp message) {
+        this.register(message.member());
+    }
+
+    private void register(Member member) {
+        if ((this.masterSystem == null) && member.hasRole(MasterSystem.MASTER_ROLE)) {
+            this.masterSystem = member;
+
+            this.getContext()
+                    .actorSelection(member.address() + "/user/" + Master.DEFAULT_NAME)
+                    .tell(new Master.RegistrationMessage(Runtime.getRuntime().availableProcessors(), HashKernelSingleton.getHashesPerSecond(), this.numWorkers), this.self());
+        }
+    }
+
+    private void handle(MemberRemoved message) {
+        if (message.member().equals(this.masterSystem))
+            this.self().tell(PoisonPill.getInstance(), ActorRef.noSender());
+    }
+}
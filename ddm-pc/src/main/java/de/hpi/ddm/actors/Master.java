@@ -1,12 +1,44 @@
 package de.hpi.ddm.actors;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import akka.actor.*;
+import akka.cluster.Cluster;
+import akka.cluster.ClusterEvent.CurrentClusterState;
+import akka.cluster.ClusterEvent.UnreachableMember;
+import akka.cluster.metrics.ClusterMetricsChanged;
+import akka.cluster.metrics.ClusterMetricsExtension;
+import akka.cluster.metrics.NodeMetrics;
+import akka.cluster.metrics.StandardMetrics;
+import akka.cluster.metrics.StandardMetrics.Cpu;
+import de.hpi.ddm.configuration.ConfigurationSingleton;
+import de.hpi.ddm.cracking.DigestEngine;
+import de.hpi.ddm.cracking.Digests;
+import de.hpi.ddm.cracking.Permutations;
+import de.hpi.ddm.cracking.Ranges;
+import de.hpi.ddm.io.DigestCache;
+import de.hpi.ddm.io.DigestCacheSingleton;
+import de.hpi.ddm.scheduling.CostEstimator;
+import de.hpi.ddm.scheduling.CreditWindow;
+import de.hpi.ddm.scheduling.HintTask;
+import de.hpi.ddm.scheduling.PasswordTask;
+import de.hpi.ddm.scheduling.Task;
+import de.hpi.ddm.scheduling.Speculator;
+import de.hpi.ddm.scheduling.TaskSizer;
+import de.hpi.ddm.scheduling.TaskTracker;
+import de.hpi.ddm.scheduling.WorkerCapacities;
+import de.hpi.ddm.structures.HintGroup;
+import de.hpi.ddm.structures.PasswordRecord;
+import de.hpi.ddm.structures.PasswordRow;
+import de.hpi.ddm.structures.PasswordSearch;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import scala.concurrent.duration.FiniteDuration;
 
 public class Master extends AbstractLoggingActor {
 
@@ -24,6 +56,17 @@ public class Master extends AbstractLoggingActor {
         this.reader = reader;
         this.collector = collector;
         this.workers = new ArrayList<>();
+        this.hintGroupSize = ConfigurationSingleton.get().getHintGroupSize();
+        this.leaseTimeout = TimeUnit.SECONDS.toMillis(ConfigurationSingleton.get().getLeaseTimeout());
+        this.tracker = new TaskTracker(this.leaseTimeout);
+        this.prefetch = ConfigurationSingleton.get().getPrefetch();
+        this.taskSize = ConfigurationSingleton.get().getTaskSize();
+        this.speculator = new Speculator(ConfigurationSingleton.get().getSpeculationPercentile());
+        this.cluster = Cluster.get(this.context().system());
+        this.capacities = new WorkerCapacities(this.cluster.selfAddress());
+        this.taskSizer = new TaskSizer(ConfigurationSingleton.get().getTaskDuration(), DigestEngine.SLICE, this.taskSize, this.capacities);
+        this.digestCache = DigestCacheSingleton.get();
+        this.queue = new PriorityQueue<>(ConfigurationSingleton.get().getSchedulingPolicy().order());
     }
 
     ////////////////////
@@ -40,17 +83,25 @@ public class Master extends AbstractLoggingActor {
     @AllArgsConstructor
     public static class BatchMessage implements Serializable {
         private static final long serialVersionUID = 8343040942748609598L;
-        private List<String[]> lines;
+        private List<PasswordRecord> records;
     }
 
     @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
     public static class RegistrationMessage implements Serializable {
         private static final long serialVersionUID = 3303081601659723997L;
+        private int cores;              // The available processors of the worker's node
+        private double hashesPerSecond; // The calibrated single-thread hash rate of the node; 0 if unknown
+        private int workers;            // The number of workers behind a dispatcher; 0 for a worker that registers on its own
     }
 
     @Data
-    public static class RequestLineMessage implements Serializable {
-        private static final long serialVersionUID = 4791804711649009868L;
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResultBatchMessage implements Serializable {
+        private static final long serialVersionUID = -1253873581264460185L;
+        private List<Serializable> results; // Results of tasks that a dispatcher collected from its workers
     }
 
     @Data
@@ -58,8 +109,27 @@ public class Master extends AbstractLoggingActor {
     @AllArgsConstructor
     public static class FoundPassword implements Serializable {
         private static final long serialVersionUID = 4791804711649009868L;
-        private String entry_number;
-        private String password;
+        private int id;
+        private byte[] password;    // Empty if the password is not in the searched space
+        private long duration;      // Nanoseconds the worker spent on the task
+        private long hashed;        // Number of candidates the worker hashed
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HintsCrackedMessage implements Serializable {
+        private static final long serialVersionUID = -6493781294305582870L;
+        private int id;
+        private int[] hints;
+        private byte[] clearTexts;  // The clear texts of the found hints, packed one after another
+        private long duration;      // Nanoseconds the worker spent on the task
+        private long hashed;        // Number of candidates the worker hashed
+    }
+
+    @Data
+    public static class LeaseCheckMessage implements Serializable {
+        private static final long serialVersionUID = -2311470985734650379L;
     }
 
 
@@ -70,12 +140,59 @@ public class Master extends AbstractLoggingActor {
     private final ActorRef reader;
     private final ActorRef collector;
     private final List<ActorRef> workers;
+    private final Cluster cluster;
 
     private long startTime;
 
-    private Stack<String[]> lines = new Stack<>();
     private boolean ready_for_termination = false;
-    private List<String> lines_in_flight = new LinkedList<>();
+    private boolean terminated = false;
+    private boolean read_pending = false;
+    private int rows_in_flight = 0;
+
+    // Every row is split into one hint search per excluded char and a password search that depends on their results;
+    // rows with equal password chars are grouped, so that each permutation space is searched once per group
+    private final int hintGroupSize;
+    private final Map<ByteBuffer, HintGroup> hintGroups = new HashMap<>();     // Keyed by the wrapped chars, which compare by content
+    private int nextTaskId = 0;
+
+    // Spaces that are larger than the task size are split into ranges of ranks, which are searched as tasks of their own;
+    // a range is cut further when it is handed out, so that it takes about the target duration on its worker
+    private final long taskSize;
+    private final TaskSizer taskSizer;
+
+    // The capacity that every worker advertised and the CPU load of its node weight the assignment until it reports
+    private final WorkerCapacities capacities;
+
+    // All tasks that are ready to be handed out, in the order of the scheduling policy
+    private final CostEstimator costEstimator = new CostEstimator();
+    private final Queue<Task> queue;
+    private long queuedCandidates = 0;
+
+    // Every task that has been handed out is leased to its worker until the result arrives or the lease is revoked
+    private final long leaseTimeout;
+    private final TaskTracker tracker;
+    private Cancellable leaseCheck;
+
+    // At the end of the run, idle workers duplicate the tasks that are out for unusually long; the first result wins
+    private final Speculator speculator;
+
+    // Every worker has a window of credits, i.e., tasks that are queued at the worker, which we refill with every result
+    private final int prefetch;
+    private final Map<ActorRef, CreditWindow> creditWindows = new HashMap<>();
+    private final Map<Address, CreditWindow.RoundTrip> roundTrips = new HashMap<>();
+    // The workers with free credits, which we could not fill because there were no tasks; only these receive new tasks
+    private final Set<ActorRef> idleWorkers = new LinkedHashSet<>();
+
+    // A dispatcher stands in for all workers of its node; the tasks for it are collected while we handle a message and
+    // sent in one batch
+    private final Set<ActorRef> dispatchers = new HashSet<>();
+    private final Map<ActorRef, List<Serializable>> outbox = new HashMap<>();
+    private int deferrals = 0;
+
+    // Cracked digests are persisted across runs, if the cache is enabled; rows whose password digest is searched for
+    // another row already wait for that search, keyed by the wrapped digest
+    private final DigestCache digestCache;
+    private final Map<ByteBuffer, PasswordSearch> passwordSearches = new HashMap<>();
 
     /////////////////////
     // Actor Lifecycle //
@@ -84,6 +201,22 @@ public class Master extends AbstractLoggingActor {
     @Override
     public void preStart() {
         Reaper.watchWithDefaultReaper(this);
+
+        this.cluster.subscribe(this.self(), UnreachableMember.class);
+        ClusterMetricsExtension.get(this.context().system()).subscribe(this.self());
+
+        // The check also looks for stragglers, which are out for seconds rather than for the lease timeout
+        long millis = this.speculator.isEnabled() ? 1000 : Math.max(1000, this.leaseTimeout / 10);
+        FiniteDuration interval = FiniteDuration.create(millis, TimeUnit.MILLISECONDS);
+        this.leaseCheck = this.context().system().scheduler().schedule(
+                interval, interval, this.self(), new LeaseCheckMessage(), this.context().dispatcher(), this.self());
+    }
+
+    @Override
+    public void postStop() {
+        this.cluster.unsubscribe(this.self());
+        ClusterMetricsExtension.get(this.context().system()).unsubscribe(this.self());
+        this.leaseCheck.cancel();
     }
 
     ////////////////////
@@ -97,8 +230,13 @@ public class Master extends AbstractLoggingActor {
                 .match(BatchMessage.class, this::handle)
                 .match(Terminated.class, this::handle)
                 .match(RegistrationMessage.class, this::handle)
-                .match(RequestLineMessage.class, this::handle)
                 .match(FoundPassword.class, this::handle)
+                .match(HintsCrackedMessage.class, this::handle)
+                .match(ResultBatchMessage.class, this::handle)
+                .match(LeaseCheckMessage.class, this::handle)
+                .match(UnreachableMember.class, this::handle)
+                .match(ClusterMetricsChanged.class, this::handle)
+                .match(CurrentClusterState.class, message -> { /* Ignore */ })
                 .matchAny(object -> this.log().info("Received unknown message: \"{}\"", object.toString()))
                 .build();
     }
@@ -116,47 +254,420 @@ public class Master extends AbstractLoggingActor {
         // TODO: Implement the processing of the data for the concrete assignment. ////////////////////////////
         ///////////////////////////////////////////////////////////////////////////////////////////////////////
 
-        if (message.getLines().isEmpty()) {
+        this.read_pending = false;
+
+        if (message.getRecords().isEmpty()) {
+            if (this.ready_for_termination) {
+                return;
+            }
             this.ready_for_termination = true;
+            // No more rows will join the open groups
+            this.hintGroups.values().forEach(this::seal);
+            this.hintGroups.clear();
+            this.dispatch();
+            this.checkTermination();
             return;
         }
 
-        this.lines.addAll(message.getLines());
-        for (String[] line : message.getLines()) {
-            this.lines_in_flight.add(line[0]);
+        for (PasswordRecord record : message.getRecords()) {
+            PasswordRow row = new PasswordRow(record);
+            this.rows_in_flight++;
+            if (this.lookUpHints(row) && row.release()) {
+                // All hints are cached, so the row does not need to join a group
+                this.searchPassword(row);
+                continue;
+            }
+            ByteBuffer chars = ByteBuffer.wrap(row.getChars());
+            HintGroup group = this.hintGroups.computeIfAbsent(chars, key -> new HintGroup(row.getChars()));
+            group.add(row);
+            if (group.size() >= this.hintGroupSize) {
+                this.seal(this.hintGroups.remove(chars));
+            }
         }
-        // Give workers a hint, this new items are ready
-        for (ActorRef worker : this.workers) {
-            worker.tell(new Worker.StartMessage(), this.self());
+        this.dispatch();
+        //System.out.println("Processed batch of size " + message.getRecords().size());
+    }
+
+    // Crack the hints of a new row that are in the digest cache; returns true if all hints are cracked
+    private boolean lookUpHints(PasswordRow row) {
+        if (this.digestCache == null) {
+            return false;
+        }
+        for (int hint = 0; hint < row.getNumHints(); hint++) {
+            byte[] clearText = this.digestCache.get(row.getRecord().getDigests(), row.getRecord().getHintOffset(hint));
+            if (clearText != null) {
+                row.crackHint(hint, clearText);
+            }
+        }
+        return row.hasAllHintsCracked();
+    }
+
+    // Search the password of a released row, unless it is cached or its digest is searched for another row already
+    private void searchPassword(PasswordRow row) {
+        byte[] digests = row.getRecord().getDigests();
+        byte[] password = (this.digestCache == null) ? null : this.digestCache.get(digests, 0);
+        if (password != null) {
+            this.finish(row, password);
+            return;
+        }
+        ByteBuffer digest = ByteBuffer.wrap(digests, 0, Digests.DIGEST_LENGTH);
+        PasswordSearch search = this.passwordSearches.get(digest);
+        if (search == null) {
+            search = new PasswordSearch(row);
+            this.passwordSearches.put(digest, search);
+            long size = search.getSize();
+            long[] bounds = Ranges.split(0, size, Ranges.count(size, this.taskSize));
+            for (int i = 0; i < bounds.length - 1; i++) {
+                search.addRange();
+                this.enqueue(new PasswordTask(this.nextTaskId++, search, bounds[i], bounds[i + 1]));
+            }
+        }
+        search.getRows().add(row);
+    }
+
+    private void cache(byte[] digests, int digestOffset, byte[] clearText, int offset, int length) {
+        if (this.digestCache == null) {
+            return;
+        }
+        try {
+            this.digestCache.put(digests, digestOffset, clearText, offset, length);
+        } catch (IOException e) {
+            this.log().warning("Could not add a digest to the digest cache: {}", e.getMessage());
+        }
+    }
+
+    // A sealed group does not accept more rows, so its permutation spaces can be searched
+    private void seal(HintGroup group) {
+        long size = Permutations.factorial(group.getChars().length - 1);
+        long[] bounds = Ranges.split(0, size, Ranges.count(size, this.taskSize));
+        for (int excludedChar = 0; excludedChar < group.getChars().length; excludedChar++) {
+            for (int i = 0; i < bounds.length - 1; i++) {
+                group.addSearch();
+                this.enqueue(new HintTask(this.nextTaskId++, group, excludedChar, bounds[i], bounds[i + 1]));
+            }
+        }
+    }
+
+    private void enqueue(Task task) {
+        task.setCost(this.costEstimator.estimate(task));
+        this.queue.add(task);
+        this.queuedCandidates += task.size();
+    }
+
+    // Hand out new tasks to the idle workers, fastest first, so that scarce tasks go to the nodes with the most free
+    // capacity; the others get theirs when they return results
+    private void dispatch() {
+        while (!this.idleWorkers.isEmpty()) {
+            if (!this.fill(Collections.max(this.idleWorkers, Comparator.comparingDouble(this.taskSizer::rate)))) {
+                return;
+            }
+        }
+    }
+
+    // Ask the reader for the next batch, unless a request is pending already
+    private void requestBatch() {
+        if (!this.ready_for_termination && !this.read_pending) {
+            //System.out.println("Requesting new data");
+            this.read_pending = true;
+            this.reader.tell(new Reader.ReadMessage(), this.self());
+        }
+    }
+
+    // Send tasks to the worker until its credit window is full; a worker that we cannot fill becomes idle
+    private boolean fill(ActorRef worker) {
+        CreditWindow window = this.creditWindows.get(worker);
+        if (window == null) {
+            // Not registered (any more)
+            this.idleWorkers.remove(worker);
+            return true;
+        }
+        this.deferrals++;
+        try {
+            int outstanding;
+            while ((outstanding = this.tracker.leases(worker)) < window.getSize()) {
+                Task task = this.nextTask();
+                if (task == null) {
+                    this.idleWorkers.add(worker);
+                    this.requestBatch();
+                    this.speculate(worker);
+                    return false;
+                }
+                this.resize(task, worker);
+                //System.out.println("new line request, sending now with tasks in buffer");
+                long now = System.currentTimeMillis();
+                window.assigned(task.getId(), outstanding, now);
+                this.tracker.assign(task, worker, now);
+                this.send(worker, task.toMessage());
+            }
+            this.idleWorkers.remove(worker);
+            return true;
+        } finally {
+            this.endDeferral();
+        }
+    }
+
+    // Tell a worker about a task; the tasks for a dispatcher wait in the outbox until no deferral is open any more
+    private void send(ActorRef worker, Serializable task) {
+        if (!this.dispatchers.contains(worker)) {
+            worker.tell(task, this.self());
+            return;
+        }
+        this.outbox.computeIfAbsent(worker, dispatcher -> new ArrayList<>()).add(task);
+        if (this.deferrals == 0) {
+            this.flushOutbox();
+        }
+    }
+
+    private void endDeferral() {
+        if (--this.deferrals == 0) {
+            this.flushOutbox();
+        }
+    }
+
+    private void flushOutbox() {
+        for (Map.Entry<ActorRef, List<Serializable>> entry : this.outbox.entrySet()) {
+            List<Serializable> tasks = entry.getValue();
+            entry.getKey().tell((tasks.size() == 1) ? tasks.get(0) : new Dispatcher.TaskBatchMessage(tasks), this.self());
+        }
+        this.outbox.clear();
+    }
+
+    // Once all rows are read and the queue is drained, a worker without any task backs up a straggler of a busy worker;
+    // the worker stays idle, so that new tasks still reach it first
+    private void speculate(ActorRef worker) {
+        if (!this.ready_for_termination || (this.tracker.leases(worker) > 0)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Task task = this.speculator.select(this.tracker.getLeases(), worker, now);
+        if (task == null) {
+            return;
+        }
+        this.log().info("Backing up task {} on {}", task.getId(), worker);
+        this.creditWindows.get(worker).assigned(task.getId(), 0, now);
+        this.tracker.duplicate(task, worker, now);
+        this.send(worker, task.toMessage());
+    }
+
+    // Cut a task that has never been handed out to the size that suits the worker and queue the rest of its range again;
+    // a revoked task keeps its range, because its original worker may still deliver the result for all of it
+    private void resize(Task task, ActorRef worker) {
+        if (this.tracker.isOpen(task.getId())) {
+            return;
+        }
+        long size = this.taskSizer.size(worker, this.queuedCandidates + task.size(), this.capacities.getNumWorkers());
+        if (task.size() - size < DigestEngine.SLICE) {
+            return;
         }
-        //System.out.println("Processed batch of size " + message.getLines().size());
+        this.enqueue(task.split(this.nextTaskId++, task.getFrom() + size));
+        task.setCost(this.costEstimator.estimate(task));
     }
 
-    protected void handle(RequestLineMessage requestLineMessage) {
-        //System.out.println("RequestLine message");
-        if (this.ready_for_termination) {
-            //System.out.println("Ready for termination with lines open " + this.lines_in_flight.size());
-            if (lines_in_flight.size() == 0) {
-                this.collector.tell(new Collector.PrintMessage(), this.self());
-                this.terminate();
+    private void refill(ActorRef worker, int task, long duration, long hashed) {
+        CreditWindow window = this.creditWindows.get(worker);
+        if (window != null) {
+            window.completed(task, duration, System.currentTimeMillis());
+            this.taskSizer.completed(worker, hashed, duration);
+        }
+        this.fill(worker);
+    }
+
+    private Task nextTask() {
+        Task task;
+        while ((task = this.queue.poll()) != null) {
+            this.queuedCandidates -= task.size();
+            if (task.isCompleted()) {
+                // A revoked task whose original worker delivered the result in the meantime
+                continue;
+            }
+            if ((task instanceof HintTask) && ((HintTask) task).getSearch().isResolved()) {
+                // All hints of the search are cracked already, so there is nothing left to find in this space; the task
+                // leaves the tracker first, so that a late result of its revoked worker does not close the search twice
+                this.tracker.complete(task.getId());
+                this.complete(((HintTask) task).getSearch(), new int[0], new byte[0]);
+                continue;
+            }
+            if ((task instanceof PasswordTask) && ((PasswordTask) task).getSearch().isDone()) {
+                // Another range found the password already
+                continue;
             }
+            return task;
         }
-        if (this.lines.size() > 0) {
-            //System.out.println("new line request, sending now with lines in buffer " + this.lines.size());
-            this.sender().tell(new Worker.ProcessLineMessage(this.lines.pop()), this.self());
-        } else {
-            if (!this.ready_for_termination) {
-                //System.out.println("Requesting new data");
-                this.reader.tell(new Reader.ReadMessage(), this.self());
+        return null;
+    }
+
+    // The results of a dispatcher are handled one by one as if they came on their own, but the tasks that refill its
+    // credits travel back in one batch
+    protected void handle(ResultBatchMessage message) {
+        this.deferrals++;
+        try {
+            for (Serializable result : message.getResults()) {
+                if (result instanceof HintsCrackedMessage) {
+                    this.handle((HintsCrackedMessage) result);
+                } else {
+                    this.handle((FoundPassword) result);
+                }
             }
+        } finally {
+            this.endDeferral();
+        }
+    }
+
+    protected void handle(HintsCrackedMessage message) {
+        HintTask task = (HintTask) this.completeTask(message.getId());
+        this.refill(this.sender(), message.getId(), message.getDuration(), message.getHashed());
+        if (task == null) {
+            // A duplicate result of a revoked task
+            return;
+        }
+        boolean released = this.complete(task.getSearch(), message.getHints(), message.getClearTexts());
+        if (this.cancelResolved(task.getGroup()) || released) {
+            this.dispatch();
+        }
+    }
+
+    // Close a task whose result arrived; if the task has been reassigned or duplicated in the meantime, the other
+    // workers stop it
+    private Task completeTask(int id) {
+        List<TaskTracker.Lease> leases = this.tracker.getLeases(id);
+        Task task = this.tracker.complete(id);
+        long now = System.currentTimeMillis();
+        for (TaskTracker.Lease lease : leases) {
+            if (!lease.getWorker().equals(this.sender())) {
+                this.cancel(lease);
+            } else if (task != null) {
+                this.speculator.completed(now - lease.getAssigned());
+            }
+        }
+        return task;
+    }
+
+    // Close a task whose result is not needed any more and stop all workers that process it
+    private void cancelTask(Task task) {
+        List<TaskTracker.Lease> leases = this.tracker.getLeases(task.getId());
+        this.tracker.complete(task.getId());
+        for (TaskTracker.Lease lease : leases) {
+            this.cancel(lease);
+        }
+    }
+
+    // Cancel the running searches of the group whose targets have all been cracked in other spaces
+    private boolean cancelResolved(HintGroup group) {
+        boolean released = false;
+        for (TaskTracker.Lease lease : this.tracker.getLeases()) {
+            if (!(lease.getTask() instanceof HintTask)) {
+                continue;
+            }
+            HintTask task = (HintTask) lease.getTask();
+            if ((task.getGroup() == group) && this.tracker.isOpen(task.getId()) && task.getSearch().isResolved()) {
+                this.log().debug("Cancelling the resolved search of task {}", task.getId());
+                this.cancelTask(task);
+                released |= this.complete(task.getSearch(), new int[0], new byte[0]);
+            }
+        }
+        return released;
+    }
+
+    // Tell the worker of a lease that its task is not needed any more; the worker does not answer, so its credit is
+    // free right away
+    private void cancel(TaskTracker.Lease lease) {
+        lease.getWorker().tell(new Worker.CancelTaskMessage(lease.getTask().getId()), this.self());
+        this.fill(lease.getWorker());
+    }
+
+    private boolean complete(HintGroup.Search search, int[] hints, byte[] clearTexts) {
+        int clearTextLength = search.getGroup().getChars().length - 1;
+        for (int i = 0; i < hints.length; i++) {
+            this.cache(search.getDigests().elements(), hints[i] * Digests.DIGEST_LENGTH, clearTexts, i * clearTextLength, clearTextLength);
         }
+        List<PasswordRow> released = new ArrayList<>();
+        search.getGroup().complete(search, hints, clearTexts, released);
+        for (PasswordRow row : released) {
+            this.searchPassword(row);
+        }
+        return !released.isEmpty();
     }
 
     public void handle(FoundPassword foundPassword) {
-        this.lines_in_flight.remove(foundPassword.entry_number);
-        this.collector.tell(new Collector.CollectMessage(
-                "Found password: " + foundPassword.password + " for entry " + foundPassword.entry_number
-        ), this.self());
+        PasswordTask task = (PasswordTask) this.completeTask(foundPassword.id);
+        this.refill(this.sender(), foundPassword.id, foundPassword.duration, foundPassword.hashed);
+        if (task == null) {
+            // A duplicate result of a revoked task
+            return;
+        }
+        PasswordSearch search = task.getSearch();
+        if (search.isDone()) {
+            // Another range found the password before this one was cancelled
+            return;
+        }
+        search.complete(foundPassword.password);
+        if (!search.isDone()) {
+            return;
+        }
+
+        byte[] digests = search.getRow().getRecord().getDigests();
+        if (search.isFound()) {
+            this.cache(digests, 0, search.getPassword(), 0, search.getPassword().length);
+            this.cancelRanges(search);
+        }
+        this.passwordSearches.remove(ByteBuffer.wrap(digests, 0, Digests.DIGEST_LENGTH));
+        for (PasswordRow row : search.getRows()) {
+            this.finish(row, search.isFound() ? search.getPassword() : new byte[0]);
+        }
+    }
+
+    // Cancel the running ranges of a password search that has found its password
+    private void cancelRanges(PasswordSearch search) {
+        for (TaskTracker.Lease lease : this.tracker.getLeases()) {
+            if ((lease.getTask() instanceof PasswordTask) && (((PasswordTask) lease.getTask()).getSearch() == search)
+                    && this.tracker.isOpen(lease.getTask().getId())) {
+                this.cancelTask(lease.getTask());
+            }
+        }
+    }
+
+    private void finish(PasswordRow row, byte[] password) {
+        this.rows_in_flight--;
+        this.collector.tell(new Collector.CollectMessage(row.getId(), row.getRecord().getName(), row.getChars(), row.getLength(),
+                password, row.getCrackedHints()), this.self());
+        this.checkTermination();
+    }
+
+    private void checkTermination() {
+        if (this.ready_for_termination && (this.rows_in_flight == 0) && !this.terminated) {
+            this.terminated = true;
+            //System.out.println("Ready for termination with all rows done");
+            this.collector.tell(new Collector.PrintMessage(), this.self());
+            this.terminate();
+        }
+    }
+
+    protected void handle(LeaseCheckMessage message) {
+        this.reassign(this.tracker.expire(System.currentTimeMillis()));
+        // Tasks of busy workers may have become stragglers since the idle workers asked for work
+        new ArrayList<>(this.idleWorkers).forEach(this::speculate);
+    }
+
+    protected void handle(ClusterMetricsChanged message) {
+        for (NodeMetrics metrics : message.getNodeMetrics()) {
+            Cpu cpu = StandardMetrics.extractCpu(metrics);
+            if ((cpu != null) && cpu.systemLoadAverage().isDefined()) {
+                this.capacities.load(metrics.address(), (Double) cpu.systemLoadAverage().get());
+            }
+        }
+    }
+
+    protected void handle(UnreachableMember message) {
+        this.reassign(this.tracker.revoke(message.member().address()));
+    }
+
+    private void reassign(List<Task> revoked) {
+        if (revoked.isEmpty()) {
+            return;
+        }
+        this.log().info("Reassigning {} revoked tasks", revoked.size());
+        revoked.forEach(this::enqueue);
+        this.dispatch();
     }
 
 
@@ -176,16 +687,30 @@ public class Master extends AbstractLoggingActor {
     }
 
     protected void handle(RegistrationMessage message) {
+        int parallelism = Math.max(1, message.getWorkers());
         this.context().watch(this.sender());
         this.workers.add(this.sender());
-        this.log().info("Registered {}", this.sender());
+        if (message.getWorkers() > 0) {
+            this.dispatchers.add(this.sender());
+        }
+        this.creditWindows.put(this.sender(), new CreditWindow(this.prefetch, parallelism,
+                this.roundTrips.computeIfAbsent(this.capacities.node(this.sender()), address -> new CreditWindow.RoundTrip())));
+        this.capacities.register(this.sender(), message.getCores(), message.getHashesPerSecond(), parallelism);
+        this.log().info("Registered {} ({} workers, {} cores, {} hashes/s)", this.sender(), parallelism, message.getCores(), String.format("%,.0f", message.getHashesPerSecond()));
         // Make sure the workers actually do something
-        this.sender().tell(new Worker.StartMessage(), this.self());
+        this.fill(this.sender());
     }
 
     protected void handle(Terminated message) {
         this.context().unwatch(message.getActor());
         this.workers.remove(message.getActor());
+        this.creditWindows.remove(message.getActor());
+        this.taskSizer.remove(message.getActor());
+        this.capacities.remove(message.getActor());
+        this.idleWorkers.remove(message.getActor());
+        this.dispatchers.remove(message.getActor());
+        this.outbox.remove(message.getActor());
         this.log().info("Unregistered {}", message.getActor());
+        this.reassign(this.tracker.revoke(message.getActor()));
     }
 }
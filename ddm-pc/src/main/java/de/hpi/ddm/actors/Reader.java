@@ -1,16 +1,27 @@
 package de.hpi.ddm.actors;
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 
-import com.opencsv.CSVReader;
 
 import akka.actor.AbstractLoggingActor;
+import akka.actor.ActorRef;
 import akka.actor.Props;
+import akka.actor.Status;
+import akka.dispatch.MessageDispatcher;
+import akka.pattern.Patterns;
 import de.hpi.ddm.configuration.ConfigurationSingleton;
 import de.hpi.ddm.configuration.DatasetDescriptorSingleton;
+import de.hpi.ddm.io.MappedCsvReader;
+import de.hpi.ddm.structures.PasswordRecord;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 public class Reader extends AbstractLoggingActor {
 
@@ -19,6 +30,10 @@ public class Reader extends AbstractLoggingActor {
 	////////////////////////
 	
 	public static final String DEFAULT_NAME = "reader";
+	
+	public static final String BLOCKING_IO_DISPATCHER = "blocking-io-dispatcher";
+	
+	private static final int MAX_BATCH_GROWTH = 32;		// The batch size grows up to this multiple of the configured buffer size
 
 	public static Props props() {
 		return Props.create(Reader.class);
@@ -33,15 +48,29 @@ public class Reader extends AbstractLoggingActor {
 		private static final long serialVersionUID = -3254147511955012292L;
 	}
 	
+	@Data @NoArgsConstructor @AllArgsConstructor
+	public static class ReadCompletedMessage implements Serializable {
+		private static final long serialVersionUID = 7166185383424787812L;
+		private List<PasswordRecord> records;
+		private int requested;
+	}
+	
 	/////////////////
 	// Actor State //
 	/////////////////
 	
-	private CSVReader reader;
+	private MappedCsvReader reader;
+	private MessageDispatcher blockingIoDispatcher;
 	
-	private int bufferSize;
+	private int minBatchSize;
+	private int maxBatchSize;
+	private int batchSize;								// The number of records of the next batch, which adapts to the master's consumption
+	private int readAhead;								// The maximum number of batches that are buffered
 	
-	private List<String[]> buffer;
+	private final Queue<List<PasswordRecord>> batches = new ArrayDeque<>();
+	private final Queue<ActorRef> waiting = new ArrayDeque<>();		// Requests that arrived while the buffer was empty
+	private boolean reading = false;
+	private boolean exhausted = false;
 	
 	/////////////////////
 	// Actor Lifecycle //
@@ -52,10 +81,14 @@ public class Reader extends AbstractLoggingActor {
 		Reaper.watchWithDefaultReaper(this);
 		
 		this.reader = DatasetDescriptorSingleton.get().createCSVReader();
-		this.bufferSize = ConfigurationSingleton.get().getBufferSize();
-		this.buffer = new ArrayList<>(this.bufferSize);
+		this.blockingIoDispatcher = this.context().system().dispatchers().lookup(BLOCKING_IO_DISPATCHER);
 		
-		this.read();
+		this.minBatchSize = Math.max(1, ConfigurationSingleton.get().getBufferSize());
+		this.maxBatchSize = this.minBatchSize * MAX_BATCH_GROWTH;
+		this.batchSize = this.minBatchSize;
+		this.readAhead = Math.max(1, ConfigurationSingleton.get().getReadAhead());
+		
+		this.readAhead();
 	}
 
 	@Override
@@ -71,21 +104,77 @@ public class Reader extends AbstractLoggingActor {
 	public Receive createReceive() {
 		return receiveBuilder()
 				.match(ReadMessage.class, this::handle)
+				.match(ReadCompletedMessage.class, this::handle)
+				.match(Status.Failure.class, this::handle)
 				.matchAny(object -> this.log().info("Received unknown message: \"{}\"", object.toString()))
 				.build();
 	}
 
-	private void handle(ReadMessage message) throws Exception {
-		this.sender().tell(new Master.BatchMessage(new ArrayList<>(this.buffer)), this.self());
+	private void handle(ReadMessage message) {
+		if (this.batches.size() >= this.readAhead) {
+			// The disk is ahead of the master, so smaller batches suffice and keep the buffer small
+			this.batchSize = Math.max(this.minBatchSize, this.batchSize / 2);
+		}
+		
+		if (!this.batches.isEmpty()) {
+			this.sender().tell(new Master.BatchMessage(this.batches.poll()), this.self());
+		} else if (this.exhausted) {
+			this.sender().tell(new Master.BatchMessage(Collections.emptyList()), this.self());
+		} else {
+			// The master consumes faster than we read, so larger batches are needed to keep up
+			this.batchSize = Math.min(this.maxBatchSize, this.batchSize * 2);
+			this.waiting.add(this.sender());
+		}
+		
+		this.readAhead();
+	}
+	
+	private void handle(ReadCompletedMessage message) {
+		this.reading = false;
+		
+		if (message.getRecords().size() < message.getRequested())
+			this.exhausted = true;
+		if (!message.getRecords().isEmpty())
+			this.batches.add(message.getRecords());
+		
+		this.serveWaiting();
+		this.readAhead();
+	}
+	
+	private void handle(Status.Failure message) {
+		this.log().error(message.cause(), "Reading the input failed; treating it as the end of the input");
 		
-		this.read();
+		this.reading = false;
+		this.exhausted = true;
+		this.serveWaiting();
+	}
+	
+	private void serveWaiting() {
+		while (!this.waiting.isEmpty() && (!this.batches.isEmpty() || this.exhausted)) {
+			List<PasswordRecord> records = this.batches.isEmpty() ? Collections.emptyList() : this.batches.poll();
+			this.waiting.poll().tell(new Master.BatchMessage(records), this.self());
+		}
 	}
 	
-	private void read() throws Exception {
-		this.buffer.clear();
+	// Start reading the next batch on the blocking I/O dispatcher, unless a read is running or the buffer is full
+	private void readAhead() {
+		if (this.reading || this.exhausted || (this.batches.size() >= this.readAhead))
+			return;
+		
+		this.reading = true;
+		final MappedCsvReader reader = this.reader;
+		final int size = this.batchSize;
+		CompletableFuture<ReadCompletedMessage> read = CompletableFuture.supplyAsync(() -> {
+			List<PasswordRecord> records = new ArrayList<>(size);
+			try {
+				while ((records.size() < size) && reader.next())
+					records.add(PasswordRecord.read(reader));
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+			return new ReadCompletedMessage(records, size);
+		}, this.blockingIoDispatcher);
 		
-		String[] line;
-		while ((this.buffer.size() < this.bufferSize) && ((line = this.reader.readNext()) != null))
-			this.buffer.add(line);
+		Patterns.pipe(read, this.context().dispatcher()).to(this.self());
 	}
 }
@@ -1,11 +1,12 @@
 package de.hpi.ddm.actors;
 
 import java.io.Serializable;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.*;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
 
 import akka.actor.AbstractLoggingActor;
 import akka.actor.ActorRef;
@@ -18,10 +19,26 @@ import akka.cluster.ClusterEvent.MemberUp;
 import akka.cluster.Member;
 import akka.cluster.MemberStatus;
 import de.hpi.ddm.MasterSystem;
+import de.hpi.ddm.cracking.CancellationToken;
+import de.hpi.ddm.cracking.CandidateEnumerator;
+import de.hpi.ddm.cracking.DigestEngine;
+import de.hpi.ddm.cracking.DigestTable;
+import de.hpi.ddm.cracking.Digests;
+import de.hpi.ddm.cracking.ForkJoinPoolSingleton;
+import de.hpi.ddm.cracking.ForkJoinSearch;
+import de.hpi.ddm.cracking.HashKernelSingleton;
+import de.hpi.ddm.cracking.MatchListener;
+import de.hpi.ddm.cracking.PermutationEnumerator;
+import de.hpi.ddm.cracking.Permutations;
+import de.hpi.ddm.cracking.Ranges;
+import de.hpi.ddm.io.PermutationTable;
+import de.hpi.ddm.io.PermutationTablesSingleton;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.apache.commons.lang3.ArrayUtils;
 
 public class Worker extends AbstractLoggingActor {
 
@@ -31,12 +48,23 @@ public class Worker extends AbstractLoggingActor {
 
     public static final String DEFAULT_NAME = "worker";
 
+    private static final int PARTS_PER_THREAD = 4;
+
     public static Props props() {
-        return Props.create(Worker.class);
+        return Props.create(Worker.class, () -> new Worker(true));
+    }
+
+    /**
+     * @param register {@code false} for a worker behind a {@link Dispatcher}, which receives its tasks from the
+     *                 dispatcher instead of registering with the master
+     */
+    public static Props props(boolean register) {
+        return Props.create(Worker.class, () -> new Worker(register));
     }
 
-    public Worker() {
+    public Worker(boolean register) {
         this.cluster = Cluster.get(this.context().system());
+        this.register = register;
     }
 
     ////////////////////
@@ -44,16 +72,42 @@ public class Worker extends AbstractLoggingActor {
     ////////////////////
 
     @Data
-    public static class StartMessage implements Serializable {
-        private static final long serialVersionUID = 3658961703483581871L;
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CrackHintsMessage implements Serializable {
+        private static final long serialVersionUID = 2169520843946217624L;
+        private int id;
+        private byte[] symbols;
+        private byte[] hints;       // The raw digests of the hints, packed one after another
+        private int limit;      // The maximum number of hints that this space can contain
+        private long from;      // The rank of the first permutation to search
+        private long to;        // The rank after the last permutation to search
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CrackPasswordMessage implements Serializable {
+        private static final long serialVersionUID = -3085960371268372934L;
+        private int id;
+        private byte[] chars;
+        private int length;
+        private byte[] password;
+        private long from;      // The rank of the first password to search
+        private long to;        // The rank after the last password to search
     }
 
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
-    public static class ProcessLineMessage implements Serializable {
-        private static final long serialVersionUID = -5552548416077950569L;
-        private String[] line;
+    public static class CancelTaskMessage implements Serializable {
+        private static final long serialVersionUID = -4127532865384011764L;
+        private int id;             // The task whose result is not needed any more
+    }
+
+    @Data
+    public static class SliceMessage implements Serializable {
+        private static final long serialVersionUID = 6470021938735472196L;
     }
 
     /////////////////
@@ -62,6 +116,98 @@ public class Worker extends AbstractLoggingActor {
 
     private Member masterSystem;
     private final Cluster cluster;
+    private final boolean register;     // False behind a dispatcher, which registers for the whole node
+    private final DigestEngine digestEngine = new DigestEngine();
+    // If the node shares a fork/join pool, every task is split and searched on the pool while we stay responsive
+    private final ForkJoinPool pool = ForkJoinPoolSingleton.get();
+
+    // Every task is a job until its result is sent; without a pool, the jobs are searched one after another in slices,
+    // so that cancellations are received in between
+    private final Int2ObjectOpenHashMap<Job> jobs = new Int2ObjectOpenHashMap<>();
+    private final Queue<Job> queue = new ArrayDeque<>();
+    private Job current;
+
+    // A task with its search state, which survives from one slice to the next
+    private abstract static class Job implements MatchListener {
+
+        private final int id;
+        private final ActorRef requester;
+        private final CancellationToken token = new CancellationToken();             // Cancelled by the master
+        private final CancellationToken stopped = new CancellationToken(this.token); // Also cancelled once the answer is known
+        private long start;
+        private long hashed = 0;        // The number of candidates hashed so far, from which the master learns our hash rate
+        private List<CandidateEnumerator> parts = Collections.emptyList();
+        private int part = 0;
+        private DigestTable targets;
+
+        private Job(int id, ActorRef requester) {
+            this.id = id;
+            this.requester = requester;
+        }
+
+        void search(List<CandidateEnumerator> parts, DigestTable targets) {
+            this.parts = parts;
+            this.targets = targets;
+        }
+
+        @Override
+        public boolean match(int value, byte[] candidate, int length) {
+            if (!this.found(value, candidate, length)) {
+                this.stopped.cancel();
+            }
+            return !this.stopped.isCancelled();
+        }
+
+        // Record a match; returns false if the answer is complete
+        protected abstract boolean found(int value, byte[] candidate, int length);
+
+        protected abstract Serializable result();
+    }
+
+    private static class HintsJob extends Job {
+
+        private final int limit;
+        private final IntArrayList found = new IntArrayList();
+        private final ByteArrayList clearTexts = new ByteArrayList();
+
+        private HintsJob(int id, ActorRef requester, int limit) {
+            super(id, requester);
+            this.limit = limit;
+        }
+
+        @Override
+        protected boolean found(int value, byte[] candidate, int length) {
+            this.found.add(value);
+            this.clearTexts.addElements(this.clearTexts.size(), candidate, 0, length);
+            // We are done as soon as we found all hints that can be in this space
+            return this.found.size() < this.limit;
+        }
+
+        @Override
+        protected Serializable result() {
+            return new Master.HintsCrackedMessage(super.id, this.found.toIntArray(), this.clearTexts.toByteArray(), System.nanoTime() - super.start, super.hashed);
+        }
+    }
+
+    private static class PasswordJob extends Job {
+
+        private byte[] password = new byte[0];
+
+        private PasswordJob(int id, ActorRef requester) {
+            super(id, requester);
+        }
+
+        @Override
+        protected boolean found(int value, byte[] candidate, int length) {
+            this.password = Arrays.copyOf(candidate, length);
+            return false;
+        }
+
+        @Override
+        protected Serializable result() {
+            return new Master.FoundPassword(super.id, this.password, System.nanoTime() - super.start, super.hashed);
+        }
+    }
 
     /////////////////////
     // Actor Lifecycle //
@@ -71,12 +217,16 @@ public class Worker extends AbstractLoggingActor {
     public void preStart() {
         Reaper.watchWithDefaultReaper(this);
 
-        this.cluster.subscribe(this.self(), MemberUp.class, MemberRemoved.class);
+        if (this.register) {
+            this.cluster.subscribe(this.self(), MemberUp.class, MemberRemoved.class);
+        }
     }
 
     @Override
     public void postStop() {
         this.cluster.unsubscribe(this.self());
+        // Searches on the pool must not outlive us
+        this.jobs.values().forEach(job -> job.token.cancel());
     }
 
     ////////////////////
@@ -89,59 +239,133 @@ public class Worker extends AbstractLoggingActor {
                 .match(CurrentClusterState.class, this::handle)
                 .match(MemberUp.class, this::handle)
                 .match(MemberRemoved.class, this::handle)
-                .match(StartMessage.class, this::handle)
-                .match(ProcessLineMessage.class, this::handle)
+                .match(CrackHintsMessage.class, this::handle)
+                .match(CrackPasswordMessage.class, this::handle)
+                .match(CancelTaskMessage.class, this::handle)
+                .match(SliceMessage.class, this::handle)
+                .match(Master.HintsCrackedMessage.class, this::handle)
+                .match(Master.FoundPassword.class, this::handle)
                 .matchAny(object -> this.log().info("Received unknown message: \"{}\"", object.toString()))
                 .build();
     }
 
-    private void handle(StartMessage startMessage) {
-        //System.out.println("worker startmessage");
-        this.sender().tell(new Master.RequestLineMessage(), this.self());
-    }
+    private void handle(CrackHintsMessage message) {
+        HintsJob job = new HintsJob(message.getId(), this.sender(), message.getLimit());
+        byte[] hints = message.getHints();
+        int numHints = hints.length / Digests.DIGEST_LENGTH;
+        DigestTable targets = new DigestTable(numHints);
+        // A precomputed table of the space resolves every hint with a lookup, so the space is never enumerated; a hit is
+        // only reported by the task whose range holds its rank, so that a space split into several tasks reports it once
+        PermutationTable table = PermutationTablesSingleton.find(message.getSymbols());
+        for (int i = 0; i < numHints; i++) {
+            byte[] clearText = (table == null) ? null : table.find(hints, i * Digests.DIGEST_LENGTH, this.digestEngine);
+            if (clearText == null) {
+                if (table == null) {
+                    targets.putIfAbsent(hints, i * Digests.DIGEST_LENGTH, i);
+                }
+            } else if (PermutationEnumerator.isPermutation(message.getSymbols(), clearText)) {
+                long rank = Permutations.rank(message.getSymbols(), clearText);
+                if ((rank >= message.getFrom()) && (rank < message.getTo())) {
+                    job.found(i, clearText, clearText.length);
+                }
+            }
+            // A hint that is no permutation of our symbols belongs to another space and cannot be found here
+        }
 
-    private void handle(ProcessLineMessage processLineMessage) {
-        String[] line = processLineMessage.line;
-        String chars = line[2];
-        char[] chars_array = chars.toCharArray();
-        List<Character> chars_in_password = new ArrayList<>();
-        for (char c : chars_array) {
-            chars_in_password.add(c);
+        // Enumerate the range of the permutation space once and probe every permutation against all hints at the same time
+        if ((job.found.size() < message.getLimit()) && !targets.isEmpty()) {
+            job.search(Ranges.permutations(message.getSymbols(), message.getFrom(), message.getTo(), this.numParts()), targets);
         }
-        int password_length = Integer.parseInt(line[3]);
-        String password_hash = line[4];
+        this.start(job);
+    }
+
+    private void handle(CrackPasswordMessage message) {
+        PasswordJob job = new PasswordJob(message.getId(), this.sender());
+        DigestTable targets = new DigestTable(1);
+        targets.putIfAbsent(message.getPassword(), 0);
+        job.search(Ranges.products(message.getChars(), message.getLength(), message.getFrom(), message.getTo(), this.numParts()), targets);
+        this.start(job);
+    }
+
+    // Without a pool, our own thread searches a single part; on a pool, several parts per thread let idle threads steal
+    private int numParts() {
+        return (this.pool == null) ? 1 : PARTS_PER_THREAD * this.pool.getParallelism();
+    }
 
-        //System.out.println("Processing line " + line[0]);
-        //System.out.println("Password: " + password_hash);
+    // Search on the node's pool or queue the job for our own thread; the pool reports the result back to us with the
+    // requester as sender, so that results always leave through the actor
+    private void start(Job job) {
+        this.jobs.put(job.id, job);
+        if (this.pool == null) {
+            this.queue.add(job);
+            if (this.current == null) {
+                this.next();
+            }
+            return;
+        }
+        ActorRef self = this.self();
+        this.pool.execute(() -> {
+            job.start = System.nanoTime();
+            if (!job.parts.isEmpty()) {
+                job.hashed = ForkJoinSearch.search(job.parts, job.targets, job, job.token);
+            }
+            if (!job.token.isCancelled()) {
+                self.tell(job.result(), job.requester);
+            }
+        });
+    }
 
-        Set<String> hints = new HashSet<>(Arrays.asList(line).subList(5, line.length));
+    private void next() {
+        this.current = this.queue.poll();
+        if (this.current != null) {
+            this.current.start = System.nanoTime();
+            this.self().tell(new SliceMessage(), this.self());
+        }
+    }
 
-        // Lets crack the hints
-        for (int i = 0; i < chars_array.length; i++) {
-            //System.out.println("Trying permutations without char " + chars_array[i]);
-            char[] current_chars = ArrayUtils.remove(chars_array, i);
-            if (this.heapPermutation(current_chars, current_chars.length, hints)) {
-                //System.out.println("Char " + chars_array[i] + " is not in password");
-                chars_in_password.remove((Character) chars_array[i]);
+    private void handle(SliceMessage message) {
+        Job job = this.current;
+        if (!job.stopped.isCancelled() && (job.part < job.parts.size())) {
+            long slice = this.digestEngine.search(job.parts.get(job.part), job.targets, job, DigestEngine.SLICE);
+            job.hashed += slice;
+            if (slice < DigestEngine.SLICE) {
+                job.part++;
             }
         }
-        //System.out.println("Chars in password: " + chars_in_password);
-
-        String password = crackPassword(
-                chars_in_password,
-                "",
-                chars_in_password.size(),
-                password_length,
-                password_hash
-        );
-        //System.out.println("The password is " + password);
-
-        // Send out the found password
-        this.sender().tell(new Master.FoundPassword(line[0], password), this.self());
-        // Since we are done, request more work
-        this.sender().tell(new Master.RequestLineMessage(), this.self());
+
+        if (job.token.isCancelled()) {
+            // The master does not expect a result any more
+            this.next();
+        } else if (job.stopped.isCancelled() || (job.part == job.parts.size())) {
+            this.jobs.remove(job.id);
+            job.requester.tell(job.result(), this.self());
+            this.next();
+        } else {
+            this.self().tell(message, this.self());
+        }
+    }
+
+    private void handle(CancelTaskMessage message) {
+        Job job = this.jobs.remove(message.getId());
+        if (job == null) {
+            // The result is on its way already
+            return;
+        }
+        job.token.cancel();
+        this.queue.remove(job);
+    }
+
+    private void handle(Master.HintsCrackedMessage message) {
+        if (this.jobs.remove(message.getId()) != null) {
+            this.sender().tell(message, this.self());
+        }
     }
 
+    private void handle(Master.FoundPassword message) {
+        if (this.jobs.remove(message.getId()) != null) {
+            this.sender().tell(message, this.self());
+        }
+    }
 
     private void handle(CurrentClusterState message) {
         message.getMembers().forEach(member -> {
@@ -160,7 +384,7 @@ public class Worker extends AbstractLoggingActor {
 
             this.getContext()
                     .actorSelection(member.address() + "/user/" + Master.DEFAULT_NAME)
-                    .tell(new Master.RegistrationMessage(), this.self());
+                    .tell(new Master.RegistrationMessage(Runtime.getRuntime().availableProcessors(), HashKernelSingleton.getHashesPerSecond(), 0), this.self());
         }
     }
 
@@ -168,97 +392,4 @@ public class Worker extends AbstractLoggingActor {
         if (this.masterSystem.equals(message.member()))
             this.self().tell(PoisonPill.getInstance(), ActorRef.noSender());
     }
-
-    // Slightly optimized by IDEA hints
-    private String hash(String line) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashedBytes = digest.digest(String.valueOf(line).getBytes(StandardCharsets.UTF_8));
-
-            StringBuilder stringBuffer = new StringBuilder();
-            for (byte hashedByte : hashedBytes) {
-                stringBuffer.append(Integer.toString((hashedByte & 0xff) + 0x100, 16).substring(1));
-            }
-            return stringBuffer.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e.getMessage());
-        }
-    }
-
-    // Generating all permutations of an array using Heap's Algorithm
-    // https://en.wikipedia.org/wiki/Heap's_algorithm
-    // https://www.geeksforgeeks.org/heaps-algorithm-for-generating-permutations/
-    // Adopted for current use case
-    private boolean heapPermutation(char[] a, int size, Set<String> hints) {
-        // If size is 1, store the obtained permutation
-        if (size == 1) {
-            //l.add(new String(a));
-            String hint = new String(a);
-            String hash = hash(hint);
-            if (hints.contains(hash)) {
-                // No need to check the same has again
-                hints.remove(hash);
-                //System.out.println("Found hint " + hint);
-                return true;
-            }
-            return false;
-        }
-
-        for (int i = 0; i < size; i++) {
-            if (heapPermutation(a, size - 1, hints)) {
-                // Found a hint already, abort early to save CPU time
-                return true;
-            }
-
-            // If size is odd, swap first and last element
-            if (size % 2 == 1) {
-                char temp = a[0];
-                a[0] = a[size - 1];
-                a[size - 1] = temp;
-            }
-
-            // If size is even, swap i-th and last element
-            else {
-                char temp = a[i];
-                a[i] = a[size - 1];
-                a[size - 1] = temp;
-            }
-        }
-        return false;
-    }
-
-    // The main recursive method
-    // to print all possible
-    // strings of length k
-    // https://www.geeksforgeeks.org/print-all-combinations-of-given-length/
-    // Adopted for current use case
-    private String crackPassword(List<Character> set, String prefix, int n, int k, String hash) {
-
-        // Base case: k is 0,
-        // print prefix
-        if (k == 0) {
-            if (hash(prefix).equals(hash)) {
-                return prefix;
-            }
-            return "";
-        }
-
-        // One by one add all characters
-        // from set and recursively
-        // call for k equals to k-1
-        for (int i = 0; i < n; ++i) {
-
-            // Next character of input added
-            String newPrefix = prefix + set.get(i);
-
-            // k is decreased, because
-            // we have added a new character
-            String result = crackPassword(set, newPrefix, n, k - 1, hash);
-            if (!result.equals("")) {
-                // abort because we already found the password
-                return result;
-            }
-        }
-        return "";
-    }
-}
\ No newline at end of file
+}
@@ -2,6 +2,8 @@ package de.hpi.ddm.configuration;
 
 import com.beust.jcommander.Parameter;
 
+import de.hpi.ddm.cracking.HashKernels;
+
 public abstract class Command {
 
 	abstract int getDefaultPort();
@@ -15,4 +17,13 @@ public abstract class Command {
 	@Parameter(names = { "-w", "--numWorkers" }, description = "The number of workers (indexers/validators) to start locally; should be at least one if the algorithm is started standalone (otherwise there are no workers to run the discovery)", required = false)
 	int numWorkers = ConfigurationSingleton.get().getNumWorkers();
 	
+	@Parameter(names = { "-td", "--tableDirectory" }, description = "Directory of the precomputed digest tables, which resolve hints over their chars without enumerating them; tables are built with the table command", required = false)
+	String tableDirectory = ConfigurationSingleton.get().getTableDirectory();
+	
+	@Parameter(names = { "-hk", "--hashKernel" }, description = "SHA-256 implementation of the workers: AUTO (measure all kernels at startup and use the fastest), MESSAGE_DIGEST (the JDK's), SCALAR (single-block with prefix reuse) or MULTI_BUFFER (interleaved lanes)", required = false)
+	HashKernels hashKernel = ConfigurationSingleton.get().getHashKernel();
+	
+	@Parameter(names = { "-fj", "--forkJoinParallelism" }, description = "Number of threads of a fork/join pool that all workers of a node share; every task is then split into sub-ranges of its ranks that are searched in parallel, which keeps all cores busy when there are fewer tasks than cores, e.g., at the end of a run; 0 lets every worker search on its own thread", required = false)
+	int forkJoinParallelism = ConfigurationSingleton.get().getForkJoinParallelism();
+	
 }
@@ -5,6 +5,8 @@ import java.nio.charset.Charset;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 
+import de.hpi.ddm.scheduling.SchedulingPolicies;
+
 @Parameters(commandDescription = "start a master actor system")
 public class CommandMaster extends Command {
 
@@ -16,8 +18,41 @@ public class CommandMaster extends Command {
 	@Parameter(names = { "-sp", "--startPaused" }, description = "Wait for some console input to start the discovery; useful, if we want to wait manually until all ActorSystems in the cluster are started (e.g. to avoid work stealing effects in performance evaluations)", required = false)
 	boolean startPaused = ConfigurationSingleton.get().isStartPaused();
 
-	@Parameter(names = { "-bs", "--bufferSize" }, description = "Buffer for input reading (the DatasetReader pre-fetches and buffers this many records)", required = false)
+	@Parameter(names = { "-dc", "--digestCache" }, description = "File of the persistent digest cache of the master, which is reused across runs and resolves known digests before any task is dispatched; an empty value disables the cache", required = false)
+	String digestCache = ConfigurationSingleton.get().getDigestCache();
+
+	@Parameter(names = { "-bs", "--bufferSize" }, description = "Buffer for input reading (the DatasetReader pre-fetches and buffers at least this many records per batch; the batch size grows if the master consumes faster)", required = false)
 	int bufferSize = ConfigurationSingleton.get().getBufferSize();
+
+	@Parameter(names = { "-ra", "--readAhead" }, description = "Maximum number of batches that the DatasetReader reads ahead of the master's requests", required = false)
+	int readAhead = ConfigurationSingleton.get().getReadAhead();
+
+	@Parameter(names = { "-hgs", "--hintGroupSize" }, description = "Maximum number of rows with equal password chars whose hints are cracked together, i.e., every permutation space is enumerated only once per group; a value of 1 or less cracks every row on its own", required = false)
+	int hintGroupSize = ConfigurationSingleton.get().getHintGroupSize();
+
+	@Parameter(names = { "-lt", "--leaseTimeout" }, description = "Number of seconds after which a task that a worker did not complete is assigned again", required = false)
+	int leaseTimeout = ConfigurationSingleton.get().getLeaseTimeout();
+
+	@Parameter(names = { "-pf", "--prefetch" }, description = "Maximum number of tasks that are queued at each worker to hide the round-trip to its node; the actual number adapts to the measured round-trip and task durations", required = false)
+	int prefetch = ConfigurationSingleton.get().getPrefetch();
+
+	@Parameter(names = { "-ts", "--taskSize" }, description = "Maximum number of candidates per task; larger permutation and password spaces are split into ranges that are searched as tasks of their own, 0 for no maximum", required = false)
+	long taskSize = ConfigurationSingleton.get().getTaskSize();
+
+	@Parameter(names = { "-tdu", "--taskDuration" }, description = "Number of milliseconds that a task should take; every task is cut to the hash rate that its worker reported times this duration, and tasks shrink towards the end of the run, 0 to split by the task size only", required = false)
+	long taskDuration = ConfigurationSingleton.get().getTaskDuration();
+
+	@Parameter(names = { "-spec", "--speculationPercentile" }, description = "Percentile of the task turnaround times that a task must exceed before an idle worker duplicates it once the queue is drained; the first result wins and the other copy is cancelled, 0 disables speculative execution", required = false)
+	double speculationPercentile = ConfigurationSingleton.get().getSpeculationPercentile();
+
+	@Parameter(names = { "-sch", "--schedulingPolicy" }, description = "Order in which tasks are handed out: LPT (longest processing time first, minimizes the makespan), SJF (shortest job first, yields early results) or FIFO", required = false)
+	SchedulingPolicies schedulingPolicy = ConfigurationSingleton.get().getSchedulingPolicy();
+
+	@Parameter(names = { "-o", "--outputFile" }, description = "File to which the cracked rows are appended as they arrive, in the layout of the solution file", required = false)
+	String outputFile = ConfigurationSingleton.get().getOutputFile();
+
+	@Parameter(names = { "-fi", "--flushInterval" }, description = "Number of milliseconds after which buffered results are written to the output file at the latest", required = false)
+	int flushInterval = ConfigurationSingleton.get().getFlushInterval();
 	
 	// DatasetDescriptor
 	
@@ -0,0 +1,22 @@
+package de.hpi.ddm.configuration;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+
+@Parameters(commandDescription = "build the sorted digest table of all hints over a set of password chars")
+public class CommandTable {
+
+	@Parameter(names = { "-c", "--chars" }, description = "The password chars as defined by the input data, e.g., ABCDEFGHIJK", required = true)
+	String chars;
+
+	public String getChars() {
+		return this.chars;
+	}
+
+	@Parameter(names = { "-td", "--tableDirectory" }, description = "Directory of the precomputed digest tables", required = false)
+	String tableDirectory = ConfigurationSingleton.get().getTableDirectory();
+
+	@Parameter(names = { "-w", "--numWorkers" }, description = "The number of threads that hash the permutations", required = false)
+	int numWorkers = Runtime.getRuntime().availableProcessors();
+	
+}
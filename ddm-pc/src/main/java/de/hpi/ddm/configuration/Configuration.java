@@ -1,8 +1,11 @@
 package de.hpi.ddm.configuration;
 
+import java.io.File;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 
+import de.hpi.ddm.cracking.HashKernels;
+import de.hpi.ddm.scheduling.SchedulingPolicies;
 import lombok.Data;
 
 @Data
@@ -21,9 +24,37 @@ public class Configuration {
 	
 	private int numWorkers = 4;						// The number of workers to start locally; should be at least one if the algorithm is started standalone (otherwise there are no workers to run the application)
 	
+	private String digestCache = "cache" + File.separator + "digests.cache";	// File of the persistent digest cache of the master, which is reused across runs; empty to disable the cache
+	
+	private String tableDirectory = "tables";		// Directory of the precomputed digest tables, which resolve hints over their chars without enumerating them
+	
+	private HashKernels hashKernel = HashKernels.AUTO;	// SHA-256 implementation of the workers; AUTO measures all of them at startup and picks the fastest
+	
+	private int forkJoinParallelism = 0;			// Number of threads of a fork/join pool that all workers of a node share to split their tasks; 0 to let every worker search on its own thread
+	
 	private boolean startPaused = false;			// Wait for some console input to start; useful, if we want to wait manually until all ActorSystems in the cluster are started (e.g. to avoid work stealing effects in performance evaluations)
 	
-	private int bufferSize = 50; 					// Buffer for input reading (the DatasetReader pre-fetches and buffers this many records)
+	private int bufferSize = 50; 					// Buffer for input reading (the DatasetReader pre-fetches and buffers at least this many records per batch)
+	
+	private int readAhead = 4;						// Maximum number of batches that the DatasetReader reads ahead of the master's requests
+	
+	private int hintGroupSize = 1000;				// Maximum number of rows with equal password chars whose hints are cracked together; a value of 1 or less cracks every row on its own
+	
+	private int leaseTimeout = 600;					// Number of seconds after which a task that a worker did not complete is assigned again
+	
+	private int prefetch = 4;						// Maximum number of tasks that are queued at each worker to hide the round-trip to its node
+	
+	private long taskSize = 1L << 24;				// Maximum number of candidates per task; larger search spaces are split into range tasks, 0 for no maximum
+	
+	private long taskDuration = 1000;				// Number of milliseconds that a task should take on the worker that receives it, measured by the hash rates of the workers; 0 to split by the task size only
+	
+	private double speculationPercentile = 90;		// Percentile of the task turnaround times after which an idle worker duplicates a task at the end of the run; 0 to disable speculative execution
+	
+	private SchedulingPolicies schedulingPolicy = SchedulingPolicies.LPT;	// Order in which tasks are handed out
+	
+	private String outputFile = "results" + File.separator + "passwords_solution.csv";	// File to which the cracked rows are appended as they arrive
+	
+	private int flushInterval = 1000;				// Number of milliseconds after which buffered results are written to the output file at the latest
 	
 	private static String getDefaultHost() {
         try {
@@ -37,8 +68,27 @@ public class Configuration {
 		this.host = commandMaster.host;
 		this.port = commandMaster.port;
 		this.numWorkers = commandMaster.numWorkers;
+		this.digestCache = commandMaster.digestCache;
+		this.tableDirectory = commandMaster.tableDirectory;
+		this.hashKernel = commandMaster.hashKernel;
+		this.forkJoinParallelism = commandMaster.forkJoinParallelism;
 		this.startPaused = commandMaster.startPaused;
 		this.bufferSize = commandMaster.bufferSize;
+		this.readAhead = commandMaster.readAhead;
+		this.hintGroupSize = commandMaster.hintGroupSize;
+		this.leaseTimeout = commandMaster.leaseTimeout;
+		this.prefetch = commandMaster.prefetch;
+		this.taskSize = commandMaster.taskSize;
+		this.taskDuration = commandMaster.taskDuration;
+		this.speculationPercentile = commandMaster.speculationPercentile;
+		this.schedulingPolicy = commandMaster.schedulingPolicy;
+		this.outputFile = commandMaster.outputFile;
+		this.flushInterval = commandMaster.flushInterval;
+	}
+
+	public void update(CommandTable commandTable) {
+		this.tableDirectory = commandTable.tableDirectory;
+		this.numWorkers = commandTable.numWorkers;
 	}
 
 	public void update(CommandSlave commandSlave) {
@@ -47,5 +97,8 @@ public class Configuration {
 		this.masterHost = commandSlave.masterhost;
 		this.masterPort = commandSlave.masterport;
 		this.numWorkers = commandSlave.numWorkers;
+		this.tableDirectory = commandSlave.tableDirectory;
+		this.hashKernel = commandSlave.hashKernel;
+		this.forkJoinParallelism = commandSlave.forkJoinParallelism;
 	}
 }
@@ -1,21 +1,14 @@
 package de.hpi.ddm.configuration;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
-import com.opencsv.CSVParser;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.enums.CSVReaderNullFieldIndicator;
-
+import de.hpi.ddm.io.MappedCsvReader;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -61,23 +54,15 @@ public class DatasetDescriptor implements Serializable {
 		this.readerSkipDifferingLines = commandMaster.readerSkipDifferingLines;
 	}
 
-	public CSVReader createCSVReader() throws IOException {
+	public MappedCsvReader createCSVReader() throws IOException {
 		Path path = Paths.get(this.datasetPath + this.datasetName + this.datasetEnding);
 		
-		CSVParser parser = new CSVParserBuilder()
-				.withSeparator(this.valueSeparator)
-				.withQuoteChar(this.valueQuote)
-				.withEscapeChar(this.valueEscape)
-				.withStrictQuotes(this.valueStrictQuotes)
-				.withIgnoreLeadingWhiteSpace(this.valueIgnoreLeadingWhitespace)
-				.withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_SEPARATORS)
-				.build();
-		
-		BufferedReader buffer = Files.newBufferedReader(path, this.charset);
-		CSVReader reader = new CSVReaderBuilder(buffer).withCSVParser(parser).build();
+		MappedCsvReader reader = new MappedCsvReader(path, this.charset,
+				this.valueSeparator, this.valueQuote, this.valueEscape,
+				this.valueStrictQuotes, this.valueIgnoreLeadingWhitespace, this.readerSkipDifferingLines);
 		
 		if (this.fileHasHeader)
-			reader.readNext();
+			reader.next();
 		
 		return reader;
 	}
@@ -0,0 +1,30 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * A flag that stops a search between two of its slices. A token can be the child of another token, so that cancelling a
+ * task stops all of its sub-searches, while a sub-search that found the answer stops only its siblings.
+ */
+public class CancellationToken {
+
+	private final CancellationToken parent;
+	private volatile boolean cancelled = false;
+
+	public CancellationToken() {
+		this(null);
+	}
+
+	/**
+	 * @param parent the token whose cancellation cancels this token, too
+	 */
+	public CancellationToken(CancellationToken parent) {
+		this.parent = parent;
+	}
+
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return this.cancelled || ((this.parent != null) && this.parent.isCancelled());
+	}
+}
@@ -0,0 +1,36 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * Enumerates the candidates of a search space by mutating a single byte buffer in place, so that walking the space
+ * does not create any garbage. Typical usage:
+ * <pre>
+ * while (enumerator.next())
+ *     hash(enumerator.candidate(), enumerator.length());
+ * </pre>
+ */
+public interface CandidateEnumerator {
+
+	/**
+	 * @return the buffer holding the current candidate; it is owned by the enumerator and changes with every {@link #next()}
+	 */
+	byte[] candidate();
+
+	/**
+	 * @return the number of bytes of every candidate in this space
+	 */
+	int length();
+
+	/**
+	 * Advance to the next candidate. The first call positions the enumerator on the first candidate.
+	 * @return {@code false} if the space is exhausted and the buffer holds no new candidate
+	 */
+	boolean next();
+
+	/**
+	 * @return the index of the first byte of the buffer that the last {@link #next()} changed, so that the digests of
+	 * consecutive candidates can share the work on their common prefix; 0 if the enumeration does not keep track
+	 */
+	default int firstChanged() {
+		return 0;
+	}
+}
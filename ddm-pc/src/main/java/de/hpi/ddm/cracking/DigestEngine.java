@@ -0,0 +1,151 @@
+package de.hpi.ddm.cracking;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A reusable SHA-256 engine that hashes candidates from a caller owned byte buffer into a reused output buffer.
+ * Hashing a candidate does not allocate anything, but the engine is stateful and must not be shared between threads;
+ * every worker owns its own instance.
+ * <p>
+ * Searches hash their candidates with a {@link HashKernel}, by default with the kernel that the node's calibration
+ * chose; candidates that are too long for the kernel are hashed one by one. Single candidates that fit into a single
+ * SHA-256 block are hashed by a {@link SingleBlockSha256} instead of the JDK's generic implementation.
+ */
+public class DigestEngine {
+
+	public static final String ALGORITHM = "SHA-256";
+	public static final int SLICE = 1 << 16;		// Candidates per slice of a cancellable search, i.e., some 30 ms; a multiple of every kernel's lanes
+
+	private final MessageDigest digest;
+	private final byte[] output = new byte[Digests.DIGEST_LENGTH];
+
+	private final HashKernel kernel;
+	private final int[] values;						// The value of every lane's digest in the targets of a search
+	private byte[] match = new byte[MultiBufferSha256.MAX_LENGTH];
+	private SingleBlockSha256 block = new SingleBlockSha256(0);	// Hashes single candidates of the length of the last one
+
+	public DigestEngine() {
+		this(HashKernelSingleton.get().create());
+	}
+
+	public DigestEngine(HashKernel kernel) {
+		this.kernel = kernel;
+		this.values = new int[kernel.lanes()];
+		try {
+			this.digest = MessageDigest.getInstance(ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Hash the first {@code length} bytes of the candidate buffer.
+	 * @param candidate the buffer holding the candidate
+	 * @param length the number of bytes of the candidate
+	 * @return the engine's output buffer, which is overwritten by the next call
+	 */
+	public byte[] digest(byte[] candidate, int length) {
+		return this.digest(candidate, length, 0);
+	}
+
+	/**
+	 * Hash the first {@code length} bytes of the candidate buffer, reusing the work on the prefix that the candidate
+	 * shares with the candidate of the previous call.
+	 * @param candidate the buffer holding the candidate
+	 * @param length the number of bytes of the candidate
+	 * @param firstChanged the index of the first byte that differs from the candidate of the previous call, as reported
+	 * by {@link CandidateEnumerator#firstChanged()}; 0 if the candidates are unrelated
+	 * @return the engine's output buffer, which is overwritten by the next call
+	 */
+	public byte[] digest(byte[] candidate, int length, int firstChanged) {
+		if (length <= MultiBufferSha256.MAX_LENGTH) {
+			if (this.block.length() != length)
+				this.block = new SingleBlockSha256(length);
+			this.block.hash(candidate, firstChanged);
+			this.block.digest(this.output, 0);
+			return this.output;
+		}
+
+		this.digest.update(candidate, 0, length);
+		try {
+			this.digest.digest(this.output, 0, Digests.DIGEST_LENGTH);
+		} catch (DigestException e) {
+			throw new RuntimeException(e.getMessage());
+		}
+		return this.output;
+	}
+
+	/**
+	 * Hash the first {@code length} bytes of the candidate buffer and compare the result with the target digest.
+	 * @param candidate the buffer holding the candidate
+	 * @param length the number of bytes of the candidate
+	 * @param target the raw digest we are looking for
+	 * @return {@code true} if the candidate hashes to the target
+	 */
+	public boolean matches(byte[] candidate, int length, byte[] target) {
+		return Digests.equals(this.digest(candidate, length), target);
+	}
+
+	/**
+	 * Hash all candidates of the enumerator and report every candidate whose digest is in the table. Each digest is
+	 * probed against any number of targets at constant cost, which allows to search one space for the targets of many
+	 * rows at once.
+	 * @param candidates the search space to walk
+	 * @param targets the raw digests we are looking for
+	 * @param listener is called for every match and decides whether the search continues
+	 * @return the number of candidates that were hashed
+	 */
+	public long search(CandidateEnumerator candidates, DigestTable targets, MatchListener listener) {
+		return this.search(candidates, targets, listener, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Hash the next slice of candidates of the enumerator and report every candidate whose digest is in the table.
+	 * The enumerator keeps its position, so that the next call continues the search where this one paused; in
+	 * between, the caller can check whether the search was cancelled.
+	 * @param candidates the search space to walk
+	 * @param targets the raw digests we are looking for
+	 * @param listener is called for every match and decides whether the search continues
+	 * @param limit the number of candidates after which the search pauses, a multiple of the kernel's lanes like
+	 * {@link #SLICE}
+	 * @return the number of candidates that were hashed; less than the limit if the space is exhausted, but not
+	 * necessarily if the listener stopped the search
+	 */
+	public long search(CandidateEnumerator candidates, DigestTable targets, MatchListener listener, long limit) {
+		final byte[] candidate = candidates.candidate();
+		final int length = candidates.length();
+		long hashed = 0;
+		if (length > this.kernel.maxLength()) {
+			while ((hashed < limit) && candidates.next()) {
+				hashed++;
+				final int value = targets.get(this.digest(candidate, length));
+				if ((value >= 0) && !listener.match(value, candidate, length))
+					break;
+			}
+			return hashed;
+		}
+
+		if (this.match.length < length)
+			this.match = new byte[length];
+		final HashKernel kernel = this.kernel;
+		final int[] values = this.values;
+		int filled;
+		do {
+			filled = kernel.hash(candidates, hashed == 0);
+			hashed += filled;
+			if ((filled == 0) || (kernel.probe(targets, filled, values) == 0))
+				continue;
+			for (int lane = 0; lane < filled; lane++) {
+				if (values[lane] < 0)
+					continue;
+				// Enumerators derive their next candidate from their buffer, so the match is restored into a separate one
+				kernel.message(lane, this.match, length);
+				if (!listener.match(values[lane], this.match, length))
+					return hashed;
+			}
+		} while ((filled == kernel.lanes()) && (hashed < limit));
+		return hashed;
+	}
+}
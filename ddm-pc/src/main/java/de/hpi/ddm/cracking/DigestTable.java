@@ -0,0 +1,126 @@
+package de.hpi.ddm.cracking;
+
+import java.util.Arrays;
+
+/**
+ * A primitive open-addressing hash table that maps raw SHA-256 digests to non-negative int values. Digests are
+ * uniformly distributed already, so their first word is used as hash code directly and collisions are resolved by
+ * linear probing. The table does not grow: its capacity is fixed to twice the expected size at construction time.
+ */
+public class DigestTable {
+
+	private static final int EMPTY = -1;
+	private static final int WORDS = Digests.DIGEST_LENGTH / Long.BYTES;
+
+	private final long[] keys;		// WORDS consecutive words per slot
+	private final int[] values;		// EMPTY marks a free slot
+	private final int mask;
+
+	private int size = 0;
+
+	/**
+	 * @param expectedSize the maximum number of digests that will be put into the table
+	 */
+	public DigestTable(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+		this.keys = new long[capacity * WORDS];
+		this.values = new int[capacity];
+		this.mask = capacity - 1;
+		Arrays.fill(this.values, EMPTY);
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Associate the digest with the value, unless the digest is already in the table.
+	 * @param digest the raw digest
+	 * @param value a non-negative value
+	 * @return the value that is associated with the digest after this call, i.e., the old value if there was one
+	 * @throws IllegalStateException if the table is full
+	 */
+	public int putIfAbsent(byte[] digest, int value) {
+		return this.putIfAbsent(digest, 0, value);
+	}
+
+	/**
+	 * Associate a digest that is packed into a larger array with the value, unless the digest is already in the table.
+	 * @param digests the array holding the raw digest
+	 * @param offset the index of the raw digest in the array
+	 * @param value a non-negative value
+	 * @return the value that is associated with the digest after this call, i.e., the old value if there was one
+	 * @throws IllegalStateException if the table is full
+	 */
+	public int putIfAbsent(byte[] digests, int offset, int value) {
+		if (value < 0)
+			throw new IllegalArgumentException("Values must not be negative: " + value);
+
+		final long w0 = Digests.word(digests, offset, 0);
+		final long w1 = Digests.word(digests, offset, 1);
+		final long w2 = Digests.word(digests, offset, 2);
+		final long w3 = Digests.word(digests, offset, 3);
+
+		int slot = (int) w0 & this.mask;
+		while (this.values[slot] != EMPTY) {
+			if (this.equals(slot, w0, w1, w2, w3))
+				return this.values[slot];
+			slot = (slot + 1) & this.mask;
+		}
+
+		if (this.size == this.mask)
+			throw new IllegalStateException("The digest table is full.");
+
+		final int key = slot * WORDS;
+		this.keys[key] = w0;
+		this.keys[key + 1] = w1;
+		this.keys[key + 2] = w2;
+		this.keys[key + 3] = w3;
+		this.values[slot] = value;
+		this.size++;
+		return value;
+	}
+
+	/**
+	 * Look up the value of a digest. This is the hot path of every search, so misses, which are the common case, usually
+	 * cost a single word comparison.
+	 * @param digest the raw digest
+	 * @return the value associated with the digest or {@code -1} if the digest is not in the table
+	 */
+	public int get(byte[] digest) {
+		final long w0 = Digests.word(digest, 0);
+
+		int slot = (int) w0 & this.mask;
+		int value;
+		while ((value = this.values[slot]) != EMPTY) {
+			if ((this.keys[slot * WORDS] == w0) && this.equals(slot, w0, Digests.word(digest, 1), Digests.word(digest, 2), Digests.word(digest, 3)))
+				return value;
+			slot = (slot + 1) & this.mask;
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * Look up the value of a digest that is given by its four 64 bit words as read by {@link Digests#word(byte[], int)}.
+	 * @return the value associated with the digest or {@code -1} if the digest is not in the table
+	 */
+	public int get(long w0, long w1, long w2, long w3) {
+		int slot = (int) w0 & this.mask;
+		int value;
+		while ((value = this.values[slot]) != EMPTY) {
+			if (this.equals(slot, w0, w1, w2, w3))
+				return value;
+			slot = (slot + 1) & this.mask;
+		}
+		return EMPTY;
+	}
+
+	private boolean equals(int slot, long w0, long w1, long w2, long w3) {
+		final int offset = slot * WORDS;
+		return (this.keys[offset] == w0) && (this.keys[offset + 1] == w1) && (this.keys[offset + 2] == w2) && (this.keys[offset + 3] == w3);
+	}
+}
@@ -0,0 +1,109 @@
+package de.hpi.ddm.cracking;
+
+import java.nio.ByteBuffer;
+
+public class Digests {
+
+	public static final int DIGEST_LENGTH = 32;		// Bytes of a SHA-256 digest
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Decode a 64 character hex string (upper or lower case) into the 32 raw bytes of the digest.
+	 * @param hex the hex encoded digest
+	 * @return a new array holding the raw digest
+	 * @throws IllegalArgumentException if the string is not a hex encoded SHA-256 digest
+	 */
+	public static byte[] fromHex(String hex) {
+		if (hex.length() != 2 * DIGEST_LENGTH)
+			throw new IllegalArgumentException("Not a SHA-256 hex digest: \"" + hex + "\"");
+
+		byte[] digest = new byte[DIGEST_LENGTH];
+		for (int i = 0; i < DIGEST_LENGTH; i++)
+			digest[i] = (byte) ((hexValue(hex.charAt(2 * i)) << 4) | hexValue(hex.charAt(2 * i + 1)));
+		return digest;
+	}
+
+	/**
+	 * Decode a hex encoded digest directly from the (ASCII compatible) bytes of a buffer without creating a string.
+	 * @param buffer the buffer holding the hex encoded digest; its position is not changed
+	 * @param offset the absolute index of the first hex digit in the buffer
+	 * @param length the number of bytes of the hex encoded digest
+	 * @param digests the array that receives the raw digest
+	 * @param digestOffset the index in the array at which the raw digest is stored
+	 * @throws IllegalArgumentException if the bytes are not a hex encoded SHA-256 digest
+	 */
+	public static void fromHex(ByteBuffer buffer, int offset, int length, byte[] digests, int digestOffset) {
+		if (length != 2 * DIGEST_LENGTH)
+			throw new IllegalArgumentException("Not a SHA-256 hex digest: " + length + " instead of " + (2 * DIGEST_LENGTH) + " digits");
+
+		for (int i = 0; i < DIGEST_LENGTH; i++)
+			digests[digestOffset + i] = (byte) ((hexValue((char) buffer.get(offset + 2 * i)) << 4) | hexValue((char) buffer.get(offset + 2 * i + 1)));
+	}
+
+	/**
+	 * Encode the raw digest as a 64 character lower case hex string, i.e., the format of the input data.
+	 * @param digest the raw digest
+	 * @return the hex encoded digest
+	 */
+	public static String toHex(byte[] digest) {
+		char[] hex = new char[2 * DIGEST_LENGTH];
+		for (int i = 0; i < DIGEST_LENGTH; i++) {
+			hex[2 * i] = HEX_DIGITS[(digest[i] >>> 4) & 0xf];
+			hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xf];
+		}
+		return new String(hex);
+	}
+
+	/**
+	 * Compare two raw digests. Mismatches, which is the common case while cracking, usually exit on the first byte.
+	 * @param digest the digest that was just calculated
+	 * @param target the digest that we are looking for
+	 * @return {@code true} if both digests are equal
+	 */
+	public static boolean equals(byte[] digest, byte[] target) {
+		for (int i = 0; i < DIGEST_LENGTH; i++)
+			if (digest[i] != target[i])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Read one of the four 64 bit words of a raw digest in big-endian order.
+	 * @param digest the raw digest
+	 * @param index the index of the word, i.e., 0 to 3
+	 * @return the word
+	 */
+	public static long word(byte[] digest, int index) {
+		return word(digest, 0, index);
+	}
+
+	/**
+	 * Read one of the four 64 bit words of a raw digest that is packed into a larger array in big-endian order.
+	 * @param digests the array holding the raw digest
+	 * @param digestOffset the index of the raw digest in the array
+	 * @param index the index of the word, i.e., 0 to 3
+	 * @return the word
+	 */
+	public static long word(byte[] digests, int digestOffset, int index) {
+		final int offset = digestOffset + (index << 3);
+		return ((long) digests[offset] << 56)
+				| ((long) (digests[offset + 1] & 0xff) << 48)
+				| ((long) (digests[offset + 2] & 0xff) << 40)
+				| ((long) (digests[offset + 3] & 0xff) << 32)
+				| ((long) (digests[offset + 4] & 0xff) << 24)
+				| ((digests[offset + 5] & 0xff) << 16)
+				| ((digests[offset + 6] & 0xff) << 8)
+				| (digests[offset + 7] & 0xff);
+	}
+
+	static int hexValue(char c) {
+		if (c >= '0' && c <= '9')
+			return c - '0';
+		if (c >= 'a' && c <= 'f')
+			return c - 'a' + 10;
+		if (c >= 'A' && c <= 'F')
+			return c - 'A' + 10;
+		throw new IllegalArgumentException("Not a hex digit: '" + c + "'");
+	}
+}
@@ -0,0 +1,36 @@
+package de.hpi.ddm.cracking;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class ForkJoinPoolSingleton {
+
+	private static ForkJoinPool pool = null;		// Null if the workers search on their own threads
+	
+	public static ForkJoinPool get() {
+		return pool;
+	}
+	
+	public static void set(ForkJoinPool instance) {
+		pool = instance;
+	}
+	
+	/**
+	 * Start the pool that all workers of this node share; a parallelism of 0 or less disables the pool.
+	 * @param parallelism the number of threads of the pool
+	 * @return the pool or {@code null} if it is disabled
+	 */
+	public static ForkJoinPool open(int parallelism) {
+		if (parallelism <= 0)
+			return null;
+		pool = new ForkJoinPool(parallelism);
+		return pool;
+	}
+	
+	public static void close() {
+		if (pool == null)
+			return;
+		// Running searches are abandoned; their results would have nobody to go to anyway
+		pool.shutdownNow();
+		pool = null;
+	}
+}
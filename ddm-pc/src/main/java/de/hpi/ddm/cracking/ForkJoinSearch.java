@@ -0,0 +1,64 @@
+package de.hpi.ddm.cracking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Searches a space that is split into disjoint parts, e.g., by {@link Ranges}, with one fork/join task per
+ * part. The tasks are forked into the pool of the calling thread, so a search must be started from within a
+ * {@link ForkJoinPool}: idle threads of the pool steal the parts of busy ones, and every thread hashes with an engine of
+ * its own. The parts are searched in slices of {@link DigestEngine#SLICE} candidates and check between two slices
+ * whether the search is cancelled or a sibling part stopped it.
+ */
+public class ForkJoinSearch {
+
+	private static final ThreadLocal<DigestEngine> ENGINES = ThreadLocal.withInitial(DigestEngine::new);
+
+	/**
+	 * @return the engine of the calling thread, which hashes with the node's kernel
+	 */
+	public static DigestEngine engine() {
+		return ENGINES.get();
+	}
+
+	/**
+	 * Search all parts for the targets as {@link DigestEngine#search(CandidateEnumerator, DigestTable, MatchListener)}
+	 * does. The listener is called by several threads, but never concurrently; once it returned {@code false}, all
+	 * parts stop after their current slice and the listener is not called again.
+	 * @param parts the parts of the search space
+	 * @param targets the raw digests we are looking for; the table is only read
+	 * @param listener is called for every match and decides whether the search continues
+	 * @param token stops all parts after their current slice once it is cancelled
+	 * @return the number of candidates that were hashed
+	 */
+	public static long search(List<CandidateEnumerator> parts, DigestTable targets, MatchListener listener, CancellationToken token) {
+		final CancellationToken siblings = new CancellationToken(token);
+		final MatchListener synchronizedListener = (value, candidate, length) -> {
+			synchronized (siblings) {
+				if (!siblings.isCancelled() && !listener.match(value, candidate, length))
+					siblings.cancel();
+				return !siblings.isCancelled();
+			}
+		};
+
+		List<ForkJoinTask<Long>> tasks = new ArrayList<>(parts.size());
+		for (CandidateEnumerator part : parts) {
+			tasks.add(ForkJoinTask.adapt(() -> {
+				long hashed = 0;
+				long slice = DigestEngine.SLICE;
+				while ((slice == DigestEngine.SLICE) && !siblings.isCancelled()) {
+					slice = engine().search(part, targets, synchronizedListener, DigestEngine.SLICE);
+					hashed += slice;
+				}
+				return hashed;
+			}));
+		}
+
+		long hashed = 0;
+		for (ForkJoinTask<Long> task : ForkJoinTask.invokeAll(tasks))
+			hashed += task.join();
+		return hashed;
+	}
+}
@@ -0,0 +1,48 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * A SHA-256 implementation that hashes the candidates of a search in batches of {@link #lanes()} candidates. The
+ * {@link DigestEngine} lets the kernel hash the next batch and probe its digests against the targets, so that kernels
+ * are free to hash the lanes in any order or all at once. Both calls cover a whole batch, because a node's kernel is
+ * chosen at runtime and a call per candidate would not be inlined.
+ * <p>
+ * Kernels are stateful and not thread-safe; every engine creates its own kernel with {@link HashKernels#create()}.
+ */
+public interface HashKernel {
+
+	/**
+	 * @return the number of candidates that are hashed at once
+	 */
+	int lanes();
+
+	/**
+	 * @return the maximum number of bytes of a candidate
+	 */
+	int maxLength();
+
+	/**
+	 * Advance the enumerator by up to {@link #lanes()} candidates and hash them.
+	 * @param candidates the search space, whose candidates are at most {@link #maxLength()} bytes long
+	 * @param first {@code true} if this is the first batch of a search, i.e., the candidates are unrelated to those of
+	 * the previous batch
+	 * @return the number of candidates that were hashed; less than {@link #lanes()} if the enumerator is exhausted
+	 */
+	int hash(CandidateEnumerator candidates, boolean first);
+
+	/**
+	 * Look up the digests of the last batch in a table.
+	 * @param targets the raw digests we are looking for
+	 * @param count the number of candidates in the last batch
+	 * @param values receives the value of each lane's digest in the table or {@code -1} if the digest is not in it
+	 * @return the number of digests that are in the table
+	 */
+	int probe(DigestTable targets, int count, int[] values);
+
+	/**
+	 * Write a lane's candidate into a buffer.
+	 * @param lane the lane between 0 and {@link #lanes()} - 1
+	 * @param buffer the buffer that receives the candidate at index 0
+	 * @param length the number of bytes of the candidate as it was loaded
+	 */
+	void message(int lane, byte[] buffer, int length);
+}
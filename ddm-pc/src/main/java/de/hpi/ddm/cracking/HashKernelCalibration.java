@@ -0,0 +1,107 @@
+package de.hpi.ddm.cracking;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Measures the hash rate of every {@link HashKernels hash kernel} on this node with the search that the workers run:
+ * a {@link DigestEngine} walks a permutation space and probes every digest against a table of hints. A kernel only
+ * qualifies if it finds exactly the hints that the JDK's SHA-256 finds, so a broken kernel can never be chosen.
+ */
+public class HashKernelCalibration {
+
+	public static final long DEFAULT_MILLIS = 300;						// Time spent on each kernel at startup
+
+	private static final byte[] SYMBOLS = "ABCDEFGH".getBytes(StandardCharsets.US_ASCII);		// 8! permutations, which takes a few milliseconds per search
+	private static final long[] RANKS = { 0, 1, 4711, 20000, 40319 };	// The permutations that are planted as hints
+
+	@Data @AllArgsConstructor
+	public static class Measurement {
+		private HashKernels kernel;
+		private boolean correct;
+		private double hashesPerSecond;
+	}
+
+	/**
+	 * Measure all kernels. Every kernel is checked and warmed up before the first one is measured, because the kernels
+	 * share the search code that the JIT compiler optimizes on its first use.
+	 * @param millis the time to spend on each kernel; the first half warms up the JIT compiler
+	 * @return a measurement for every kernel
+	 */
+	public static List<Measurement> measure(long millis) {
+		DigestTable targets = new DigestTable(RANKS.length);
+		byte[][] hints = new byte[RANKS.length][SYMBOLS.length];
+		try {
+			MessageDigest reference = MessageDigest.getInstance(DigestEngine.ALGORITHM);
+			for (int i = 0; i < RANKS.length; i++) {
+				Permutations.unrank(SYMBOLS, RANKS[i], hints[i]);
+				targets.putIfAbsent(reference.digest(hints[i]), i);
+			}
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e.getMessage());
+		}
+
+		List<HashKernels> kernels = new ArrayList<>();
+		List<DigestEngine> engines = new ArrayList<>();
+		List<Boolean> correct = new ArrayList<>();
+		for (HashKernels kernel : HashKernels.values()) {
+			if (kernel == HashKernels.AUTO)
+				continue;
+			DigestEngine engine = new DigestEngine(kernel.create());
+			kernels.add(kernel);
+			engines.add(engine);
+			correct.add(check(engine, targets, hints));
+			run(engine, targets, millis / 2);
+		}
+
+		List<Measurement> measurements = new ArrayList<>();
+		for (int i = 0; i < kernels.size(); i++)
+			measurements.add(new Measurement(kernels.get(i), correct.get(i), run(engines.get(i), targets, millis - millis / 2)));
+		return measurements;
+	}
+
+	/**
+	 * @param measurements the measurements of some kernels
+	 * @return the correct kernel with the highest hash rate or the JDK's SHA-256 if no kernel is correct
+	 */
+	public static HashKernels fastest(List<Measurement> measurements) {
+		Measurement fastest = null;
+		for (Measurement measurement : measurements)
+			if (measurement.isCorrect() && ((fastest == null) || (measurement.getHashesPerSecond() > fastest.getHashesPerSecond())))
+				fastest = measurement;
+		return (fastest == null) ? HashKernels.MESSAGE_DIGEST : fastest.getKernel();
+	}
+
+	// Search the space once and check that exactly the planted hints are found
+	private static boolean check(DigestEngine engine, DigestTable targets, byte[][] hints) {
+		boolean[] found = new boolean[hints.length];
+		boolean[] correct = { true };
+		engine.search(new LexicographicPermutationEnumerator(SYMBOLS), targets, (hint, candidate, length) -> {
+			correct[0] &= !found[hint] && Arrays.equals(hints[hint], Arrays.copyOf(candidate, length));
+			found[hint] = true;
+			return true;
+		});
+		for (boolean hint : found)
+			correct[0] &= hint;
+		return correct[0];
+	}
+
+	// Search the space repeatedly for the given time and return the hash rate
+	private static double run(DigestEngine engine, DigestTable targets, long millis) {
+		long hashed = 0;
+		long start = System.nanoTime();
+		long end = start + millis * 1_000_000;
+		long now;
+		do {
+			hashed += engine.search(new LexicographicPermutationEnumerator(SYMBOLS), targets, (hint, candidate, length) -> true);
+		} while ((now = System.nanoTime()) < end);
+		return hashed * 1e9 / (now - start);
+	}
+}
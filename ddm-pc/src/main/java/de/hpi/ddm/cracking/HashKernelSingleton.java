@@ -0,0 +1,25 @@
+package de.hpi.ddm.cracking;
+
+public class HashKernelSingleton {
+
+	private static HashKernels kernel = HashKernels.MULTI_BUFFER;
+	private static double hashesPerSecond = 0;		// The calibrated single-thread rate of the kernel; 0 if it was not calibrated
+	
+	public static HashKernels get() {
+		return kernel;
+	}
+	
+	public static void set(HashKernels instance) {
+		if (instance == HashKernels.AUTO)
+			throw new IllegalArgumentException("The hash kernel of a node must be a concrete kernel");
+		kernel = instance;
+	}
+	
+	public static double getHashesPerSecond() {
+		return hashesPerSecond;
+	}
+	
+	public static void setHashesPerSecond(double rate) {
+		hashesPerSecond = rate;
+	}
+}
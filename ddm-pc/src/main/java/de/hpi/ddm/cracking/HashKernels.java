@@ -0,0 +1,53 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * The hash kernels that can be selected on the command line. Which one is the fastest depends on the CPU and the JDK
+ * of a node, so by default every node measures all of them at startup with {@link HashKernelCalibration}.
+ */
+public enum HashKernels {
+
+	/**
+	 * Measure all kernels at startup and use the fastest correct one.
+	 */
+	AUTO {
+		@Override
+		public HashKernel create() {
+			throw new IllegalStateException("The hash kernel is chosen by the calibration at startup");
+		}
+	},
+
+	/**
+	 * The JDK's SHA-256, which is the fastest on JDKs that use the SHA extensions of the CPU.
+	 */
+	MESSAGE_DIGEST {
+		@Override
+		public HashKernel create() {
+			return new MessageDigestKernel();
+		}
+	},
+
+	/**
+	 * A single-block SHA-256 that reuses the work on the common prefix of consecutive candidates.
+	 */
+	SCALAR {
+		@Override
+		public HashKernel create() {
+			return new ScalarKernel();
+		}
+	},
+
+	/**
+	 * A multi-buffer SHA-256 that hashes several candidates in interleaved lanes.
+	 */
+	MULTI_BUFFER {
+		@Override
+		public HashKernel create() {
+			return new MultiBufferKernel();
+		}
+	};
+
+	/**
+	 * @return a new instance of the kernel
+	 */
+	public abstract HashKernel create();
+}
@@ -0,0 +1,104 @@
+package de.hpi.ddm.cracking;
+
+import java.util.Arrays;
+
+/**
+ * Enumerates all permutations of a set of symbols in lexicographic order of the symbols' indexes, so that the n-th
+ * candidate is the permutation of rank n as defined by {@link Permutations#unrank(byte[], long, byte[])}. Every step
+ * changes only a suffix of the candidate, which is usually short. The enumeration can be restricted to a range of ranks,
+ * so that a space can be searched in slices that start anywhere.
+ * https://en.wikipedia.org/wiki/Permutation#Generation_in_lexicographic_order
+ */
+public class LexicographicPermutationEnumerator implements CandidateEnumerator {
+
+	private final byte[] symbols;
+	private final byte[] buffer;
+	private final int[] indexes;	// The index into symbols of every position of the buffer
+
+	private boolean started = false;
+	private int firstChanged = 0;
+	private long remaining = Long.MAX_VALUE;	// The number of candidates that are left in the range
+
+	/**
+	 * @param symbols the symbols to permute in the order that defines the lexicographic order; the array is copied
+	 */
+	public LexicographicPermutationEnumerator(byte[] symbols) {
+		this.symbols = Arrays.copyOf(symbols, symbols.length);
+		this.buffer = Arrays.copyOf(symbols, symbols.length);
+		this.indexes = new int[symbols.length];
+		for (int i = 0; i < this.indexes.length; i++)
+			this.indexes[i] = i;
+	}
+
+	/**
+	 * @param symbols the symbols to permute in the order that defines the lexicographic order; the array is copied
+	 * @param from the rank of the first permutation
+	 * @param to the rank after the last permutation, at most {@code symbols.length!}
+	 */
+	public LexicographicPermutationEnumerator(byte[] symbols, long from, long to) {
+		this(symbols);
+		if (from < to) {
+			Permutations.unrank(from, this.indexes);
+			for (int i = 0; i < this.indexes.length; i++)
+				this.buffer[i] = this.symbols[this.indexes[i]];
+		}
+		this.remaining = Math.max(0, to - from);
+	}
+
+	@Override
+	public byte[] candidate() {
+		return this.buffer;
+	}
+
+	@Override
+	public int length() {
+		return this.buffer.length;
+	}
+
+	@Override
+	public int firstChanged() {
+		return this.firstChanged;
+	}
+
+	@Override
+	public boolean next() {
+		if (this.remaining == 0)
+			return false;
+
+		if (!this.started) {
+			this.started = true;
+		} else if (!this.advance()) {
+			this.remaining = 0;
+			return false;
+		}
+		this.remaining--;
+		return true;
+	}
+
+	private boolean advance() {
+		final int[] p = this.indexes;
+		int k = p.length - 2;
+		while ((k >= 0) && (p[k] > p[k + 1]))
+			k--;
+		if (k < 0)
+			return false;
+
+		int l = p.length - 1;
+		while (p[k] > p[l])
+			l--;
+		swap(p, k, l);
+		for (int i = k + 1, j = p.length - 1; i < j; i++, j--)
+			swap(p, i, j);
+
+		for (int i = k; i < p.length; i++)
+			this.buffer[i] = this.symbols[p[i]];
+		this.firstChanged = k;
+		return true;
+	}
+
+	private static void swap(int[] p, int a, int b) {
+		int temp = p[a];
+		p[a] = p[b];
+		p[b] = temp;
+	}
+}
@@ -0,0 +1,16 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * Receives the candidates of a search that hash to one of the digests of a {@link DigestTable}.
+ */
+@FunctionalInterface
+public interface MatchListener {
+
+	/**
+	 * @param value the value that the matching digest is associated with in the table
+	 * @param candidate the buffer holding the matching candidate; it is only valid during this call
+	 * @param length the number of bytes of the candidate
+	 * @return {@code true} if the search should continue, {@code false} if it should stop
+	 */
+	boolean match(int value, byte[] candidate, int length);
+}
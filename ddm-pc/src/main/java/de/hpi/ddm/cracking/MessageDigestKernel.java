@@ -0,0 +1,67 @@
+package de.hpi.ddm.cracking;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * A {@link HashKernel} on top of the JDK's {@link MessageDigest}, which may be backed by SHA intrinsics of the CPU on
+ * newer JDKs. It hashes one candidate of any length at a time.
+ */
+public class MessageDigestKernel implements HashKernel {
+
+	private final MessageDigest digest;
+	private final byte[] output = new byte[Digests.DIGEST_LENGTH];
+	private byte[] message = new byte[MultiBufferSha256.MAX_LENGTH];
+	private int length = 0;
+
+	public MessageDigestKernel() {
+		try {
+			this.digest = MessageDigest.getInstance(DigestEngine.ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e.getMessage());
+		}
+	}
+
+	@Override
+	public int lanes() {
+		return 1;
+	}
+
+	@Override
+	public int maxLength() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public int hash(CandidateEnumerator candidates, boolean first) {
+		if (!candidates.next())
+			return 0;
+
+		final int length = candidates.length();
+		if (this.message.length < length)
+			this.message = Arrays.copyOf(this.message, Math.max(length, 2 * this.message.length));
+		System.arraycopy(candidates.candidate(), 0, this.message, 0, length);
+		this.length = length;
+
+		this.digest.update(this.message, 0, length);
+		try {
+			this.digest.digest(this.output, 0, Digests.DIGEST_LENGTH);
+		} catch (DigestException e) {
+			throw new RuntimeException(e.getMessage());
+		}
+		return 1;
+	}
+
+	@Override
+	public int probe(DigestTable targets, int count, int[] values) {
+		values[0] = targets.get(this.output);
+		return (values[0] >= 0) ? 1 : 0;
+	}
+
+	@Override
+	public void message(int lane, byte[] buffer, int length) {
+		System.arraycopy(this.message, 0, buffer, 0, length);
+	}
+}
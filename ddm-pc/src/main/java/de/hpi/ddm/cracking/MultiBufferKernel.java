@@ -0,0 +1,49 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * A {@link HashKernel} on top of {@link MultiBufferSha256}, which hashes {@link MultiBufferSha256#LANES} candidates at
+ * once.
+ */
+public class MultiBufferKernel implements HashKernel {
+
+	private final MultiBufferSha256 lanes = new MultiBufferSha256();
+
+	@Override
+	public int lanes() {
+		return MultiBufferSha256.LANES;
+	}
+
+	@Override
+	public int maxLength() {
+		return MultiBufferSha256.MAX_LENGTH;
+	}
+
+	@Override
+	public int hash(CandidateEnumerator candidates, boolean first) {
+		final byte[] candidate = candidates.candidate();
+		final int length = candidates.length();
+		int filled = 0;
+		while ((filled < MultiBufferSha256.LANES) && candidates.next())
+			this.lanes.load(filled++, candidate, 0, length);
+		if (filled > 0)
+			this.lanes.compress();
+		return filled;
+	}
+
+	@Override
+	public int probe(DigestTable targets, int count, int[] values) {
+		final MultiBufferSha256 lanes = this.lanes;
+		int hits = 0;
+		for (int lane = 0; lane < count; lane++) {
+			values[lane] = targets.get(lanes.word(lane, 0), lanes.word(lane, 1), lanes.word(lane, 2), lanes.word(lane, 3));
+			if (values[lane] >= 0)
+				hits++;
+		}
+		return hits;
+	}
+
+	@Override
+	public void message(int lane, byte[] buffer, int length) {
+		this.lanes.message(lane, buffer, length);
+	}
+}
@@ -0,0 +1,131 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * A multi-buffer SHA-256 that hashes {@link #LANES} messages of up to {@link #MAX_LENGTH} bytes at once, i.e., messages
+ * that fit into a single block together with their padding. The rounds of two lanes run interleaved in local
+ * variables: their dependency chains are independent, so that the CPU executes them in parallel where a single SHA-256
+ * leaves most of its execution units idle. Other than {@link java.security.MessageDigest}, there is no buffering,
+ * padding or finalization per message; the padding is written once per lane when it is loaded.
+ * <p>
+ * The digests are bit-identical to those of the JDK's SHA-256. The class is stateful and not thread-safe.
+ * https://csrc.nist.gov/publications/detail/fips/180/4/final
+ */
+public class MultiBufferSha256 {
+
+	public static final int LANES = 8;
+	public static final int MAX_LENGTH = 55;		// 64 bytes per block - 1 byte padding - 8 bytes message length
+
+	static final int[] K = {
+		0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+		0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+		0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+		0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+		0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+		0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+		0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+		0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+	};
+
+	static final int[] H = {
+		0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+	};
+
+	private final int[][] w = new int[LANES][64];		// The message schedule of every lane
+	private final int[] state = new int[LANES * 8];		// The digests; word i of lane l is state[l * 8 + i]
+
+	/**
+	 * Load a message into a lane, replacing the lane's previous message.
+	 * @param lane the lane between 0 and {@link #LANES} - 1
+	 * @param message the buffer holding the message
+	 * @param offset the index of the message in the buffer
+	 * @param length the number of bytes of the message, at most {@link #MAX_LENGTH}
+	 */
+	public void load(int lane, byte[] message, int offset, int length) {
+		if ((length < 0) || (length > MAX_LENGTH))
+			throw new IllegalArgumentException("Messages of " + length + " bytes do not fit into a single block");
+
+		final int[] w = this.w[lane];
+		for (int t = 0; t < 16; t++)
+			w[t] = 0;
+		for (int i = 0; i < length; i++)
+			w[i >> 2] |= (message[offset + i] & 0xff) << (24 - 8 * (i & 3));
+		w[length >> 2] |= 0x80 << (24 - 8 * (length & 3));
+		w[15] = length * 8;
+	}
+
+	/**
+	 * Hash the messages of all lanes. Lanes that were not loaded since the last call hash their previous message again.
+	 */
+	public void compress() {
+		for (int lane = 0; lane < LANES; lane += 2)
+			this.compress(this.w[lane], this.w[lane + 1], lane * 8, (lane + 1) * 8);
+	}
+
+	// Run the rounds of two lanes in lock step; x and y are their schedules, sx and sy the offsets of their states
+	private void compress(int[] x, int[] y, int sx, int sy) {
+		for (int t = 16; t < 64; t++) {
+			int x15 = x[t - 15], x2 = x[t - 2];
+			int y15 = y[t - 15], y2 = y[t - 2];
+			x[t] = x[t - 16] + (Integer.rotateRight(x15, 7) ^ Integer.rotateRight(x15, 18) ^ (x15 >>> 3))
+					+ x[t - 7] + (Integer.rotateRight(x2, 17) ^ Integer.rotateRight(x2, 19) ^ (x2 >>> 10));
+			y[t] = y[t - 16] + (Integer.rotateRight(y15, 7) ^ Integer.rotateRight(y15, 18) ^ (y15 >>> 3))
+					+ y[t - 7] + (Integer.rotateRight(y2, 17) ^ Integer.rotateRight(y2, 19) ^ (y2 >>> 10));
+		}
+
+		int a0 = H[0], b0 = H[1], c0 = H[2], d0 = H[3], e0 = H[4], f0 = H[5], g0 = H[6], h0 = H[7];
+		int a1 = H[0], b1 = H[1], c1 = H[2], d1 = H[3], e1 = H[4], f1 = H[5], g1 = H[6], h1 = H[7];
+		for (int t = 0; t < 64; t++) {
+			final int k = K[t];
+			int t0 = h0 + (Integer.rotateRight(e0, 6) ^ Integer.rotateRight(e0, 11) ^ Integer.rotateRight(e0, 25)) + ((e0 & f0) ^ (~e0 & g0)) + k + x[t];
+			int t1 = h1 + (Integer.rotateRight(e1, 6) ^ Integer.rotateRight(e1, 11) ^ Integer.rotateRight(e1, 25)) + ((e1 & f1) ^ (~e1 & g1)) + k + y[t];
+			int s0 = (Integer.rotateRight(a0, 2) ^ Integer.rotateRight(a0, 13) ^ Integer.rotateRight(a0, 22)) + ((a0 & b0) ^ (a0 & c0) ^ (b0 & c0));
+			int s1 = (Integer.rotateRight(a1, 2) ^ Integer.rotateRight(a1, 13) ^ Integer.rotateRight(a1, 22)) + ((a1 & b1) ^ (a1 & c1) ^ (b1 & c1));
+			h0 = g0; g0 = f0; f0 = e0; e0 = d0 + t0; d0 = c0; c0 = b0; b0 = a0; a0 = t0 + s0;
+			h1 = g1; g1 = f1; f1 = e1; e1 = d1 + t1; d1 = c1; c1 = b1; b1 = a1; a1 = t1 + s1;
+		}
+
+		final int[] state = this.state;
+		state[sx] = H[0] + a0; state[sx + 1] = H[1] + b0; state[sx + 2] = H[2] + c0; state[sx + 3] = H[3] + d0;
+		state[sx + 4] = H[4] + e0; state[sx + 5] = H[5] + f0; state[sx + 6] = H[6] + g0; state[sx + 7] = H[7] + h0;
+		state[sy] = H[0] + a1; state[sy + 1] = H[1] + b1; state[sy + 2] = H[2] + c1; state[sy + 3] = H[3] + d1;
+		state[sy + 4] = H[4] + e1; state[sy + 5] = H[5] + f1; state[sy + 6] = H[6] + g1; state[sy + 7] = H[7] + h1;
+	}
+
+	/**
+	 * Read one of the four 64 bit words of a lane's raw digest as {@link Digests#word(byte[], int)} does.
+	 * @param lane the lane between 0 and {@link #LANES} - 1
+	 * @param index the index of the word, i.e., 0 to 3
+	 * @return the word
+	 */
+	public long word(int lane, int index) {
+		final int offset = lane * 8 + 2 * index;
+		return ((long) this.state[offset] << 32) | (this.state[offset + 1] & 0xffffffffL);
+	}
+
+	/**
+	 * Write the raw digest of a lane's last compressed message into a buffer.
+	 * @param lane the lane between 0 and {@link #LANES} - 1
+	 * @param digest the buffer that receives the raw digest
+	 * @param offset the index in the buffer at which the raw digest is stored
+	 */
+	public void digest(int lane, byte[] digest, int offset) {
+		for (int i = 0; i < 8; i++) {
+			int word = this.state[lane * 8 + i];
+			digest[offset + 4 * i] = (byte) (word >>> 24);
+			digest[offset + 4 * i + 1] = (byte) (word >>> 16);
+			digest[offset + 4 * i + 2] = (byte) (word >>> 8);
+			digest[offset + 4 * i + 3] = (byte) word;
+		}
+	}
+
+	/**
+	 * Write a lane's message back into a buffer, so that callers need not keep a copy of every message they load.
+	 * @param lane the lane between 0 and {@link #LANES} - 1
+	 * @param message the buffer that receives the message
+	 * @param length the number of bytes of the message as it was loaded
+	 */
+	public void message(int lane, byte[] message, int length) {
+		for (int i = 0; i < length; i++)
+			message[i] = (byte) (this.w[lane][i >> 2] >>> (24 - 8 * (i & 3)));
+	}
+}
@@ -0,0 +1,91 @@
+package de.hpi.ddm.cracking;
+
+import java.util.Arrays;
+
+/**
+ * Enumerates all permutations of a set of symbols with the iterative form of Heap's algorithm, i.e., every permutation
+ * is derived from its predecessor by a single swap.
+ * https://en.wikipedia.org/wiki/Heap's_algorithm
+ */
+public class PermutationEnumerator implements CandidateEnumerator {
+
+	private final byte[] buffer;
+	private final int[] counters;	// The encoded stack state of the recursive algorithm
+
+	private int index;
+	private boolean started = false;
+	private int firstChanged = 0;
+
+	/**
+	 * @param symbols the symbols to permute; the array is copied
+	 */
+	public PermutationEnumerator(byte[] symbols) {
+		this.buffer = Arrays.copyOf(symbols, symbols.length);
+		this.counters = new int[symbols.length];
+		this.index = 1;
+	}
+
+	/**
+	 * @param symbols a set of pairwise different symbols
+	 * @param candidate a candidate
+	 * @return {@code true} if the candidate is one of the permutations of the symbols
+	 */
+	public static boolean isPermutation(byte[] symbols, byte[] candidate) {
+		if (symbols.length != candidate.length)
+			return false;
+
+		int[] counts = new int[256];
+		for (byte symbol : symbols)
+			counts[symbol & 0xff]++;
+		for (byte symbol : candidate)
+			if (--counts[symbol & 0xff] < 0)
+				return false;
+		return true;
+	}
+
+	@Override
+	public byte[] candidate() {
+		return this.buffer;
+	}
+
+	@Override
+	public int length() {
+		return this.buffer.length;
+	}
+
+	@Override
+	public int firstChanged() {
+		return this.firstChanged;
+	}
+
+	@Override
+	public boolean next() {
+		if (!this.started) {
+			this.started = true;
+			return true;
+		}
+
+		final int[] c = this.counters;
+		final int n = c.length;
+		int i = this.index;
+		while (i < n) {
+			if (c[i] < i) {
+				this.firstChanged = (i & 1) == 0 ? 0 : c[i];
+				this.swap(this.firstChanged, i);
+				c[i]++;
+				this.index = 1;
+				return true;
+			}
+			c[i] = 0;
+			i++;
+		}
+		this.index = i;
+		return false;
+	}
+
+	private void swap(int a, int b) {
+		byte temp = this.buffer[a];
+		this.buffer[a] = this.buffer[b];
+		this.buffer[b] = temp;
+	}
+}
@@ -0,0 +1,96 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * Ranking of permutations in lexicographic order, i.e., in the order of the indexes of the symbols, with the factorial
+ * number system: the i-th position of a permutation of n symbols selects one of the remaining symbols with the digit of
+ * weight (n - 1 - i)!.
+ */
+public class Permutations {
+
+	public static final int MAX_SYMBOLS = 20;		// 20! is the largest factorial that fits into a long
+
+	/**
+	 * @param n a number between 0 and {@link #MAX_SYMBOLS}
+	 * @return n!
+	 */
+	public static long factorial(int n) {
+		if ((n < 0) || (n > MAX_SYMBOLS))
+			throw new IllegalArgumentException("The factorial of " + n + " does not fit into a long");
+
+		long factorial = 1;
+		for (int i = 2; i <= n; i++)
+			factorial *= i;
+		return factorial;
+	}
+
+	/**
+	 * Write the permutation of the given rank into the buffer.
+	 * @param symbols the symbols in the order that defines the lexicographic order of their permutations
+	 * @param rank a rank between 0 and {@code symbols.length! - 1}
+	 * @param buffer the buffer that receives the permutation; it needs to hold at least {@code symbols.length} bytes
+	 */
+	public static void unrank(byte[] symbols, long rank, byte[] buffer) {
+		int[] indexes = new int[symbols.length];
+		unrank(rank, indexes);
+		for (int i = 0; i < indexes.length; i++)
+			buffer[i] = symbols[indexes[i]];
+	}
+
+	/**
+	 * Write the permutation of the given rank of the indexes 0 to n - 1 into an array of length n.
+	 * @param rank a rank between 0 and {@code n! - 1}
+	 * @param indexes the array that receives the permutation
+	 */
+	public static void unrank(long rank, int[] indexes) {
+		final int n = indexes.length;
+		if ((rank < 0) || (rank >= factorial(n)))
+			throw new IllegalArgumentException("There is no permutation of rank " + rank + " of " + n + " symbols");
+
+		int[] remaining = new int[n];
+		for (int i = 0; i < n; i++)
+			remaining[i] = i;
+		for (int i = 0; i < n; i++) {
+			long weight = factorial(n - 1 - i);
+			int index = (int) (rank / weight);
+			rank %= weight;
+
+			indexes[i] = remaining[index];
+			System.arraycopy(remaining, index + 1, remaining, index, n - 1 - i - index);
+		}
+	}
+
+	/**
+	 * The inverse of {@link #unrank(byte[], long, byte[])}.
+	 * @param symbols the symbols in the order that defines the lexicographic order of their permutations
+	 * @param permutation a permutation of the symbols
+	 * @return the rank of the permutation between 0 and {@code symbols.length! - 1}
+	 */
+	public static long rank(byte[] symbols, byte[] permutation) {
+		final int n = symbols.length;
+		byte[] remaining = symbols.clone();
+		long rank = 0;
+		for (int i = 0; i < n; i++) {
+			int index = 0;
+			while ((index < n - i) && (remaining[index] != permutation[i]))
+				index++;
+			if (index == n - i)
+				throw new IllegalArgumentException("The candidate is no permutation of the symbols");
+
+			rank += index * factorial(n - 1 - i);
+			System.arraycopy(remaining, index + 1, remaining, index, n - 1 - i - index);
+		}
+		return rank;
+	}
+
+	/**
+	 * @param symbols a set of symbols
+	 * @param excluded the index of the symbol to remove
+	 * @return a new array with all symbols but the excluded one in their original order
+	 */
+	public static byte[] without(byte[] symbols, int excluded) {
+		byte[] remaining = new byte[symbols.length - 1];
+		System.arraycopy(symbols, 0, remaining, 0, excluded);
+		System.arraycopy(symbols, excluded + 1, remaining, excluded, symbols.length - excluded - 1);
+		return remaining;
+	}
+}
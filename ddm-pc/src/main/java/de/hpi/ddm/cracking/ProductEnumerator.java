@@ -0,0 +1,89 @@
+package de.hpi.ddm.cracking;
+
+import java.util.Arrays;
+
+/**
+ * Enumerates all strings of a fixed length over a set of symbols (the cartesian product of the set with itself) like an
+ * odometer: the last position turns fastest and carries over into its predecessors. The enumeration can be restricted to
+ * a range of ranks as defined by {@link Products}, so that a space can be searched in slices that start anywhere.
+ */
+public class ProductEnumerator implements CandidateEnumerator {
+
+	private final byte[] symbols;
+	private final byte[] buffer;
+	private final int[] digits;		// The index into symbols of every position of the buffer
+
+	private boolean started = false;
+	private boolean exhausted = false;
+	private int firstChanged = 0;
+	private long remaining = Long.MAX_VALUE;	// The number of candidates that are left in the range
+
+	/**
+	 * @param symbols the symbols that may occur at every position; the array is copied
+	 * @param length the length of all candidates
+	 */
+	public ProductEnumerator(byte[] symbols, int length) {
+		this.symbols = Arrays.copyOf(symbols, symbols.length);
+		this.buffer = new byte[length];
+		this.digits = new int[length];
+	}
+
+	/**
+	 * @param symbols the symbols that may occur at every position; the array is copied
+	 * @param length the length of all candidates
+	 * @param from the rank of the first candidate
+	 * @param to the rank after the last candidate, at most {@code symbols.length^length}
+	 */
+	public ProductEnumerator(byte[] symbols, int length, long from, long to) {
+		this(symbols, length);
+		if (from < to)
+			Products.unrank(symbols.length, from, this.digits);
+		this.remaining = Math.max(0, to - from);
+	}
+
+	@Override
+	public byte[] candidate() {
+		return this.buffer;
+	}
+
+	@Override
+	public int length() {
+		return this.buffer.length;
+	}
+
+	@Override
+	public int firstChanged() {
+		return this.firstChanged;
+	}
+
+	@Override
+	public boolean next() {
+		if (this.exhausted || (this.remaining == 0))
+			return false;
+		this.remaining--;
+		if (!this.started) {
+			this.started = true;
+			if (this.symbols.length == 0) {
+				this.exhausted = true;
+				return this.buffer.length == 0;
+			}
+			for (int position = 0; position < this.buffer.length; position++)
+				this.buffer[position] = this.symbols[this.digits[position]];
+			return true;
+		}
+
+		final int[] d = this.digits;
+		final int radix = this.symbols.length;
+		for (int position = d.length - 1; position >= 0; position--) {
+			if (++d[position] < radix) {
+				this.buffer[position] = this.symbols[d[position]];
+				this.firstChanged = position;
+				return true;
+			}
+			d[position] = 0;
+			this.buffer[position] = this.symbols[0];
+		}
+		this.exhausted = true;
+		return false;
+	}
+}
@@ -0,0 +1,77 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * Ranking of the strings of a fixed length over a set of symbols in the order of {@link ProductEnumerator}, i.e., as
+ * numbers in a positional numeral system whose digits are the indexes of the symbols: the last position has the weight
+ * 1, every other position the product of the radices of the positions behind it. All positions draw from the same
+ * symbols, so this mixed radix system has the same radix at every position.
+ */
+public class Products {
+
+	/**
+	 * @param numSymbols the number of symbols
+	 * @param length the length of the strings
+	 * @return the number of strings, i.e., {@code numSymbols^length}
+	 * @throws IllegalArgumentException if the number does not fit into a long
+	 */
+	public static long size(int numSymbols, int length) {
+		long size = 1;
+		try {
+			for (int i = 0; i < length; i++)
+				size = Math.multiplyExact(size, numSymbols);
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("The number of strings of length " + length + " over " + numSymbols + " symbols does not fit into a long");
+		}
+		return size;
+	}
+
+	/**
+	 * Write the digits of the given rank, i.e., the indexes of the symbols at every position of the string.
+	 * @param radix the number of symbols
+	 * @param rank a rank between 0 and {@code radix^digits.length - 1}
+	 * @param digits the array that receives the digits
+	 */
+	public static void unrank(int radix, long rank, int[] digits) {
+		if ((rank < 0) || (rank >= size(radix, digits.length)))
+			throw new IllegalArgumentException("There is no string of rank " + rank + " of length " + digits.length + " over " + radix + " symbols");
+
+		for (int position = digits.length - 1; position >= 0; position--) {
+			digits[position] = (int) (rank % radix);
+			rank /= radix;
+		}
+	}
+
+	/**
+	 * Write the string of the given rank into the buffer.
+	 * @param symbols the symbols in the order of their digits
+	 * @param length the length of the string
+	 * @param rank a rank between 0 and {@code symbols.length^length - 1}
+	 * @param buffer the buffer that receives the string
+	 */
+	public static void unrank(byte[] symbols, int length, long rank, byte[] buffer) {
+		int[] digits = new int[length];
+		unrank(symbols.length, rank, digits);
+		for (int i = 0; i < length; i++)
+			buffer[i] = symbols[digits[i]];
+	}
+
+	/**
+	 * The inverse of {@link #unrank(byte[], int, long, byte[])}.
+	 * @param symbols the symbols in the order of their digits
+	 * @param candidate the buffer holding the string
+	 * @param length the length of the string
+	 * @return the rank of the string between 0 and {@code symbols.length^length - 1}
+	 */
+	public static long rank(byte[] symbols, byte[] candidate, int length) {
+		long rank = 0;
+		for (int position = 0; position < length; position++) {
+			int digit = 0;
+			while ((digit < symbols.length) && (symbols[digit] != candidate[position]))
+				digit++;
+			if (digit == symbols.length)
+				throw new IllegalArgumentException("The candidate contains a byte that is not one of the symbols");
+			rank = rank * symbols.length + digit;
+		}
+		return rank;
+	}
+}
@@ -0,0 +1,73 @@
+package de.hpi.ddm.cracking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splitting of rank ranges {@code [from, to)}, which address a contiguous slice of a search space through the ranking of
+ * {@link Permutations} or {@link Products}. A range can be searched as a task of its own or resumed from any rank.
+ */
+public class Ranges {
+
+	/**
+	 * @param size the size of a range
+	 * @param maxSize the maximum size of a part; 0 or less for no maximum
+	 * @return the smallest number of parts of at most the maximum size that the range can be split into
+	 */
+	public static int count(long size, long maxSize) {
+		if ((maxSize <= 0) || (size <= maxSize))
+			return 1;
+		return (int) Math.min(Integer.MAX_VALUE, (size + maxSize - 1) / maxSize);
+	}
+
+	/**
+	 * Split the range into parts whose sizes differ by at most one.
+	 * @param from the first rank of the range
+	 * @param to the rank after the last rank of the range
+	 * @param parts the requested number of parts; there are at most as many parts as ranks, but at least one
+	 * @return the bounds of the parts: part i is {@code [bounds[i], bounds[i + 1])}
+	 */
+	public static long[] split(long from, long to, int parts) {
+		final long size = to - from;
+		parts = (int) Math.max(1, Math.min(parts, size));
+		long[] bounds = new long[parts + 1];
+		for (int i = 0; i <= parts; i++)
+			bounds[i] = from + (size / parts) * i + Math.min(i, size % parts);
+		return bounds;
+	}
+
+	/**
+	 * Split a range of the permutations of the symbols into parts that can be searched in parallel. Together the parts
+	 * enumerate the range in the order of {@link LexicographicPermutationEnumerator}.
+	 * @param symbols the symbols to permute
+	 * @param from the rank of the first permutation
+	 * @param to the rank after the last permutation
+	 * @param parts the requested number of parts
+	 * @return one enumerator per part
+	 */
+	public static List<CandidateEnumerator> permutations(byte[] symbols, long from, long to, int parts) {
+		long[] bounds = split(from, to, parts);
+		List<CandidateEnumerator> enumerators = new ArrayList<>(bounds.length - 1);
+		for (int i = 0; i < bounds.length - 1; i++)
+			enumerators.add(new LexicographicPermutationEnumerator(symbols, bounds[i], bounds[i + 1]));
+		return enumerators;
+	}
+
+	/**
+	 * Split a range of the strings of a fixed length over the symbols into parts that can be searched in parallel.
+	 * Together the parts enumerate the range in the order of {@link ProductEnumerator}.
+	 * @param symbols the symbols that may occur at every position
+	 * @param length the length of all candidates
+	 * @param from the rank of the first string
+	 * @param to the rank after the last string
+	 * @param parts the requested number of parts
+	 * @return one enumerator per part
+	 */
+	public static List<CandidateEnumerator> products(byte[] symbols, int length, long from, long to, int parts) {
+		long[] bounds = split(from, to, parts);
+		List<CandidateEnumerator> enumerators = new ArrayList<>(bounds.length - 1);
+		for (int i = 0; i < bounds.length - 1; i++)
+			enumerators.add(new ProductEnumerator(symbols, length, bounds[i], bounds[i + 1]));
+		return enumerators;
+	}
+}
@@ -0,0 +1,44 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * A {@link HashKernel} on top of {@link SingleBlockSha256}, which hashes one candidate at a time and reuses the work on
+ * the prefix that consecutive candidates share.
+ */
+public class ScalarKernel implements HashKernel {
+
+	private SingleBlockSha256 block = new SingleBlockSha256(0);
+
+	@Override
+	public int lanes() {
+		return 1;
+	}
+
+	@Override
+	public int maxLength() {
+		return MultiBufferSha256.MAX_LENGTH;
+	}
+
+	@Override
+	public int hash(CandidateEnumerator candidates, boolean first) {
+		if (!candidates.next())
+			return 0;
+
+		final int length = candidates.length();
+		if (this.block.length() != length)
+			this.block = new SingleBlockSha256(length);
+		this.block.hash(candidates.candidate(), first ? 0 : candidates.firstChanged());
+		return 1;
+	}
+
+	@Override
+	public int probe(DigestTable targets, int count, int[] values) {
+		final SingleBlockSha256 block = this.block;
+		values[0] = targets.get(block.word(0), block.word(1), block.word(2), block.word(3));
+		return (values[0] >= 0) ? 1 : 0;
+	}
+
+	@Override
+	public void message(int lane, byte[] buffer, int length) {
+		this.block.message(buffer);
+	}
+}
@@ -0,0 +1,148 @@
+package de.hpi.ddm.cracking;
+
+/**
+ * A SHA-256 for messages of one fixed length of up to {@link MultiBufferSha256#MAX_LENGTH} bytes, i.e., messages that
+ * fit into a single block together with their padding. The padding and the length are written once at construction,
+ * and consecutive messages that share a prefix reuse all work that depends on the prefix only: the message words
+ * before the first changed byte are not packed again, the rounds before that word resume from the state that the
+ * previous message saved, and the schedule words that do not depend on a changed word are kept. Enumerations that
+ * change only a short suffix of their candidate, like {@link ProductEnumerator} and
+ * {@link LexicographicPermutationEnumerator}, report the first changed byte with
+ * {@link CandidateEnumerator#firstChanged()}.
+ * <p>
+ * The digests are bit-identical to those of the JDK's SHA-256. The class is stateful and not thread-safe.
+ */
+public class SingleBlockSha256 {
+
+	private static final int[] K = MultiBufferSha256.K;
+	private static final int[] H = MultiBufferSha256.H;
+
+	private static final int[] DEPENDENCIES = new int[64];	// The message words that schedule word t depends on as bit mask
+	static {
+		for (int t = 0; t < 16; t++)
+			DEPENDENCIES[t] = 1 << t;
+		for (int t = 16; t < 64; t++)
+			DEPENDENCIES[t] = DEPENDENCIES[t - 16] | DEPENDENCIES[t - 15] | DEPENDENCIES[t - 7] | DEPENDENCIES[t - 2];
+	}
+
+	private final int length;
+	private final int lastWord;					// The last message word that holds message bytes or the padding bit
+	private final int[] firstDependent;			// The first schedule word that depends on a changed word, if word m is the first changed word
+	private final int[] w = new int[64];
+	private final int[] saved;					// The state before round t for every round t up to lastWord
+	private final int[] state = new int[8];
+
+	private boolean primed = false;				// True if the saved state belongs to the last message
+
+	/**
+	 * @param length the number of bytes of every message, at most {@link MultiBufferSha256#MAX_LENGTH}
+	 */
+	public SingleBlockSha256(int length) {
+		if ((length < 0) || (length > MultiBufferSha256.MAX_LENGTH))
+			throw new IllegalArgumentException("Messages of " + length + " bytes do not fit into a single block");
+
+		this.length = length;
+		this.lastWord = length >> 2;
+		this.saved = new int[(this.lastWord + 1) * 8];
+		System.arraycopy(H, 0, this.saved, 0, 8);
+		this.w[15] = length * 8;
+
+		this.firstDependent = new int[this.lastWord + 1];
+		for (int m = 0; m <= this.lastWord; m++) {
+			int changed = (1 << (this.lastWord + 1)) - (1 << m);
+			int t = 16;
+			while ((t < 64) && ((DEPENDENCIES[t] & changed) == 0))
+				t++;
+			this.firstDependent[m] = t;
+		}
+	}
+
+	public int length() {
+		return this.length;
+	}
+
+	/**
+	 * Hash a message.
+	 * @param message the buffer holding the message at index 0
+	 * @param firstChanged the index of the first byte that differs from the previous message; 0 if unknown
+	 */
+	public void hash(byte[] message, int firstChanged) {
+		final int[] w = this.w;
+		final int last = this.lastWord;
+		final int m = this.primed ? Math.min(Math.max(firstChanged, 0) >> 2, last) : 0;
+		this.primed = true;
+
+		for (int i = m; i <= last; i++) {
+			int word = 0;
+			for (int j = 4 * i; j < 4 * i + 4; j++) {
+				int b = (j < this.length) ? message[j] & 0xff : (j == this.length) ? 0x80 : 0;
+				word = (word << 8) | b;
+			}
+			w[i] = word;
+		}
+
+		for (int t = this.firstDependent[m]; t < 64; t++) {
+			int w15 = w[t - 15], w2 = w[t - 2];
+			w[t] = w[t - 16] + (Integer.rotateRight(w15, 7) ^ Integer.rotateRight(w15, 18) ^ (w15 >>> 3))
+					+ w[t - 7] + (Integer.rotateRight(w2, 17) ^ Integer.rotateRight(w2, 19) ^ (w2 >>> 10));
+		}
+
+		final int[] saved = this.saved;
+		final int s = m * 8;
+		int a = saved[s], b = saved[s + 1], c = saved[s + 2], d = saved[s + 3], e = saved[s + 4], f = saved[s + 5], g = saved[s + 6], h = saved[s + 7];
+
+		// The rounds that consume message words save their state for the next message
+		int t = m;
+		for (; t < last; t++) {
+			int t1 = h + (Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25)) + ((e & f) ^ (~e & g)) + K[t] + w[t];
+			int t2 = (Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22)) + ((a & b) ^ (a & c) ^ (b & c));
+			h = g; g = f; f = e; e = d + t1; d = c; c = b; b = a; a = t1 + t2;
+
+			int o = (t + 1) * 8;
+			saved[o] = a; saved[o + 1] = b; saved[o + 2] = c; saved[o + 3] = d;
+			saved[o + 4] = e; saved[o + 5] = f; saved[o + 6] = g; saved[o + 7] = h;
+		}
+		for (; t < 64; t++) {
+			int t1 = h + (Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25)) + ((e & f) ^ (~e & g)) + K[t] + w[t];
+			int t2 = (Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22)) + ((a & b) ^ (a & c) ^ (b & c));
+			h = g; g = f; f = e; e = d + t1; d = c; c = b; b = a; a = t1 + t2;
+		}
+
+		final int[] state = this.state;
+		state[0] = H[0] + a; state[1] = H[1] + b; state[2] = H[2] + c; state[3] = H[3] + d;
+		state[4] = H[4] + e; state[5] = H[5] + f; state[6] = H[6] + g; state[7] = H[7] + h;
+	}
+
+	/**
+	 * Read one of the four 64 bit words of the last raw digest as {@link Digests#word(byte[], int)} does.
+	 * @param index the index of the word, i.e., 0 to 3
+	 * @return the word
+	 */
+	public long word(int index) {
+		return ((long) this.state[2 * index] << 32) | (this.state[2 * index + 1] & 0xffffffffL);
+	}
+
+	/**
+	 * Write the last raw digest into a buffer.
+	 * @param digest the buffer that receives the raw digest
+	 * @param offset the index in the buffer at which the raw digest is stored
+	 */
+	public void digest(byte[] digest, int offset) {
+		for (int i = 0; i < 8; i++) {
+			int word = this.state[i];
+			digest[offset + 4 * i] = (byte) (word >>> 24);
+			digest[offset + 4 * i + 1] = (byte) (word >>> 16);
+			digest[offset + 4 * i + 2] = (byte) (word >>> 8);
+			digest[offset + 4 * i + 3] = (byte) word;
+		}
+	}
+
+	/**
+	 * Write the last message back into a buffer.
+	 * @param message the buffer that receives the message at index 0
+	 */
+	public void message(byte[] message) {
+		for (int i = 0; i < this.length; i++)
+			message[i] = (byte) (this.w[i >> 2] >>> (24 - 8 * (i & 3)));
+	}
+}
@@ -0,0 +1,242 @@
+package de.hpi.ddm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import de.hpi.ddm.cracking.Digests;
+
+/**
+ * A persistent cache of cracked SHA-256 digests and their clear texts that survives across runs. The cache is a
+ * memory-mapped file that holds an open-addressing hash table with linear probing: entries are only ever added to free
+ * slots and never moved, so an insert writes a single slot and readers that map the same file see either the complete
+ * entry or a free slot. The digest's first word is used as hash code directly, because digests are uniformly
+ * distributed already.
+ * <p>
+ * File layout: a header of {@link #HEADER_SIZE} bytes (magic, version, capacity, size), followed by capacity slots of
+ * {@link #SLOT_SIZE} bytes each: a state byte (0 for a free slot, otherwise the clear text length + 1), the clear text
+ * and the raw digest. Clear texts longer than {@link #MAX_CLEAR_TEXT_LENGTH} bytes are not cached. The table doubles
+ * into a new file once it is three quarters full; a process that still maps the old file keeps reading a consistent
+ * snapshot.
+ * <p>
+ * Only the master opens the cache: it looks up every row when the row arrives and adds every cracked digest, so the
+ * workers never map the file. All methods are synchronized nevertheless, because the cache is a node-wide singleton.
+ */
+public class DigestCache implements Closeable {
+
+	public static final int HEADER_SIZE = 32;
+	public static final int SLOT_SIZE = 64;
+	public static final int MAX_CLEAR_TEXT_LENGTH = SLOT_SIZE - Digests.DIGEST_LENGTH - 1;
+
+	private static final long MAGIC = 0x44444d4447535431L;		// "DDMDGST1"
+	private static final int VERSION = 1;
+	private static final int INITIAL_CAPACITY = 1 << 14;
+	private static final int MAX_CAPACITY = 1 << 24;			// Keeps the mapped table below 1 GiB
+	private static final int DIGEST_OFFSET = SLOT_SIZE - Digests.DIGEST_LENGTH;
+
+	private final Path path;
+	private FileChannel channel;
+	private MappedByteBuffer table;
+	private int capacity;
+	private int mask;
+	private int size;
+
+	/**
+	 * Open the cache file or create it if it does not exist.
+	 * @param path the cache file
+	 * @throws IOException if the file cannot be mapped or is not a digest cache
+	 */
+	public DigestCache(Path path) throws IOException {
+		this.path = path;
+		if (Files.exists(path)) {
+			this.map(path);
+		} else {
+			if (path.getParent() != null)
+				Files.createDirectories(path.getParent());
+			Path file = this.create(INITIAL_CAPACITY);
+			Files.move(file, path, StandardCopyOption.ATOMIC_MOVE);
+			this.map(path);
+		}
+	}
+
+	public synchronized int size() {
+		return this.size;
+	}
+
+	public synchronized int capacity() {
+		return this.capacity;
+	}
+
+	private void map(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if (channel.size() < HEADER_SIZE)
+				throw new IOException(path + " is not a digest cache");
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			header.order(ByteOrder.BIG_ENDIAN);
+			int capacity = header.getInt(12);
+			if ((header.getLong(0) != MAGIC) || (header.getInt(8) != VERSION) || (Integer.bitCount(capacity) != 1) || (capacity > MAX_CAPACITY)
+					|| (channel.size() != HEADER_SIZE + (long) capacity * SLOT_SIZE))
+				throw new IOException(path + " is not a digest cache of version " + VERSION);
+
+			this.table = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		if (this.channel != null)
+			this.channel.close();
+		this.channel = channel;
+		this.capacity = this.table.getInt(12);
+		this.mask = this.capacity - 1;
+		this.size = this.table.getInt(16);
+	}
+
+	// Create an empty table in a temporary file next to the cache file
+	private Path create(int capacity) throws IOException {
+		Path file = Paths.get(this.path + ".tmp");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+			table.putLong(0, MAGIC);
+			table.putInt(8, VERSION);
+			table.putInt(12, capacity);
+			table.putInt(16, 0);
+			table.force();
+		}
+		return file;
+	}
+
+	private int slotOffset(int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	private boolean digestEquals(int offset, byte[] digests, int digestOffset) {
+		for (int i = 0; i < Digests.DIGEST_LENGTH; i++)
+			if (this.table.get(offset + DIGEST_OFFSET + i) != digests[digestOffset + i])
+				return false;
+		return true;
+	}
+
+	// Find the slot of the digest or the free slot where it would be inserted
+	private int find(byte[] digests, int digestOffset) {
+		int slot = (int) Digests.word(digests, digestOffset, 0) & this.mask;
+		int offset;
+		while (this.table.get(offset = this.slotOffset(slot)) != 0) {
+			if (this.digestEquals(offset, digests, digestOffset))
+				return slot;
+			slot = (slot + 1) & this.mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Look up the clear text of a digest.
+	 * @param digests the array holding the raw digest
+	 * @param digestOffset the index of the raw digest in the array
+	 * @return the clear text or {@code null} if the digest is not cached
+	 */
+	public synchronized byte[] get(byte[] digests, int digestOffset) {
+		int offset = this.slotOffset(this.find(digests, digestOffset));
+		int state = this.table.get(offset) & 0xff;
+		if (state == 0)
+			return null;
+
+		byte[] clearText = new byte[state - 1];
+		for (int i = 0; i < clearText.length; i++)
+			clearText[i] = this.table.get(offset + 1 + i);
+		return clearText;
+	}
+
+	public byte[] get(byte[] digest) {
+		return this.get(digest, 0);
+	}
+
+	/**
+	 * Add the clear text of a digest, unless the digest is cached already.
+	 * @param digests the array holding the raw digest
+	 * @param digestOffset the index of the raw digest in the array
+	 * @param clearText the array holding the clear text
+	 * @param offset the index of the clear text in the array
+	 * @param length the length of the clear text
+	 * @return {@code true} if the entry was added
+	 * @throws IOException if the cache needs to grow and the new file cannot be created
+	 */
+	public synchronized boolean put(byte[] digests, int digestOffset, byte[] clearText, int offset, int length) throws IOException {
+		if ((length > MAX_CLEAR_TEXT_LENGTH) || (length < 0))
+			return false;
+
+		int slotOffset = this.slotOffset(this.find(digests, digestOffset));
+		if (this.table.get(slotOffset) != 0)
+			return false;
+
+		if (4L * (this.size + 1) > 3L * this.capacity) {
+			if (this.capacity >= MAX_CAPACITY)
+				return false;
+			this.grow();
+			slotOffset = this.slotOffset(this.find(digests, digestOffset));
+		}
+
+		// The state byte is written last, so that the slot becomes visible only with its complete entry
+		for (int i = 0; i < length; i++)
+			this.table.put(slotOffset + 1 + i, clearText[offset + i]);
+		for (int i = 0; i < Digests.DIGEST_LENGTH; i++)
+			this.table.put(slotOffset + DIGEST_OFFSET + i, digests[digestOffset + i]);
+		this.table.put(slotOffset, (byte) (length + 1));
+
+		this.size++;
+		this.table.putInt(16, this.size);
+		return true;
+	}
+
+	public boolean put(byte[] digest, byte[] clearText) throws IOException {
+		return this.put(digest, 0, clearText, 0, clearText.length);
+	}
+
+	// Copy all entries into a table of twice the capacity and atomically replace the cache file with it
+	private void grow() throws IOException {
+		int capacity = this.capacity * 2;
+		int mask = capacity - 1;
+		Path file = this.create(capacity);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+			byte[] digest = new byte[Digests.DIGEST_LENGTH];
+			for (int slot = 0; slot < this.capacity; slot++) {
+				int offset = this.slotOffset(slot);
+				if (this.table.get(offset) == 0)
+					continue;
+
+				for (int i = 0; i < Digests.DIGEST_LENGTH; i++)
+					digest[i] = this.table.get(offset + DIGEST_OFFSET + i);
+				int target = (int) Digests.word(digest, 0) & mask;
+				while (table.get(HEADER_SIZE + target * SLOT_SIZE) != 0)
+					target = (target + 1) & mask;
+				for (int i = 0; i < SLOT_SIZE; i++)
+					table.put(HEADER_SIZE + target * SLOT_SIZE + i, this.table.get(offset + i));
+			}
+			table.putInt(16, this.size);
+			table.force();
+		}
+		Files.move(file, this.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		this.map(this.path);
+	}
+
+	/**
+	 * Write all entries to the disk.
+	 */
+	public synchronized void flush() {
+		this.table.force();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		this.table.force();
+		this.channel.close();
+	}
+}
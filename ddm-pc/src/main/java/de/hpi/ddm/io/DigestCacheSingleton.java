@@ -0,0 +1,41 @@
+package de.hpi.ddm.io;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class DigestCacheSingleton {
+
+	private static DigestCache cache = null;		// Null if the cache is disabled
+	
+	public static DigestCache get() {
+		return cache;
+	}
+	
+	public static void set(DigestCache instance) {
+		cache = instance;
+	}
+	
+	/**
+	 * Open the cache file of the master; an empty path disables the cache.
+	 * @param path the cache file
+	 * @return the cache or {@code null} if it is disabled
+	 * @throws IOException if the file cannot be mapped or is not a digest cache
+	 */
+	public static DigestCache open(String path) throws IOException {
+		if ((path == null) || path.isEmpty())
+			return null;
+		cache = new DigestCache(Paths.get(path));
+		return cache;
+	}
+	
+	public static void close() {
+		if (cache == null)
+			return;
+		try {
+			cache.close();
+		} catch (IOException e) {
+			// The entries that were not written yet are lost, which a cache can tolerate
+		}
+		cache = null;
+	}
+}
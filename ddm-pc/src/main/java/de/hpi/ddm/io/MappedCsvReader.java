@@ -0,0 +1,331 @@
+package de.hpi.ddm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import de.hpi.ddm.cracking.Digests;
+
+/**
+ * A CSV reader that memory-maps the input file and splits the records directly on its bytes. Other than a reader on
+ * top of a {@link java.io.BufferedReader}, it does not decode the input into chars and does not create a string for
+ * every value: a record is just a list of byte ranges, which callers convert into exactly the types they need, e.g.,
+ * hex encoded digests straight into raw digests.
+ * <p>
+ * Unquoted values, which are all values of the password datasets, are referenced in the mapped file without copying.
+ * Quoted values and values with escape sequences are unescaped into a reused scratch buffer. Separator, quote, escape
+ * and line breaks must be single bytes that the charset encodes as in ASCII, which holds for UTF-8 and all ISO-8859
+ * charsets. Large files are mapped in windows of up to {@link #MAX_WINDOW_SIZE} bytes.
+ * <p>
+ * The reader is not thread-safe.
+ */
+public class MappedCsvReader implements Closeable {
+
+	public static final int MAX_WINDOW_SIZE = 1 << 30;		// The maximum number of bytes that are mapped at once; no record may be longer
+
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+
+	private final FileChannel channel;
+	private final long fileSize;
+	private final int windowSize;					// The maximum number of bytes that this reader maps at once
+	private final Charset charset;
+
+	private final byte separator;
+	private final byte quote;
+	private final byte escape;
+	private final boolean strictQuotes;				// Ignore all characters outside of quotes
+	private final boolean ignoreLeadingWhitespace;
+	private final boolean skipDifferingLines;		// Skip records that have a different number of values than the first record
+
+	private MappedByteBuffer window;
+	private long windowStart = 0;					// The file offset of the window
+	private boolean windowAtEnd = false;			// True if the window reaches the end of the file
+	private int position = 0;						// The index of the next record in the window
+
+	private int expectedFields = -1;				// The number of values of the first record
+
+	// The values of the current record
+	private int numFields = 0;
+	private int[] starts = new int[16];
+	private int[] ends = new int[16];
+	private boolean[] unescaped = new boolean[16];	// True if the value is located in the scratch buffer instead of the window
+	private byte[] scratch = new byte[256];
+	private ByteBuffer scratchBuffer = ByteBuffer.wrap(this.scratch);
+	private int scratchLength = 0;
+
+	public MappedCsvReader(Path path, Charset charset, char separator, char quote, char escape, boolean strictQuotes, boolean ignoreLeadingWhitespace, boolean skipDifferingLines) throws IOException {
+		this(path, charset, separator, quote, escape, strictQuotes, ignoreLeadingWhitespace, skipDifferingLines, MAX_WINDOW_SIZE);
+	}
+
+	MappedCsvReader(Path path, Charset charset, char separator, char quote, char escape, boolean strictQuotes, boolean ignoreLeadingWhitespace, boolean skipDifferingLines, int windowSize) throws IOException {
+		if ((windowSize < 1) || (windowSize > MAX_WINDOW_SIZE))
+			throw new IllegalArgumentException("The window size " + windowSize + " is not between 1 and " + MAX_WINDOW_SIZE);
+		this.windowSize = windowSize;
+		this.charset = charset;
+		this.separator = asciiByte(separator, charset);
+		this.quote = asciiByte(quote, charset);
+		this.escape = asciiByte(escape, charset);
+		this.strictQuotes = strictQuotes;
+		this.ignoreLeadingWhitespace = ignoreLeadingWhitespace;
+		this.skipDifferingLines = skipDifferingLines;
+		asciiByte((char) LF, charset);
+
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.fileSize = this.channel.size();
+		this.map(0);
+	}
+
+	private static byte asciiByte(char c, Charset charset) {
+		byte[] encoded = String.valueOf(c).getBytes(charset);
+		if ((c >= 128) || (encoded.length != 1) || (encoded[0] != c))
+			throw new IllegalArgumentException("The character '" + c + "' is not a single ASCII byte in " + charset.name());
+		return (byte) c;
+	}
+
+	private void map(long start) throws IOException {
+		long size = Math.min(this.windowSize, this.fileSize - start);
+		this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+		this.windowStart = start;
+		this.windowAtEnd = start + size == this.fileSize;
+		this.position = 0;
+	}
+
+	/**
+	 * Advance to the next record, skipping blank lines and, if configured, records of a different width.
+	 * @return {@code false} if the end of the file has been reached
+	 * @throws IOException if the file cannot be mapped or a record does not fit into a window
+	 */
+	public boolean next() throws IOException {
+		while (true) {
+			if (this.position >= this.window.limit()) {
+				if (this.windowAtEnd)
+					return false;
+				this.map(this.windowStart + this.position);
+			}
+
+			int end = this.parse(this.position);
+			if (end < 0) {
+				// The record crosses the end of the window, so map the next window starting with this record
+				if (this.position == 0)
+					throw new IOException("Record at offset " + this.windowStart + " exceeds " + this.windowSize + " bytes");
+				this.map(this.windowStart + this.position);
+				continue;
+			}
+			this.position = end;
+
+			if ((this.numFields == 1) && (this.length(0) == 0))
+				continue;
+
+			if (this.expectedFields < 0)
+				this.expectedFields = this.numFields;
+			else if (this.skipDifferingLines && (this.numFields != this.expectedFields))
+				continue;
+
+			return true;
+		}
+	}
+
+	// Split the record that starts at the given index of the window and return the index of the next record or -1 if the record is incomplete
+	private int parse(int p) {
+		final ByteBuffer in = this.window;
+		final int limit = in.limit();
+		this.numFields = 0;
+		this.scratchLength = 0;
+
+		while (true) {
+			if (this.ignoreLeadingWhitespace)
+				while ((p < limit) && ((in.get(p) == ' ') || (in.get(p) == '\t')))
+					p++;
+
+			// Fast path: an unquoted value without escapes is referenced in place
+			final int start = p;
+			boolean plain = true;
+			while (p < limit) {
+				byte b = in.get(p);
+				if ((b == this.separator) || (b == LF) || (b == CR))
+					break;
+				if ((b == this.quote) || (b == this.escape)) {
+					plain = false;
+					break;
+				}
+				p++;
+			}
+
+			if (plain) {
+				if (this.strictQuotes)
+					this.addField(this.scratchLength, this.scratchLength, true);
+				else
+					this.addField(start, p, false);
+			} else {
+				p = this.unescape(start);
+				if (p < 0)
+					return -1;
+			}
+
+			if (p >= limit)
+				return this.windowAtEnd ? p : -1;
+
+			byte b = in.get(p++);
+			if (b == this.separator)
+				continue;
+			if (b == CR) {
+				if (p < limit) {
+					if (in.get(p) == LF)
+						p++;
+				} else if (!this.windowAtEnd) {
+					return -1;
+				}
+			}
+			return p;
+		}
+	}
+
+	// Copy the value starting at the given index into the scratch buffer while resolving quotes and escapes; return the index after the value or -1 if it is incomplete
+	private int unescape(int p) {
+		final ByteBuffer in = this.window;
+		final int limit = in.limit();
+		final int start = this.scratchLength;
+		boolean quoted = false;
+
+		while (p < limit) {
+			byte b = in.get(p);
+			boolean hasNext = p + 1 < limit;
+			byte next = hasNext ? in.get(p + 1) : 0;
+
+			if ((b == this.escape) && (this.escape != this.quote) && hasNext && ((next == this.quote) || (next == this.escape))) {
+				if (quoted || !this.strictQuotes)
+					this.append(next);
+				p += 2;
+			} else if (b == this.quote) {
+				if (quoted && hasNext && (next == this.quote)) {
+					this.append(next);
+					p += 2;
+				} else {
+					quoted = !quoted;
+					p++;
+				}
+			} else if (!quoted && ((b == this.separator) || (b == LF) || (b == CR))) {
+				break;
+			} else {
+				if (quoted || !this.strictQuotes)
+					this.append(b);
+				p++;
+			}
+		}
+
+		if (quoted && !this.windowAtEnd)
+			return -1;
+
+		this.addField(start, this.scratchLength, true);
+		return p;
+	}
+
+	private void append(byte b) {
+		if (this.scratchLength == this.scratch.length) {
+			this.scratch = Arrays.copyOf(this.scratch, 2 * this.scratch.length);
+			this.scratchBuffer = ByteBuffer.wrap(this.scratch);
+		}
+		this.scratch[this.scratchLength++] = b;
+	}
+
+	private void addField(int start, int end, boolean unescaped) {
+		if (this.numFields == this.starts.length) {
+			this.starts = Arrays.copyOf(this.starts, 2 * this.numFields);
+			this.ends = Arrays.copyOf(this.ends, 2 * this.numFields);
+			this.unescaped = Arrays.copyOf(this.unescaped, 2 * this.numFields);
+		}
+		this.starts[this.numFields] = start;
+		this.ends[this.numFields] = end;
+		this.unescaped[this.numFields] = unescaped;
+		this.numFields++;
+	}
+
+	private ByteBuffer source(int field) {
+		if (field >= this.numFields)
+			throw new IndexOutOfBoundsException("Record has " + this.numFields + " values, but value " + field + " was requested");
+		return this.unescaped[field] ? this.scratchBuffer : this.window;
+	}
+
+	/**
+	 * @return the number of values of the current record
+	 */
+	public int size() {
+		return this.numFields;
+	}
+
+	/**
+	 * @param field the index of the value in the current record
+	 * @return the number of bytes of the value
+	 */
+	public int length(int field) {
+		this.source(field);
+		return this.ends[field] - this.starts[field];
+	}
+
+	/**
+	 * @param field the index of the value in the current record
+	 * @return the value decoded with the file's charset
+	 */
+	public String getString(int field) {
+		return new String(this.getBytes(field), this.charset);
+	}
+
+	/**
+	 * @param field the index of the value in the current record
+	 * @return the value parsed as a non-negative decimal integer
+	 * @throws NumberFormatException if the value is not a non-negative decimal integer
+	 */
+	public int getInt(int field) {
+		ByteBuffer source = this.source(field);
+		int start = this.starts[field];
+		int end = this.ends[field];
+		if ((start == end) || (end - start > 9))
+			throw new NumberFormatException("For input string: \"" + this.getString(field) + "\"");
+
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = source.get(i) - '0';
+			if ((digit < 0) || (digit > 9))
+				throw new NumberFormatException("For input string: \"" + this.getString(field) + "\"");
+			value = 10 * value + digit;
+		}
+		return value;
+	}
+
+	/**
+	 * @param field the index of the value in the current record
+	 * @return the bytes of the value
+	 */
+	public byte[] getBytes(int field) {
+		ByteBuffer source = this.source(field);
+		byte[] bytes = new byte[this.ends[field] - this.starts[field]];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = source.get(this.starts[field] + i);
+		return bytes;
+	}
+
+	/**
+	 * Decode the value from hex into a raw SHA-256 digest.
+	 * @param field the index of the value in the current record
+	 * @param digests the array that receives the raw digest
+	 * @param offset the index in the array at which the raw digest is stored
+	 * @throws IllegalArgumentException if the value is not a hex encoded SHA-256 digest
+	 */
+	public void getDigest(int field, byte[] digests, int offset) {
+		ByteBuffer source = this.source(field);
+		Digests.fromHex(source, this.starts[field], this.ends[field] - this.starts[field], digests, offset);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.window = null;
+		this.channel.close();
+	}
+}
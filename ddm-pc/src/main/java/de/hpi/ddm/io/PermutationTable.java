@@ -0,0 +1,255 @@
+package de.hpi.ddm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import de.hpi.ddm.cracking.DigestEngine;
+import de.hpi.ddm.cracking.Digests;
+import de.hpi.ddm.cracking.LexicographicPermutationEnumerator;
+import de.hpi.ddm.cracking.PermutationEnumerator;
+import de.hpi.ddm.cracking.Permutations;
+
+/**
+ * A precomputed, sorted table of the digests of all hints over a fixed set of password chars, i.e., of all permutations
+ * of the chars without one of them. The table depends on the chars only, so it is built once offline and then shared
+ * by all datasets that use these chars: resolving a hint becomes a binary search in the memory-mapped table instead of
+ * the enumeration of a permutation space.
+ * <p>
+ * Every entry is a single long that holds a prefix of the digest in its upper bits and the rank of the hint in its
+ * lower bits, which is {@code excludedChar * (n - 1)! + rank of the permutation}. The prefix is not unique, so every
+ * candidate is verified by hashing it once.
+ * <p>
+ * File layout: a header of {@link #HEADER_SIZE} bytes (magic, version, number of chars, rank bits, number of entries,
+ * chars), followed by the entries in ascending order.
+ * <p>
+ * Lookups only read the mapped table and are thread-safe.
+ */
+public class PermutationTable implements Closeable {
+
+	public static final String FILE_ENDING = ".table";
+	public static final int HEADER_SIZE = 64;
+	public static final int MAX_CHARS = 12;				// The entries of 12 chars fill a long array almost completely
+
+	private static final long MAGIC = 0x44444d5442534c31L;	// "DDMTBSL1"
+	private static final int VERSION = 1;
+	private static final int ENTRIES_PER_CHUNK = 1 << 27;	// Entries per mapped chunk, i.e., 1 GiB
+
+	private final Path path;
+	private final FileChannel channel;
+	private final MappedByteBuffer[] chunks;
+	private final byte[] chars;
+	private final int rankBits;
+	private final long numEntries;
+	private final long spaceSize;						// The number of permutations per excluded char
+
+	/**
+	 * Map a table file.
+	 * @param path the table file
+	 * @throws IOException if the file cannot be mapped or is not a permutation table
+	 */
+	public PermutationTable(Path path) throws IOException {
+		this.path = path;
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			if (this.channel.size() < HEADER_SIZE)
+				throw new IOException(path + " is not a permutation table");
+			MappedByteBuffer header = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			int numChars = header.getInt(12);
+			if ((header.getLong(0) != MAGIC) || (header.getInt(8) != VERSION) || (numChars < 2) || (numChars > MAX_CHARS))
+				throw new IOException(path + " is not a permutation table of version " + VERSION);
+
+			this.rankBits = header.getInt(16);
+			this.numEntries = Permutations.factorial(numChars);
+			this.spaceSize = Permutations.factorial(numChars - 1);
+			this.chars = new byte[numChars];
+			for (int i = 0; i < numChars; i++)
+				this.chars[i] = header.get(24 + i);
+			if (header.getLong(HEADER_SIZE - 8) != this.numEntries || (this.channel.size() != HEADER_SIZE + this.numEntries * Long.BYTES))
+				throw new IOException(path + " is incomplete");
+
+			this.chunks = new MappedByteBuffer[(int) ((this.numEntries + ENTRIES_PER_CHUNK - 1) / ENTRIES_PER_CHUNK)];
+			for (int i = 0; i < this.chunks.length; i++) {
+				long first = (long) i * ENTRIES_PER_CHUNK;
+				long size = Math.min(ENTRIES_PER_CHUNK, this.numEntries - first) * Long.BYTES;
+				this.chunks[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * Long.BYTES, size);
+			}
+		} catch (IOException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	public Path getPath() {
+		return this.path;
+	}
+
+	/**
+	 * @return the password chars of this table
+	 */
+	public byte[] getChars() {
+		return this.chars.clone();
+	}
+
+	/**
+	 * @param symbols the symbols of a permutation space
+	 * @return {@code true} if the table contains all permutations of the symbols, i.e., if the symbols are the table's
+	 * chars without one of them
+	 */
+	public boolean covers(byte[] symbols) {
+		if (symbols.length != this.chars.length - 1)
+			return false;
+		for (int excluded = 0; excluded < this.chars.length; excluded++) {
+			boolean missing = true;
+			for (byte symbol : symbols)
+				missing &= symbol != this.chars[excluded];
+			if (missing)
+				return PermutationEnumerator.isPermutation(Permutations.without(this.chars, excluded), symbols);
+		}
+		return false;
+	}
+
+	private long entry(long index) {
+		return this.chunks[(int) (index / ENTRIES_PER_CHUNK)].getLong((int) (index % ENTRIES_PER_CHUNK) * Long.BYTES);
+	}
+
+	/**
+	 * Look up the clear text of a hint digest.
+	 * @param digests the array holding the raw digest
+	 * @param offset the index of the raw digest in the array
+	 * @param engine the engine that verifies the candidates
+	 * @return the clear text or {@code null} if the digest is not the digest of a hint over the table's chars
+	 */
+	public byte[] find(byte[] digests, int offset, DigestEngine engine) {
+		final long prefix = Digests.word(digests, offset, 0) >>> (this.rankBits + 1);
+		final long rankMask = (1L << this.rankBits) - 1;
+
+		// Binary search for the first entry with the prefix
+		long low = 0;
+		long high = this.numEntries;
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+			if ((this.entry(middle) >>> this.rankBits) < prefix)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+
+		byte[] candidate = new byte[this.chars.length - 1];
+		for (long index = low; index < this.numEntries; index++) {
+			long entry = this.entry(index);
+			if ((entry >>> this.rankBits) != prefix)
+				break;
+
+			long rank = entry & rankMask;
+			Permutations.unrank(Permutations.without(this.chars, (int) (rank / this.spaceSize)), rank % this.spaceSize, candidate);
+			if (matches(engine.digest(candidate, candidate.length), digests, offset))
+				return candidate;
+		}
+		return null;
+	}
+
+	private static boolean matches(byte[] digest, byte[] digests, int offset) {
+		for (int i = 0; i < Digests.DIGEST_LENGTH; i++)
+			if (digest[i] != digests[offset + i])
+				return false;
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * @param chars a set of password chars
+	 * @return the file name of the table of these chars
+	 */
+	public static String fileName(byte[] chars) {
+		return new String(chars, StandardCharsets.ISO_8859_1) + FILE_ENDING;
+	}
+
+	/**
+	 * Hash all hints over the chars, sort their entries and write the table into the directory. The entries are sorted
+	 * in memory, which needs 8 bytes per entry, i.e., about 320 MB for 11 chars.
+	 * @param chars the password chars
+	 * @param directory the directory of the table file
+	 * @param parallelism the number of threads that hash the permutation spaces
+	 * @return the table file
+	 * @throws IOException if the table cannot be written
+	 */
+	public static Path build(byte[] chars, Path directory, int parallelism) throws IOException {
+		final int n = chars.length;
+		if ((n < 2) || (n > MAX_CHARS))
+			throw new IllegalArgumentException("Tables can be built for 2 to " + MAX_CHARS + " chars, not " + n);
+		for (int i = 0; i < n; i++)
+			for (int j = i + 1; j < n; j++)
+				if (chars[i] == chars[j])
+					throw new IllegalArgumentException("The chars must be pairwise different");
+
+		final long numEntries = Permutations.factorial(n);
+		final long spaceSize = Permutations.factorial(n - 1);
+		final int rankBits = Math.max(1, 64 - Long.numberOfLeadingZeros(numEntries - 1));
+		final long[] entries = new long[(int) numEntries];
+
+		// Every thread hashes whole permutation spaces in lexicographic order, so that ranks are simply counted up and
+		// consecutive candidates share a long prefix
+		ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+		try {
+			pool.submit(() -> IntStream.range(0, n).parallel().forEach(excluded -> {
+				DigestEngine engine = new DigestEngine();
+				LexicographicPermutationEnumerator permutations = new LexicographicPermutationEnumerator(Permutations.without(chars, excluded));
+				byte[] candidate = permutations.candidate();
+				long rank = excluded * spaceSize;
+				while (permutations.next()) {
+					long prefix = Digests.word(engine.digest(candidate, candidate.length, permutations.firstChanged()), 0) >>> (rankBits + 1);
+					entries[(int) rank] = (prefix << rankBits) | rank;
+					rank++;
+				}
+			})).get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new IOException("Hashing the permutations failed", e);
+		} finally {
+			pool.shutdown();
+		}
+		Arrays.parallelSort(entries);
+
+		Files.createDirectories(directory);
+		Path path = directory.resolve(fileName(chars));
+		Path file = Paths.get(path + ".tmp");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+			buffer.putLong(MAGIC).putInt(VERSION).putInt(n).putInt(rankBits).putInt(0).put(chars);
+			buffer.position(HEADER_SIZE - 8);
+			buffer.putLong(numEntries);
+			for (long entry : entries) {
+				if (!buffer.hasRemaining())
+					write(channel, buffer);
+				buffer.putLong(entry);
+			}
+			write(channel, buffer);
+			channel.force(true);
+		}
+		Files.move(file, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		return path;
+	}
+
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+}
@@ -0,0 +1,73 @@
+package de.hpi.ddm.io;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class PermutationTablesSingleton {
+
+	private static List<PermutationTable> tables = Collections.emptyList();
+	
+	public static List<PermutationTable> get() {
+		return tables;
+	}
+	
+	public static void set(List<PermutationTable> instance) {
+		tables = instance;
+	}
+	
+	/**
+	 * @param symbols the symbols of a permutation space
+	 * @return a table that contains all permutations of the symbols or {@code null} if there is none
+	 */
+	public static PermutationTable find(byte[] symbols) {
+		for (PermutationTable table : tables)
+			if (table.covers(symbols))
+				return table;
+		return null;
+	}
+	
+	/**
+	 * Map all table files of the directory; a missing directory or an empty path means that there are no tables.
+	 * @param directory the table directory
+	 * @return the tables
+	 * @throws IOException if a table file cannot be mapped or is not a permutation table; the tables that were mapped
+	 * before are closed again
+	 */
+	public static List<PermutationTable> open(String directory) throws IOException {
+		List<PermutationTable> tables = new ArrayList<>();
+		if ((directory != null) && !directory.isEmpty() && Files.isDirectory(Paths.get(directory))) {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(directory), "*" + PermutationTable.FILE_ENDING)) {
+				for (Path file : files)
+					tables.add(new PermutationTable(file));
+			} catch (IOException e) {
+				for (PermutationTable table : tables) {
+					try {
+						table.close();
+					} catch (IOException suppressed) {
+						e.addSuppressed(suppressed);
+					}
+				}
+				throw e;
+			}
+		}
+		PermutationTablesSingleton.tables = tables;
+		return tables;
+	}
+	
+	public static void close() {
+		for (PermutationTable table : tables) {
+			try {
+				table.close();
+			} catch (IOException e) {
+				// The mapping is released with the process anyway
+			}
+		}
+		tables = Collections.emptyList();
+	}
+}
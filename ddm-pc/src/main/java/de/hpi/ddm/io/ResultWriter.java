@@ -0,0 +1,134 @@
+package de.hpi.ddm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends cracked rows to a file in the layout of the input's solution file, i.e., the input row with the password and
+ * all hints in clear text. Rows are encoded into a fixed size buffer that is written to the file channel whenever it is
+ * full or when the writer is flushed, so that a file write covers many rows and the memory does not grow with the
+ * number of results.
+ * <p>
+ * The writer is not thread-safe.
+ */
+public class ResultWriter implements Closeable {
+
+	private static final byte LF = '\n';
+
+	private final Path path;
+	private final FileChannel channel;
+	private final Charset charset;
+	private final byte separator;
+	private final ByteBuffer buffer;
+
+	private boolean headerWritten = false;
+	private long numResults = 0;
+
+	public ResultWriter(Path path, Charset charset, char separator, int bufferSize) throws IOException {
+		this.path = path;
+		this.charset = charset;
+		byte[] encodedSeparator = String.valueOf(separator).getBytes(charset);
+		if ((separator >= 128) || (encodedSeparator.length != 1))
+			throw new IllegalArgumentException("The separator '" + separator + "' is not a single ASCII byte in " + charset.name());
+		this.separator = encodedSeparator[0];
+		this.buffer = ByteBuffer.allocate(bufferSize);
+
+		if (path.getParent() != null)
+			Files.createDirectories(path.getParent());
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+	}
+
+	public Path getPath() {
+		return this.path;
+	}
+
+	public long getNumResults() {
+		return this.numResults;
+	}
+
+	/**
+	 * Append a cracked row. The header is written with the first row, because it depends on the number of hints.
+	 * @param id the ID of the row
+	 * @param name the name of the row
+	 * @param chars the password chars of the row
+	 * @param length the password length of the row
+	 * @param password the clear text password
+	 * @param hints the clear text hints; hints that were not cracked are {@code null}
+	 * @throws IOException if the buffer cannot be written to the file
+	 */
+	public void write(int id, String name, byte[] chars, int length, byte[] password, byte[][] hints) throws IOException {
+		if (!this.headerWritten) {
+			StringBuilder header = new StringBuilder("ID;Name;PasswordChars;PasswordLength;Password");
+			for (int i = 1; i <= hints.length; i++)
+				header.append(";Hint").append(i);
+			this.put(header.toString().replace(';', (char) this.separator).getBytes(this.charset));
+			this.put(LF);
+			this.headerWritten = true;
+		}
+
+		this.put(Integer.toString(id).getBytes(this.charset));
+		this.put(this.separator);
+		this.put(name.getBytes(this.charset));
+		this.put(this.separator);
+		this.put(chars);
+		this.put(this.separator);
+		this.put(Integer.toString(length).getBytes(this.charset));
+		this.put(this.separator);
+		this.put(password);
+		for (byte[] hint : hints) {
+			this.put(this.separator);
+			if (hint != null)
+				this.put(hint);
+		}
+		this.put(LF);
+		this.numResults++;
+	}
+
+	private void put(byte b) throws IOException {
+		if (!this.buffer.hasRemaining())
+			this.drain();
+		this.buffer.put(b);
+	}
+
+	private void put(byte[] bytes) throws IOException {
+		int offset = 0;
+		while (offset < bytes.length) {
+			if (!this.buffer.hasRemaining())
+				this.drain();
+			int length = Math.min(this.buffer.remaining(), bytes.length - offset);
+			this.buffer.put(bytes, offset, length);
+			offset += length;
+		}
+	}
+
+	private void drain() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining())
+			this.channel.write(this.buffer);
+		this.buffer.clear();
+	}
+
+	/**
+	 * Write all buffered rows to the file.
+	 * @throws IOException if the buffer cannot be written to the file
+	 */
+	public void flush() throws IOException {
+		if (this.buffer.position() > 0)
+			this.drain();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			this.flush();
+		} finally {
+			this.channel.close();
+		}
+	}
+}
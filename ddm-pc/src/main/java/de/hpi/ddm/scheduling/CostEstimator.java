@@ -0,0 +1,38 @@
+package de.hpi.ddm.scheduling;
+
+/**
+ * Predicts the cost of tasks from the sizes of their rank ranges as the number of candidates that need to be hashed: a
+ * hint task searches its whole range, a password task of r of the s candidates of its space is expected to hash
+ * r * (1 - r / 2s) of them. All candidates fit into a single SHA-256 block, so every hash costs about the same
+ * regardless of its length.
+ */
+public class CostEstimator {
+
+	/**
+	 * @param task a task
+	 * @return the estimated number of hashes of the task
+	 */
+	public double estimate(Task task) {
+		if (task instanceof HintTask)
+			return this.estimateHintSearch((HintTask) task);
+		if (task instanceof PasswordTask)
+			return this.estimatePasswordSearch((PasswordTask) task);
+		throw new IllegalArgumentException("Unknown task type: " + task.getClass().getName());
+	}
+
+	/**
+	 * A range of a permutation space needs to be searched completely, unless it contains all hints that it can contain.
+	 */
+	private double estimateHintSearch(HintTask task) {
+		return Math.max(1, task.size());
+	}
+
+	/**
+	 * On average, the password is found after half of its range, if it is in the range at all; a range of r of the s
+	 * candidates of the space holds the password with a probability of r / s.
+	 */
+	private double estimatePasswordSearch(PasswordTask task) {
+		double range = task.size();
+		return Math.max(1, range * (1 - range / (2.0 * Math.max(1, task.getSearch().getSize()))));
+	}
+}
@@ -0,0 +1,82 @@
+package de.hpi.ddm.scheduling;
+
+import lombok.Getter;
+
+/**
+ * The number of tasks that the master keeps queued at one worker. A worker that always has its next task in its
+ * mailbox never waits for the network, so the window is sized to cover one round-trip to the worker's node:
+ * {@code 1 + ceil(roundTrip / taskDuration)}, bounded by a configurable maximum. A dispatcher that processes several
+ * tasks at once gets that many credits per task that it processes in parallel.
+ */
+public class CreditWindow {
+
+	private static final double SMOOTHING = 0.2;	// Weight of a new sample in the exponentially weighted moving averages
+
+	/**
+	 * The round-trip time to one node, which is shared by the windows of all workers on that node.
+	 */
+	public static class RoundTrip {
+
+		@Getter
+		private double millis = -1;
+
+		public void sample(double millis) {
+			this.millis = (this.millis < 0) ? millis : (1 - SMOOTHING) * this.millis + SMOOTHING * millis;
+		}
+	}
+
+	private final int maxCredits;
+	private final int parallelism;
+	private final RoundTrip roundTrip;
+
+	@Getter
+	private int size;					// The current number of credits
+	private double taskMillis = -1;		// The moving average of the task durations of this worker
+
+	private int probeTask = -1;			// A task that was assigned while the worker was idle: its turnaround is one round-trip plus its duration
+	private long probeAssigned;
+
+	/**
+	 * @param maxCredits the maximum number of tasks that may be queued per task that the worker processes in parallel
+	 * @param parallelism the number of tasks that the worker processes in parallel
+	 * @param roundTrip the round-trip estimate of the worker's node
+	 */
+	public CreditWindow(int maxCredits, int parallelism, RoundTrip roundTrip) {
+		this.maxCredits = Math.max(1, maxCredits);
+		this.parallelism = Math.max(1, parallelism);
+		this.roundTrip = roundTrip;
+		this.size = Math.min(2, this.maxCredits) * this.parallelism;
+	}
+
+	/**
+	 * Record that a task has been assigned to the worker.
+	 * @param task the id of the task
+	 * @param outstanding the number of tasks that the worker had before this one
+	 * @param now the current time in milliseconds since the epoch
+	 */
+	public void assigned(int task, int outstanding, long now) {
+		if (outstanding == 0) {
+			this.probeTask = task;
+			this.probeAssigned = now;
+		}
+	}
+
+	/**
+	 * Record that the worker has completed a task and resize the window accordingly.
+	 * @param task the id of the task
+	 * @param duration the number of nanoseconds the worker spent on the task
+	 * @param now the current time in milliseconds since the epoch
+	 */
+	public void completed(int task, long duration, long now) {
+		double durationMillis = duration / 1e6;
+		this.taskMillis = (this.taskMillis < 0) ? durationMillis : (1 - SMOOTHING) * this.taskMillis + SMOOTHING * durationMillis;
+
+		if (task == this.probeTask) {
+			this.roundTrip.sample(Math.max(0, now - this.probeAssigned - durationMillis));
+			this.probeTask = -1;
+		}
+
+		if (this.roundTrip.getMillis() >= 0)
+			this.size = this.parallelism * (int) Math.max(1, Math.min(this.maxCredits, 1 + Math.ceil(this.roundTrip.getMillis() / Math.max(this.taskMillis, 0.001))));
+	}
+}
@@ -0,0 +1,48 @@
+package de.hpi.ddm.scheduling;
+
+import java.io.Serializable;
+
+import de.hpi.ddm.actors.Worker;
+import de.hpi.ddm.structures.HintGroup;
+import lombok.Getter;
+
+/**
+ * Search a range of one permutation space for the outstanding hints of a group of rows. The targets are collected when
+ * the task is handed out for the first time, so that hints that have been cracked while the task was queued are not
+ * searched again.
+ */
+public class HintTask extends Task {
+
+	@Getter
+	private final HintGroup group;
+	@Getter
+	private final int excludedChar;
+	private HintGroup.Search search;
+
+	public HintTask(int id, HintGroup group, int excludedChar, long from, long to) {
+		super(id, from, to);
+		this.group = group;
+		this.excludedChar = excludedChar;
+	}
+
+	/**
+	 * @return the search of this task, which is fixed once it has been requested
+	 */
+	public HintGroup.Search getSearch() {
+		if (this.search == null)
+			this.search = this.group.search(this.excludedChar);
+		return this.search;
+	}
+
+	@Override
+	protected Task range(int id, long from, long to) {
+		this.group.addSearch();
+		return new HintTask(id, this.group, this.excludedChar, from, to);
+	}
+
+	@Override
+	public Serializable toMessage() {
+		HintGroup.Search search = this.getSearch();
+		return new Worker.CrackHintsMessage(this.getId(), search.getSymbols(), search.getDigests().toByteArray(), search.getLimit(), this.getFrom(), this.getTo());
+	}
+}
@@ -0,0 +1,34 @@
+package de.hpi.ddm.scheduling;
+
+import java.io.Serializable;
+
+import de.hpi.ddm.actors.Worker;
+import de.hpi.ddm.structures.PasswordRow;
+import de.hpi.ddm.structures.PasswordSearch;
+import lombok.Getter;
+
+/**
+ * Brute force a range of the passwords of a row over the chars that its cracked hints do not exclude.
+ */
+@Getter
+public class PasswordTask extends Task {
+
+	private final PasswordSearch search;
+
+	public PasswordTask(int id, PasswordSearch search, long from, long to) {
+		super(id, from, to);
+		this.search = search;
+	}
+
+	@Override
+	protected Task range(int id, long from, long to) {
+		this.search.addRange();
+		return new PasswordTask(id, this.search, from, to);
+	}
+
+	@Override
+	public Serializable toMessage() {
+		PasswordRow row = this.search.getRow();
+		return new Worker.CrackPasswordMessage(this.getId(), this.search.getChars(), row.getLength(), row.getRecord().getPassword(), this.getFrom(), this.getTo());
+	}
+}
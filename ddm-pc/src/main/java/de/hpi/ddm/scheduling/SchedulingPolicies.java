@@ -0,0 +1,42 @@
+package de.hpi.ddm.scheduling;
+
+import java.util.Comparator;
+
+/**
+ * The scheduling policies that can be selected on the command line. Ties are always broken by creation order.
+ */
+public enum SchedulingPolicies implements SchedulingPolicy {
+
+	/**
+	 * First in, first out: tasks are handed out in the order in which they are created.
+	 */
+	FIFO {
+		@Override
+		public Comparator<Task> order() {
+			return CREATION_ORDER;
+		}
+	},
+
+	/**
+	 * Longest processing time first: the most expensive tasks go first, so that the cheap ones fill the gaps at the
+	 * end, which minimizes the makespan.
+	 */
+	LPT {
+		@Override
+		public Comparator<Task> order() {
+			return Comparator.comparingDouble(Task::getCost).reversed().thenComparing(CREATION_ORDER);
+		}
+	},
+
+	/**
+	 * Shortest job first: the cheapest tasks go first, which yields the first results as early as possible.
+	 */
+	SJF {
+		@Override
+		public Comparator<Task> order() {
+			return Comparator.comparingDouble(Task::getCost).thenComparing(CREATION_ORDER);
+		}
+	};
+
+	private static final Comparator<Task> CREATION_ORDER = Comparator.comparingInt(Task::getId);
+}
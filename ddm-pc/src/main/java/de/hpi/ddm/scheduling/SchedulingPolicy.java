@@ -0,0 +1,14 @@
+package de.hpi.ddm.scheduling;
+
+import java.util.Comparator;
+
+/**
+ * Decides the order in which the master hands out queued tasks.
+ */
+public interface SchedulingPolicy {
+
+	/**
+	 * @return an order on tasks; the least task is handed out first
+	 */
+	Comparator<Task> order();
+}
@@ -0,0 +1,82 @@
+package de.hpi.ddm.scheduling;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import akka.actor.ActorRef;
+
+/**
+ * Picks tasks for speculative backup execution. Once the queue is drained, a single slow or overloaded worker that
+ * holds one of the last tasks decides the makespan. An idle worker therefore duplicates the task that has been leased
+ * the longest, provided that it has been out for longer than a percentile of the turnaround times of completed tasks;
+ * whichever result arrives first wins, and the other copy is cancelled.
+ */
+public class Speculator {
+
+	private static final int HISTORY = 256;		// The number of recent turnaround times that the percentile is computed from
+	static final int MIN_SAMPLES = 8;	// Without enough samples, every task would look like a straggler
+
+	private final double percentile;
+	private final long[] turnarounds = new long[HISTORY];
+	private int numSamples = 0;
+
+	/**
+	 * @param percentile the percentile of the turnaround times, between 0 and 100, that a task needs to exceed to be
+	 * duplicated; 0 or less disables speculation
+	 */
+	public Speculator(double percentile) {
+		this.percentile = Math.min(100, percentile);
+	}
+
+	public boolean isEnabled() {
+		return this.percentile > 0;
+	}
+
+	/**
+	 * Record the turnaround of a completed task.
+	 * @param millis the time from the assignment of the task to the arrival of its result
+	 */
+	public void completed(long millis) {
+		this.turnarounds[this.numSamples % HISTORY] = millis;
+		this.numSamples++;
+	}
+
+	/**
+	 * @return the turnaround that a task needs to exceed to be duplicated or -1 if it is not known yet
+	 */
+	public long threshold() {
+		int size = Math.min(this.numSamples, HISTORY);
+		if (size < MIN_SAMPLES)
+			return -1;
+		long[] sorted = Arrays.copyOf(this.turnarounds, size);
+		Arrays.sort(sorted);
+		return sorted[(int) Math.min(size - 1, Math.ceil(this.percentile / 100 * size) - 1)];
+	}
+
+	/**
+	 * @param leases all current leases
+	 * @param worker the idle worker that would run the backup
+	 * @param now the current time in milliseconds since the epoch
+	 * @return the straggler that the worker should duplicate or {@code null} if there is none
+	 */
+	public Task select(List<TaskTracker.Lease> leases, ActorRef worker, long now) {
+		long threshold = this.isEnabled() ? this.threshold() : -1;
+		if (threshold < 0)
+			return null;
+
+		// Every task is duplicated at most once, and never onto a worker that holds it already
+		Map<Task, Integer> copies = new HashMap<>();
+		for (TaskTracker.Lease lease : leases)
+			copies.merge(lease.getTask(), lease.getWorker().equals(worker) ? 2 : 1, Integer::sum);
+
+		TaskTracker.Lease oldest = null;
+		for (TaskTracker.Lease lease : leases) {
+			if ((copies.get(lease.getTask()) == 1) && (now - lease.getAssigned() > threshold)
+					&& ((oldest == null) || (lease.getAssigned() < oldest.getAssigned())))
+				oldest = lease;
+		}
+		return (oldest == null) ? null : oldest.getTask();
+	}
+}
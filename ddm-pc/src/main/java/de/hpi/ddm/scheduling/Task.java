@@ -0,0 +1,66 @@
+package de.hpi.ddm.scheduling;
+
+import java.io.Serializable;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A unit of work that the master assigns to a single worker: a range of ranks {@code [from, to)} of a search space.
+ */
+@Getter
+public abstract class Task {
+
+	private final int id;				// Ids increase in creation order
+	private final long from;			// The rank of the first candidate of the task
+	private long to;					// The rank after the last candidate of the task; shrinks if the task is split
+	@Setter
+	private double cost;				// The estimated number of hashes, which the scheduling policy orders by
+	private boolean completed = false;
+
+	protected Task(int id, long from, long to) {
+		this.id = id;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * @return the number of candidates of the task
+	 */
+	public long size() {
+		return this.to - this.from;
+	}
+
+	/**
+	 * Split off the candidates from the given rank on as a new task of the same space.
+	 * @param id the id of the new task
+	 * @param at a rank between the bounds of this task, which becomes the end of this task and the start of the new one
+	 * @return the new task
+	 */
+	public Task split(int id, long at) {
+		if ((at <= this.from) || (at >= this.to))
+			throw new IllegalArgumentException("Cannot split [" + this.from + ", " + this.to + ") at " + at);
+
+		Task tail = this.range(id, at, this.to);
+		this.to = at;
+		return tail;
+	}
+
+	/**
+	 * Create a task for another range of the same space and announce it to the search that waits for the space.
+	 * @param id the id of the new task
+	 * @param from the rank of the first candidate of the new task
+	 * @param to the rank after the last candidate of the new task
+	 * @return the new task
+	 */
+	protected abstract Task range(int id, long from, long to);
+
+	void complete() {
+		this.completed = true;
+	}
+
+	/**
+	 * @return the message that tells a worker to process this task
+	 */
+	public abstract Serializable toMessage();
+}
@@ -0,0 +1,93 @@
+package de.hpi.ddm.scheduling;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import akka.actor.ActorRef;
+
+/**
+ * Sizes the range of a task for the worker that receives it, so that the task takes about a configurable wall-clock
+ * duration on that worker: the size is the worker's measured hash rate times the target duration. Towards the end of a
+ * job, when the queued candidates do not suffice to give every worker a few more tasks of that size, the ranges shrink
+ * with the remaining work as in guided self-scheduling, so that all workers finish at about the same time.
+ */
+public class TaskSizer {
+
+	private static final double SMOOTHING = 0.2;		// Weight of a new sample in the exponentially weighted moving averages
+	static final double DEFAULT_RATE = 1e6;		// Hashes per second that we assume before the first worker reported
+	static final int TAIL_SHARES = 2;			// The number of tasks per worker that the remaining work is split into at the end
+
+	private final double targetSeconds;
+	private final long minSize;
+	private final long maxSize;
+	private final Map<ActorRef, Double> rates = new HashMap<>();	// Hashes per second of every worker
+	private final WorkerCapacities capacities;
+
+	/**
+	 * @param targetMillis the wall-clock duration that a task should take; 0 or less to size tasks by the maximum only
+	 * @param minSize the minimum number of candidates of a task
+	 * @param maxSize the maximum number of candidates of a task; 0 or less for no maximum
+	 * @param capacities the advertised capacities, which stand in for the rates of workers that have not reported yet
+	 */
+	public TaskSizer(long targetMillis, long minSize, long maxSize, WorkerCapacities capacities) {
+		this.capacities = capacities;
+		this.targetSeconds = targetMillis / 1000.0;
+		this.minSize = Math.max(1, minSize);
+		this.maxSize = (maxSize <= 0) ? Long.MAX_VALUE : Math.max(this.minSize, maxSize);
+	}
+
+	/**
+	 * Record the throughput of a completed task.
+	 * @param worker the worker that completed the task
+	 * @param hashed the number of candidates that the worker hashed
+	 * @param duration the number of nanoseconds the worker spent on the task
+	 */
+	public void completed(ActorRef worker, long hashed, long duration) {
+		// Tasks that were answered from a cache or stopped early say nothing about the rate
+		if ((hashed < this.minSize) || (duration <= 0))
+			return;
+
+		double rate = hashed / (duration / 1e9);
+		Double average = this.rates.get(worker);
+		this.rates.put(worker, (average == null) ? rate : (1 - SMOOTHING) * average + SMOOTHING * rate);
+	}
+
+	public void remove(ActorRef worker) {
+		this.rates.remove(worker);
+	}
+
+	/**
+	 * @param worker a worker
+	 * @return the measured hash rate of the worker; if it has not reported yet, the rate that its capacity promises or
+	 * the average rate of all workers
+	 */
+	public double rate(ActorRef worker) {
+		Double rate = this.rates.get(worker);
+		if (rate != null)
+			return rate;
+		double expected = this.capacities.rate(worker);
+		if (expected > 0)
+			return expected;
+		if (this.rates.isEmpty())
+			return DEFAULT_RATE;
+		double sum = 0;
+		for (double other : this.rates.values())
+			sum += other;
+		return sum / this.rates.size();
+	}
+
+	/**
+	 * @param worker the worker that receives the task
+	 * @param remaining the number of candidates of all queued tasks
+	 * @param numWorkers the number of workers that share the remaining work
+	 * @return the number of candidates that the next task of the worker should have
+	 */
+	public long size(ActorRef worker, long remaining, int numWorkers) {
+		if (this.targetSeconds <= 0)
+			return this.maxSize;
+
+		double size = this.rate(worker) * this.targetSeconds;
+		size = Math.min(size, Math.ceil((double) remaining / (TAIL_SHARES * Math.max(1, numWorkers))));
+		return (long) Math.max(this.minSize, Math.min(this.maxSize, size));
+	}
+}
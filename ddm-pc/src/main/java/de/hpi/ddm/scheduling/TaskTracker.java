@@ -0,0 +1,188 @@
+package de.hpi.ddm.scheduling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import akka.actor.ActorRef;
+import akka.actor.Address;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Tracks all tasks that have been handed out but not completed yet. Every assignment is a lease that names the worker
+ * and expires after a timeout; tasks whose lease expired or whose worker is gone can be revoked and handed out again.
+ * A revoked task stays open, so that a late result of its original worker is still accepted. A task can have several
+ * leases at once if it is speculatively duplicated on another worker; it is only revoked once all of them are gone.
+ */
+public class TaskTracker {
+
+	@Getter @AllArgsConstructor
+	public static class Lease {
+		private final Task task;
+		private final ActorRef worker;
+		private final long assigned;	// Milliseconds since the epoch
+		private final long deadline;	// Milliseconds since the epoch
+	}
+
+	private final long leaseTimeout;
+	private final Int2ObjectOpenHashMap<Task> open = new Int2ObjectOpenHashMap<>();
+	private final Int2ObjectOpenHashMap<List<Lease>> leases = new Int2ObjectOpenHashMap<>();
+	private final Map<ActorRef, IntSet> leasesByWorker = new HashMap<>();
+
+	/**
+	 * @param leaseTimeout the number of milliseconds after which an assignment expires
+	 */
+	public TaskTracker(long leaseTimeout) {
+		this.leaseTimeout = leaseTimeout;
+	}
+
+	/**
+	 * @return the number of open tasks, i.e., tasks that have been assigned at least once and are not completed
+	 */
+	public int size() {
+		return this.open.size();
+	}
+
+	/**
+	 * @param worker a worker
+	 * @return the number of tasks that are currently leased to the worker
+	 */
+	public int leases(ActorRef worker) {
+		IntSet ids = this.leasesByWorker.get(worker);
+		return (ids == null) ? 0 : ids.size();
+	}
+
+	public boolean isOpen(int id) {
+		return this.open.containsKey(id);
+	}
+
+	/**
+	 * @param id the id of a task
+	 * @return a snapshot of the current leases of the task, which is empty if the task is not assigned to any worker
+	 */
+	public List<Lease> getLeases(int id) {
+		List<Lease> leases = this.leases.get(id);
+		return (leases == null) ? new ArrayList<>(0) : new ArrayList<>(leases);
+	}
+
+	/**
+	 * @return a snapshot of all current leases
+	 */
+	public List<Lease> getLeases() {
+		List<Lease> all = new ArrayList<>(this.leases.size());
+		for (List<Lease> leases : this.leases.values())
+			all.addAll(leases);
+		return all;
+	}
+
+	/**
+	 * Record that the task has been assigned to the worker.
+	 * @param task the assigned task
+	 * @param worker the worker that processes the task now
+	 * @param now the current time in milliseconds since the epoch
+	 */
+	public void assign(Task task, ActorRef worker, long now) {
+		this.release(task.getId());
+		this.open.put(task.getId(), task);
+		this.lease(task, worker, now);
+	}
+
+	/**
+	 * Record that an open task has been duplicated on another worker, while its current leases remain.
+	 * @param task the duplicated task
+	 * @param worker the worker that processes the duplicate
+	 * @param now the current time in milliseconds since the epoch
+	 */
+	public void duplicate(Task task, ActorRef worker, long now) {
+		this.lease(task, worker, now);
+	}
+
+	private void lease(Task task, ActorRef worker, long now) {
+		this.leases.computeIfAbsent(task.getId(), id -> new ArrayList<>(1)).add(new Lease(task, worker, now, now + this.leaseTimeout));
+		this.leasesByWorker.computeIfAbsent(worker, w -> new IntOpenHashSet()).add(task.getId());
+	}
+
+	/**
+	 * Close the task, because its result has arrived.
+	 * @param id the id of the completed task
+	 * @return the completed task or {@code null} if the task is not open, e.g., because it has been completed before
+	 */
+	public Task complete(int id) {
+		Task task = this.open.remove(id);
+		if (task != null) {
+			this.release(id);
+			task.complete();
+		}
+		return task;
+	}
+
+	/**
+	 * Revoke the leases of all tasks that are assigned to the given worker, e.g., because it terminated.
+	 * @param worker the worker whose tasks are revoked
+	 * @return the revoked tasks without another lease, which need to be assigned again
+	 */
+	public List<Task> revoke(ActorRef worker) {
+		IntSet ids = this.leasesByWorker.get(worker);
+		List<Task> revoked = new ArrayList<>(ids == null ? 0 : ids.size());
+		if (ids == null)
+			return revoked;
+
+		for (int id : ids.toIntArray())
+			for (Lease lease : this.getLeases(id))
+				if (lease.getWorker().equals(worker) && this.release(lease))
+					revoked.add(lease.getTask());
+		return revoked;
+	}
+
+	/**
+	 * Revoke the leases of all tasks that are assigned to workers in the actor system with the given address, e.g.,
+	 * because that node became unreachable.
+	 * @param address the address of the actor system
+	 * @return the revoked tasks, which need to be assigned again
+	 */
+	public List<Task> revoke(Address address) {
+		List<Task> revoked = new ArrayList<>();
+		for (ActorRef worker : new ArrayList<>(this.leasesByWorker.keySet()))
+			if (worker.path().address().equals(address))
+				revoked.addAll(this.revoke(worker));
+		return revoked;
+	}
+
+	/**
+	 * Revoke all leases whose deadline has passed.
+	 * @param now the current time in milliseconds since the epoch
+	 * @return the revoked tasks, which need to be assigned again
+	 */
+	public List<Task> expire(long now) {
+		List<Task> revoked = new ArrayList<>();
+		for (Lease lease : this.getLeases())
+			if ((lease.getDeadline() <= now) && this.release(lease))
+				revoked.add(lease.getTask());
+		return revoked;
+	}
+
+	private void release(int id) {
+		for (Lease lease : this.getLeases(id))
+			this.release(lease);
+	}
+
+	// Returns true if the lease was the last one of its task
+	private boolean release(Lease lease) {
+		final int id = lease.getTask().getId();
+		List<Lease> leases = this.leases.get(id);
+		leases.remove(lease);
+		if (leases.isEmpty())
+			this.leases.remove(id);
+
+		IntSet ids = this.leasesByWorker.get(lease.getWorker());
+		ids.remove(id);
+		if (ids.isEmpty())
+			this.leasesByWorker.remove(lease.getWorker());
+		return leases.isEmpty();
+	}
+}
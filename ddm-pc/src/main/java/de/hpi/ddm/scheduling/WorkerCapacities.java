@@ -0,0 +1,111 @@
+package de.hpi.ddm.scheduling;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import akka.actor.ActorRef;
+import akka.actor.Address;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The expected hash rates of the workers before they reported any results, derived from the capacity that every worker
+ * advertises when it registers, i.e., the cores and the calibrated single-thread hash rate of its node, and from the
+ * recent CPU load of the node as reported by the cluster metrics. The workers of a node share its cores, and load that
+ * our own workers cannot explain, e.g., other processes on a shared node, takes its share of the cores as well. A
+ * dispatcher registers for several workers at once; its rate is the rate of each of its tasks.
+ * <p>
+ * Nodes are identified by the addresses under which the cluster metrics report them. Workers in the master's own actor
+ * system have a local address without host and port, so they are attributed to the cluster address of that system.
+ */
+public class WorkerCapacities {
+
+	static final double MIN_AVAILABILITY = 0.1;	// Even a fully loaded node gets some work, so that it can report its actual rate
+
+	@AllArgsConstructor
+	private static class Capacity {
+		private final int cores;
+		private final double hashesPerSecond;	// Of a single thread; 0 if the node did not calibrate its kernel
+		private final int workers;				// The number of workers that registered together
+	}
+
+	private final Address self;				// The cluster address of the actor system that hosts the master
+	private final Map<ActorRef, Capacity> capacities = new HashMap<>();
+	private final Map<Address, Integer> workersPerNode = new HashMap<>();
+	private final Map<Address, Double> loads = new HashMap<>();		// The system load average of every node
+	@Getter
+	private int numWorkers = 0;
+
+	/**
+	 * @param self the cluster address of the local actor system, which the metrics report for the local node
+	 */
+	public WorkerCapacities(Address self) {
+		this.self = self;
+	}
+
+	/**
+	 * @param worker a local or remote actor
+	 * @return the address of the worker's node as the cluster metrics report it
+	 */
+	public Address node(ActorRef worker) {
+		Address address = worker.path().address();
+		return address.hasLocalScope() ? this.self : address;
+	}
+
+	/**
+	 * @param worker a worker or a dispatcher
+	 * @param cores the available processors of its node
+	 * @param hashesPerSecond the calibrated single-thread hash rate of its node; 0 if unknown
+	 * @param workers the number of workers that registered, i.e., 1 for a worker
+	 */
+	public void register(ActorRef worker, int cores, double hashesPerSecond, int workers) {
+		this.remove(worker);
+		this.capacities.put(worker, new Capacity(Math.max(1, cores), hashesPerSecond, workers));
+		this.workersPerNode.merge(this.node(worker), workers, Integer::sum);
+		this.numWorkers += workers;
+	}
+
+	public void remove(ActorRef worker) {
+		Capacity capacity = this.capacities.remove(worker);
+		if (capacity == null)
+			return;
+		this.workersPerNode.merge(this.node(worker), -capacity.workers, (count, delta) -> (count + delta == 0) ? null : count + delta);
+		this.numWorkers -= capacity.workers;
+	}
+
+	/**
+	 * Record a new load sample of a node.
+	 * @param node the address of the node
+	 * @param systemLoadAverage the number of runnable threads on the node, averaged over the last minute
+	 */
+	public void load(Address node, double systemLoadAverage) {
+		this.loads.put(node, systemLoadAverage);
+	}
+
+	/**
+	 * @param worker a registered worker
+	 * @return the share of the cores of the worker's node that is not occupied by others, between
+	 * {@link #MIN_AVAILABILITY} and 1
+	 */
+	public double availability(ActorRef worker) {
+		Capacity capacity = this.capacities.get(worker);
+		Double load = this.loads.get(this.node(worker));
+		if ((capacity == null) || (load == null))
+			return 1;
+		int own = Math.min(capacity.cores, this.workersPerNode.getOrDefault(this.node(worker), 1));
+		double foreign = Math.max(0, load - own);
+		return Math.max(MIN_AVAILABILITY, Math.min(1, (capacity.cores - foreign) / capacity.cores));
+	}
+
+	/**
+	 * @param worker a registered worker
+	 * @return the expected hashes per second of the worker or 0 if its node did not advertise a hash rate
+	 */
+	public double rate(ActorRef worker) {
+		Capacity capacity = this.capacities.get(worker);
+		if (capacity == null)
+			return 0;
+		int workers = this.workersPerNode.getOrDefault(this.node(worker), 1);
+		return capacity.hashesPerSecond * Math.min(1, (double) capacity.cores / workers) * this.availability(worker);
+	}
+}
@@ -0,0 +1,53 @@
+package de.hpi.ddm.serialization;
+
+import com.twitter.chill.KryoBase;
+import com.twitter.chill.ScalaKryoInstantiator;
+
+import de.hpi.ddm.actors.Collector;
+import de.hpi.ddm.actors.Dispatcher;
+import de.hpi.ddm.actors.Master;
+import de.hpi.ddm.actors.Reader;
+import de.hpi.ddm.actors.Reaper;
+import de.hpi.ddm.actors.Worker;
+import de.hpi.ddm.structures.PasswordRecord;
+
+/**
+ * The Kryo instantiator of the akka serializer, which is configured in the application.conf. On top of chill's scala
+ * registrations, it registers all actor messages with fixed IDs and hand-written serializers, so that messages are
+ * written without their class names and without reflection. The IDs must be the same on all nodes of a cluster, so
+ * new classes must only ever be appended.
+ */
+public class MessageKryoInstantiator extends ScalaKryoInstantiator {
+
+	private static final long serialVersionUID = -1528163408402418113L;
+
+	public static final int FIRST_ID = 1000;	// Leaves the lower IDs to Kryo's and chill's own registrations
+
+	@Override
+	public KryoBase newKryo() {
+		KryoBase kryo = super.newKryo();
+
+		int id = FIRST_ID;
+		kryo.register(Worker.CrackHintsMessage.class, new MessageSerializers.CrackHintsSerializer(), id++);
+		kryo.register(Worker.CrackPasswordMessage.class, new MessageSerializers.CrackPasswordSerializer(), id++);
+		kryo.register(Master.HintsCrackedMessage.class, new MessageSerializers.HintsCrackedSerializer(), id++);
+		kryo.register(Master.FoundPassword.class, new MessageSerializers.FoundPasswordSerializer(), id++);
+		kryo.register(Master.RegistrationMessage.class, new MessageSerializers.RegistrationSerializer(), id++);
+		kryo.register(Master.BatchMessage.class, new MessageSerializers.BatchSerializer(), id++);
+		kryo.register(Master.StartMessage.class, new MessageSerializers.EmptySerializer<>(), id++);
+		kryo.register(Master.LeaseCheckMessage.class, new MessageSerializers.EmptySerializer<>(), id++);
+		kryo.register(Reader.ReadMessage.class, new MessageSerializers.EmptySerializer<>(), id++);
+		kryo.register(Reader.ReadCompletedMessage.class, new MessageSerializers.ReadCompletedSerializer(), id++);
+		kryo.register(Collector.CollectMessage.class, new MessageSerializers.CollectSerializer(), id++);
+		kryo.register(Collector.PrintMessage.class, new MessageSerializers.EmptySerializer<>(), id++);
+		kryo.register(Reaper.WatchMeMessage.class, new MessageSerializers.EmptySerializer<>(), id++);
+		kryo.register(PasswordRecord.class, new MessageSerializers.PasswordRecordSerializer(), id++);
+		kryo.register(Collector.FlushMessage.class, new MessageSerializers.EmptySerializer<>(), id++);
+		kryo.register(Worker.CancelTaskMessage.class, new MessageSerializers.CancelTaskSerializer(), id++);
+		kryo.register(Worker.SliceMessage.class, new MessageSerializers.EmptySerializer<>(), id++);
+		kryo.register(Dispatcher.TaskBatchMessage.class, new MessageSerializers.TaskBatchSerializer(), id++);
+		kryo.register(Master.ResultBatchMessage.class, new MessageSerializers.ResultBatchSerializer(), id++);
+		kryo.register(Dispatcher.FlushMessage.class, new MessageSerializers.EmptySerializer<>(), id++);
+		return kryo;
+	}
+}
@@ -0,0 +1,297 @@
+package de.hpi.ddm.serialization;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import de.hpi.ddm.actors.Collector;
+import de.hpi.ddm.actors.Dispatcher;
+import de.hpi.ddm.actors.Master;
+import de.hpi.ddm.actors.Reader;
+import de.hpi.ddm.actors.Worker;
+import de.hpi.ddm.structures.PasswordRecord;
+
+/**
+ * Hand-written Kryo serializers for the actor messages. They write the fields in a fixed order without any field names
+ * or class names, use variable length encodings for ints and copy byte arrays in bulk.
+ */
+public class MessageSerializers {
+
+	private static void writeBytes(Output output, byte[] bytes) {
+		output.writeInt(bytes.length, true);
+		output.writeBytes(bytes);
+	}
+
+	private static byte[] readBytes(Input input) {
+		return input.readBytes(input.readInt(true));
+	}
+
+	private static void writeInts(Output output, int[] ints) {
+		output.writeInt(ints.length, true);
+		output.writeInts(ints, true);
+	}
+
+	private static int[] readInts(Input input) {
+		return input.readInts(input.readInt(true), true);
+	}
+
+	private static void writeMessages(Kryo kryo, Output output, List<Serializable> messages) {
+		output.writeInt(messages.size(), true);
+		for (Serializable message : messages)
+			kryo.writeClassAndObject(output, message);
+	}
+
+	private static List<Serializable> readMessages(Kryo kryo, Input input) {
+		int size = input.readInt(true);
+		List<Serializable> messages = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			messages.add((Serializable) kryo.readClassAndObject(input));
+		return messages;
+	}
+
+	/**
+	 * A serializer for messages without any fields, which are represented by their registration ID alone.
+	 */
+	public static class EmptySerializer<T> extends Serializer<T> {
+
+		public EmptySerializer() {
+			this.setImmutable(true);
+		}
+
+		@Override
+		public void write(Kryo kryo, Output output, T message) {
+		}
+
+		@Override
+		public T read(Kryo kryo, Input input, Class<T> type) {
+			return kryo.newInstance(type);
+		}
+	}
+
+	public static class RegistrationSerializer extends Serializer<Master.RegistrationMessage> {
+
+		@Override
+		public void write(Kryo kryo, Output output, Master.RegistrationMessage message) {
+			output.writeInt(message.getCores(), true);
+			output.writeDouble(message.getHashesPerSecond());
+			output.writeInt(message.getWorkers(), true);
+		}
+
+		@Override
+		public Master.RegistrationMessage read(Kryo kryo, Input input, Class<Master.RegistrationMessage> type) {
+			return new Master.RegistrationMessage(input.readInt(true), input.readDouble(), input.readInt(true));
+		}
+	}
+
+	/**
+	 * A serializer for batches of messages, which writes every message with the serializer of its class.
+	 */
+	public static class TaskBatchSerializer extends Serializer<Dispatcher.TaskBatchMessage> {
+
+		@Override
+		public void write(Kryo kryo, Output output, Dispatcher.TaskBatchMessage message) {
+			writeMessages(kryo, output, message.getTasks());
+		}
+
+		@Override
+		public Dispatcher.TaskBatchMessage read(Kryo kryo, Input input, Class<Dispatcher.TaskBatchMessage> type) {
+			return new Dispatcher.TaskBatchMessage(readMessages(kryo, input));
+		}
+	}
+
+	public static class ResultBatchSerializer extends Serializer<Master.ResultBatchMessage> {
+
+		@Override
+		public void write(Kryo kryo, Output output, Master.ResultBatchMessage message) {
+			writeMessages(kryo, output, message.getResults());
+		}
+
+		@Override
+		public Master.ResultBatchMessage read(Kryo kryo, Input input, Class<Master.ResultBatchMessage> type) {
+			return new Master.ResultBatchMessage(readMessages(kryo, input));
+		}
+	}
+
+	public static class CrackHintsSerializer extends Serializer<Worker.CrackHintsMessage> {
+
+		@Override
+		public void write(Kryo kryo, Output output, Worker.CrackHintsMessage message) {
+			output.writeInt(message.getId(), true);
+			writeBytes(output, message.getSymbols());
+			writeBytes(output, message.getHints());
+			output.writeInt(message.getLimit(), true);
+			output.writeLong(message.getFrom(), true);
+			output.writeLong(message.getTo(), true);
+		}
+
+		@Override
+		public Worker.CrackHintsMessage read(Kryo kryo, Input input, Class<Worker.CrackHintsMessage> type) {
+			return new Worker.CrackHintsMessage(input.readInt(true), readBytes(input), readBytes(input), input.readInt(true), input.readLong(true), input.readLong(true));
+		}
+	}
+
+	public static class CrackPasswordSerializer extends Serializer<Worker.CrackPasswordMessage> {
+
+		@Override
+		public void write(Kryo kryo, Output output, Worker.CrackPasswordMessage message) {
+			output.writeInt(message.getId(), true);
+			writeBytes(output, message.getChars());
+			output.writeInt(message.getLength(), true);
+			writeBytes(output, message.getPassword());
+			output.writeLong(message.getFrom(), true);
+			output.writeLong(message.getTo(), true);
+		}
+
+		@Override
+		public Worker.CrackPasswordMessage read(Kryo kryo, Input input, Class<Worker.CrackPasswordMessage> type) {
+			return new Worker.CrackPasswordMessage(input.readInt(true), readBytes(input), input.readInt(true), readBytes(input), input.readLong(true), input.readLong(true));
+		}
+	}
+
+	public static class HintsCrackedSerializer extends Serializer<Master.HintsCrackedMessage> {
+
+		@Override
+		public void write(Kryo kryo, Output output, Master.HintsCrackedMessage message) {
+			output.writeInt(message.getId(), true);
+			writeInts(output, message.getHints());
+			writeBytes(output, message.getClearTexts());
+			output.writeLong(message.getDuration(), true);
+			output.writeLong(message.getHashed(), true);
+		}
+
+		@Override
+		public Master.HintsCrackedMessage read(Kryo kryo, Input input, Class<Master.HintsCrackedMessage> type) {
+			return new Master.HintsCrackedMessage(input.readInt(true), readInts(input), readBytes(input), input.readLong(true), input.readLong(true));
+		}
+	}
+
+	public static class FoundPasswordSerializer extends Serializer<Master.FoundPassword> {
+
+		@Override
+		public void write(Kryo kryo, Output output, Master.FoundPassword message) {
+			output.writeInt(message.getId(), true);
+			writeBytes(output, message.getPassword());
+			output.writeLong(message.getDuration(), true);
+			output.writeLong(message.getHashed(), true);
+		}
+
+		@Override
+		public Master.FoundPassword read(Kryo kryo, Input input, Class<Master.FoundPassword> type) {
+			return new Master.FoundPassword(input.readInt(true), readBytes(input), input.readLong(true), input.readLong(true));
+		}
+	}
+
+	public static class CancelTaskSerializer extends Serializer<Worker.CancelTaskMessage> {
+
+		@Override
+		public void write(Kryo kryo, Output output, Worker.CancelTaskMessage message) {
+			output.writeInt(message.getId(), true);
+		}
+
+		@Override
+		public Worker.CancelTaskMessage read(Kryo kryo, Input input, Class<Worker.CancelTaskMessage> type) {
+			return new Worker.CancelTaskMessage(input.readInt(true));
+		}
+	}
+
+	public static class PasswordRecordSerializer extends Serializer<PasswordRecord> {
+
+		@Override
+		public void write(Kryo kryo, Output output, PasswordRecord record) {
+			output.writeInt(record.getId(), true);
+			output.writeString(record.getName());
+			writeBytes(output, record.getChars());
+			output.writeInt(record.getLength(), true);
+			writeBytes(output, record.getDigests());
+		}
+
+		@Override
+		public PasswordRecord read(Kryo kryo, Input input, Class<PasswordRecord> type) {
+			return new PasswordRecord(input.readInt(true), input.readString(), readBytes(input), input.readInt(true), readBytes(input));
+		}
+	}
+
+	private static void writeRecords(Output output, List<PasswordRecord> records, PasswordRecordSerializer serializer) {
+		output.writeInt(records.size(), true);
+		for (PasswordRecord record : records)
+			serializer.write(null, output, record);
+	}
+
+	private static List<PasswordRecord> readRecords(Input input, PasswordRecordSerializer serializer) {
+		int size = input.readInt(true);
+		List<PasswordRecord> records = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			records.add(serializer.read(null, input, PasswordRecord.class));
+		return records;
+	}
+
+	public static class BatchSerializer extends Serializer<Master.BatchMessage> {
+
+		private final PasswordRecordSerializer records = new PasswordRecordSerializer();
+
+		@Override
+		public void write(Kryo kryo, Output output, Master.BatchMessage message) {
+			writeRecords(output, message.getRecords(), this.records);
+		}
+
+		@Override
+		public Master.BatchMessage read(Kryo kryo, Input input, Class<Master.BatchMessage> type) {
+			return new Master.BatchMessage(readRecords(input, this.records));
+		}
+	}
+
+	public static class ReadCompletedSerializer extends Serializer<Reader.ReadCompletedMessage> {
+
+		private final PasswordRecordSerializer records = new PasswordRecordSerializer();
+
+		@Override
+		public void write(Kryo kryo, Output output, Reader.ReadCompletedMessage message) {
+			writeRecords(output, message.getRecords(), this.records);
+			output.writeInt(message.getRequested(), true);
+		}
+
+		@Override
+		public Reader.ReadCompletedMessage read(Kryo kryo, Input input, Class<Reader.ReadCompletedMessage> type) {
+			return new Reader.ReadCompletedMessage(readRecords(input, this.records), input.readInt(true));
+		}
+	}
+
+	public static class CollectSerializer extends Serializer<Collector.CollectMessage> {
+
+		@Override
+		public void write(Kryo kryo, Output output, Collector.CollectMessage message) {
+			output.writeInt(message.getId(), true);
+			output.writeString(message.getName());
+			writeBytes(output, message.getChars());
+			output.writeInt(message.getLength(), true);
+			writeBytes(output, message.getPassword());
+			output.writeInt(message.getHints().length, true);
+			for (byte[] hint : message.getHints()) {
+				// The length is shifted by one to encode hints that were not cracked
+				output.writeInt(hint == null ? 0 : hint.length + 1, true);
+				if (hint != null)
+					output.writeBytes(hint);
+			}
+		}
+
+		@Override
+		public Collector.CollectMessage read(Kryo kryo, Input input, Class<Collector.CollectMessage> type) {
+			int id = input.readInt(true);
+			String name = input.readString();
+			byte[] chars = readBytes(input);
+			int length = input.readInt(true);
+			byte[] password = readBytes(input);
+			byte[][] hints = new byte[input.readInt(true)][];
+			for (int i = 0; i < hints.length; i++) {
+				int hintLength = input.readInt(true);
+				hints[i] = hintLength == 0 ? null : input.readBytes(hintLength - 1);
+			}
+			return new Collector.CollectMessage(id, name, chars, length, password, hints);
+		}
+	}
+}
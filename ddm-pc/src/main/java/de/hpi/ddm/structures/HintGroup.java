@@ -0,0 +1,178 @@
+package de.hpi.ddm.structures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.hpi.ddm.cracking.DigestTable;
+import de.hpi.ddm.cracking.Digests;
+import de.hpi.ddm.cracking.Permutations;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * All rows that share the same password chars. Every hint of these rows is a permutation of the chars without one of
+ * them, so each of these permutation spaces needs to be enumerated only once for the entire group: every candidate is
+ * probed against the outstanding hints of all rows at the same time.
+ */
+@Getter
+public class HintGroup {
+
+	private final byte[] chars;
+	private final List<PasswordRow> rows = new ArrayList<>();
+	private int openSearches = 0;	// The number of range searches of the permutation spaces that have not completed yet
+
+	public HintGroup(byte[] chars) {
+		this.chars = chars;
+	}
+
+	public void add(PasswordRow row) {
+		this.rows.add(row);
+	}
+
+	public int size() {
+		return this.rows.size();
+	}
+
+	/**
+	 * Announce a search of a range of one of the permutation spaces; the group is done once all of them completed.
+	 */
+	public void addSearch() {
+		this.openSearches++;
+	}
+
+	public boolean isDone() {
+		return this.openSearches == 0;
+	}
+
+	/**
+	 * Collect the distinct digests of all hints that are still outstanding in this group and can be in the space. A row
+	 * holds at most one hint per space, so once a hint of a row was found in the space, its other hints are not.
+	 * @param excludedChar the index of the char whose permutation space should be searched
+	 * @return the search, which is empty if no hint is outstanding any more
+	 */
+	public Search search(int excludedChar) {
+		int numOutstanding = 0;
+		for (PasswordRow row : this.rows)
+			numOutstanding += row.getNumHints() - row.getNumCrackedHints();
+
+		Search search = new Search(this, excludedChar, numOutstanding);
+		for (PasswordRow row : this.rows) {
+			if (row.hasAllHintsCracked() || row.isExcluded(excludedChar))
+				continue;
+			for (int hint = 0; hint < row.getNumHints(); hint++)
+				if (!row.isHintCracked(hint))
+					search.add(row, hint);
+			search.numRows++;
+		}
+		return search;
+	}
+
+	/**
+	 * Route the results of a search back to the rows of this group.
+	 * @param search the search that finished
+	 * @param targets the indexes of the targets that were found
+	 * @param clearTexts the clear texts of the found targets, packed one after another
+	 * @param released receives all rows whose password can be searched now
+	 */
+	public void complete(Search search, int[] targets, byte[] clearTexts, List<PasswordRow> released) {
+		final int clearTextLength = this.chars.length - 1;
+		for (int i = 0; i < targets.length; i++) {
+			Search.Target target = search.getTargets().get(targets[i]);
+			for (int j = 0; j < target.rows.size(); j++) {
+				PasswordRow row = target.rows.get(j);
+				row.crackHint(target.hints.getInt(j), clearTexts, i * clearTextLength, search.getExcludedChar());
+				if (row.hasAllHintsCracked() && row.release())
+					released.add(row);
+			}
+		}
+
+		this.openSearches--;
+		if (this.isDone())
+			for (PasswordRow row : this.rows)
+				if (row.release())
+					released.add(row);
+	}
+
+	/**
+	 * The search of one permutation space for the outstanding hints of a group. Equal hint digests of different rows
+	 * are searched only once and routed back to all rows that contain them.
+	 */
+	@Getter
+	public static class Search {
+
+		private final HintGroup group;
+		private final int excludedChar;
+		private final ByteArrayList digests;	// The distinct raw digests of the targets, packed one after another
+		private final List<Target> targets;
+		@Getter(AccessLevel.NONE)
+		private final DigestTable index;
+		@Getter(AccessLevel.NONE)
+		private int numRows = 0;
+
+		private Search(HintGroup group, int excludedChar, int expectedSize) {
+			this.group = group;
+			this.excludedChar = excludedChar;
+			this.digests = new ByteArrayList(expectedSize * Digests.DIGEST_LENGTH);
+			this.targets = new ArrayList<>(expectedSize);
+			this.index = new DigestTable(expectedSize);
+		}
+
+		private void add(PasswordRow row, int hint) {
+			final byte[] digests = row.getRecord().getDigests();
+			final int offset = row.getRecord().getHintOffset(hint);
+			int target = this.index.putIfAbsent(digests, offset, this.targets.size());
+			if (target == this.targets.size()) {
+				this.digests.addElements(this.digests.size(), digests, offset, Digests.DIGEST_LENGTH);
+				this.targets.add(new Target());
+			}
+			this.targets.get(target).add(row, hint);
+		}
+
+		public boolean isEmpty() {
+			return this.targets.isEmpty();
+		}
+
+		/**
+		 * @return {@code true} if other searches cracked all targets of this search that can be in its space, so that
+		 * it cannot find anything
+		 */
+		public boolean isResolved() {
+			for (Target target : this.targets) {
+				for (int j = 0; j < target.rows.size(); j++) {
+					PasswordRow row = target.rows.get(j);
+					if (!row.isHintCracked(target.hints.getInt(j)) && !row.isExcluded(this.excludedChar))
+						return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * The hints of a row exclude pairwise different chars, so a permutation space holds at most one hint per row.
+		 * @return the maximum number of targets that this search can find
+		 */
+		public int getLimit() {
+			return Math.min(this.numRows, this.targets.size());
+		}
+
+		/**
+		 * @return the symbols of the searched permutation space, i.e., the group's chars without the excluded one
+		 */
+		public byte[] getSymbols() {
+			return Permutations.without(this.group.getChars(), this.excludedChar);
+		}
+
+		private static class Target {
+
+			private final List<PasswordRow> rows = new ArrayList<>(1);
+			private final IntArrayList hints = new IntArrayList(1);
+
+			private void add(PasswordRow row, int hint) {
+				this.rows.add(row);
+				this.hints.add(hint);
+			}
+		}
+	}
+}
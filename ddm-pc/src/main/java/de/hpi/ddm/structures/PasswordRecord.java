@@ -0,0 +1,63 @@
+package de.hpi.ddm.structures;
+
+import java.io.Serializable;
+
+import de.hpi.ddm.cracking.Digests;
+import de.hpi.ddm.io.MappedCsvReader;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of the password dataset in its compact binary form: the chars are raw bytes and the password and hint digests
+ * are packed into a single array of raw digests, i.e., the password digest followed by all hint digests.
+ */
+@Data @NoArgsConstructor @AllArgsConstructor
+public class PasswordRecord implements Serializable {
+
+	private static final long serialVersionUID = -3524012496203181723L;
+
+	private int id;
+	private String name;
+	private byte[] chars;				// The symbols that may occur in the password
+	private int length;					// The length of the password
+	private byte[] digests;				// The raw password digest followed by the raw hint digests
+
+	/**
+	 * Decode the current record of the reader, whose values are ID, name, chars, length, password and any number of hints.
+	 * @param reader a reader that is positioned on a record
+	 * @return the decoded record
+	 * @throws IllegalArgumentException if the record is not a row of the password dataset
+	 */
+	public static PasswordRecord read(MappedCsvReader reader) {
+		if (reader.size() < 5)
+			throw new IllegalArgumentException("Not a password record: " + reader.size() + " values");
+
+		byte[] digests = new byte[(reader.size() - 4) * Digests.DIGEST_LENGTH];
+		for (int i = 4; i < reader.size(); i++)
+			reader.getDigest(i, digests, (i - 4) * Digests.DIGEST_LENGTH);
+
+		return new PasswordRecord(reader.getInt(0), reader.getString(1), reader.getBytes(2), reader.getInt(3), digests);
+	}
+
+	public int getNumHints() {
+		return this.digests.length / Digests.DIGEST_LENGTH - 1;
+	}
+
+	/**
+	 * @param hint the index of a hint
+	 * @return the index of the hint's raw digest in the packed digests
+	 */
+	public int getHintOffset(int hint) {
+		return (hint + 1) * Digests.DIGEST_LENGTH;
+	}
+
+	/**
+	 * @return a copy of the raw password digest
+	 */
+	public byte[] getPassword() {
+		byte[] password = new byte[Digests.DIGEST_LENGTH];
+		System.arraycopy(this.digests, 0, password, 0, Digests.DIGEST_LENGTH);
+		return password;
+	}
+}
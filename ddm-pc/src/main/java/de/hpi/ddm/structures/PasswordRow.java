@@ -0,0 +1,137 @@
+package de.hpi.ddm.structures;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import de.hpi.ddm.cracking.PermutationEnumerator;
+import de.hpi.ddm.cracking.Permutations;
+import lombok.Getter;
+
+/**
+ * The master's state of one row of the password dataset: the compact record of the input and everything that has been
+ * cracked so far.
+ */
+@Getter
+public class PasswordRow {
+
+	private final PasswordRecord record;
+
+	private final byte[][] crackedHints;	// The clear text of every hint or null if it is not cracked yet
+	private final boolean[] excludedChars;	// True for every symbol that is known not to occur in the password
+	private int numCrackedHints = 0;
+	private boolean released = false;		// True once the password search for this row has been scheduled
+
+	public PasswordRow(PasswordRecord record) {
+		this.record = record;
+		this.crackedHints = new byte[record.getNumHints()][];
+		this.excludedChars = new boolean[record.getChars().length];
+	}
+
+	public int getId() {
+		return this.record.getId();
+	}
+
+	public byte[] getChars() {
+		return this.record.getChars();
+	}
+
+	public int getLength() {
+		return this.record.getLength();
+	}
+
+	public int getNumHints() {
+		return this.crackedHints.length;
+	}
+
+	public boolean isHintCracked(int hint) {
+		return this.crackedHints[hint] != null;
+	}
+
+	/**
+	 * @param excludedChar the index of a char
+	 * @return {@code true} if a cracked hint shows that the char does not occur in the password
+	 */
+	public boolean isExcluded(int excludedChar) {
+		return this.excludedChars[excludedChar];
+	}
+
+	public boolean hasAllHintsCracked() {
+		return this.numCrackedHints == this.crackedHints.length;
+	}
+
+	/**
+	 * Record the clear text of a hint. Every hint is a permutation of all chars but one, which is therefore known not to
+	 * occur in the password.
+	 * @param hint the index of the hint
+	 * @param clearTexts the array holding the clear text of the hint
+	 * @param offset the index of the clear text in the array
+	 * @param excludedChar the index of the char that is missing in the clear text
+	 */
+	public void crackHint(int hint, byte[] clearTexts, int offset, int excludedChar) {
+		if (this.crackedHints[hint] != null)
+			return;
+
+		this.crackedHints[hint] = Arrays.copyOfRange(clearTexts, offset, offset + this.excludedChars.length - 1);
+		this.excludedChars[excludedChar] = true;
+		this.numCrackedHints++;
+	}
+
+	/**
+	 * Record the clear text of a hint whose permutation space is not known, e.g., because it was looked up in a cache.
+	 * @param hint the index of the hint
+	 * @param clearText the clear text of the hint
+	 * @return {@code false} if the clear text is not a permutation of all chars but one
+	 */
+	public boolean crackHint(int hint, byte[] clearText) {
+		byte[] chars = this.getChars();
+		for (int excludedChar = 0; excludedChar < chars.length; excludedChar++) {
+			boolean missing = true;
+			for (byte symbol : clearText)
+				missing &= symbol != chars[excludedChar];
+			if (!missing)
+				continue;
+
+			if (!PermutationEnumerator.isPermutation(Permutations.without(chars, excludedChar), clearText))
+				return false;
+			this.crackHint(hint, clearText, 0, excludedChar);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the chars that may still occur in the password, i.e., all chars that no cracked hint excludes
+	 */
+	public byte[] getPasswordChars() {
+		byte[] chars = this.record.getChars();
+		byte[] passwordChars = new byte[chars.length];
+		int numPasswordChars = 0;
+		for (int i = 0; i < chars.length; i++)
+			if (!this.excludedChars[i])
+				passwordChars[numPasswordChars++] = chars[i];
+		return Arrays.copyOf(passwordChars, numPasswordChars);
+	}
+
+	/**
+	 * Mark this row as released for the password search.
+	 * @return {@code true} if the row has not been released before
+	 */
+	public boolean release() {
+		if (this.released)
+			return false;
+		this.released = true;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder crackedHints = new StringBuilder("[");
+		for (int i = 0; i < this.crackedHints.length; i++) {
+			if (i > 0)
+				crackedHints.append(", ");
+			crackedHints.append(this.crackedHints[i] == null ? null : new String(this.crackedHints[i], StandardCharsets.UTF_8));
+		}
+		crackedHints.append("]");
+		return this.getClass().getSimpleName() + "(id=" + this.getId() + ", chars=" + new String(this.getChars(), StandardCharsets.UTF_8) + ", length=" + this.getLength() + ", crackedHints=" + crackedHints + ")";
+	}
+}
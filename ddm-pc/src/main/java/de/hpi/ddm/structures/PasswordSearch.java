@@ -0,0 +1,50 @@
+package de.hpi.ddm.structures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.hpi.ddm.cracking.Products;
+import lombok.Getter;
+
+/**
+ * The brute force search of one password digest, which is split into range tasks and shared by all rows that have this
+ * digest. The search is done as soon as one range found the password or all ranges are exhausted.
+ */
+@Getter
+public class PasswordSearch {
+
+	private final PasswordRow row;						// The row whose length defines the space
+	private final byte[] chars;							// The password chars at creation, which the ranges refer to
+	private final long size;							// The number of candidates of the space
+	private final List<PasswordRow> rows = new ArrayList<>(1);	// All rows that wait for the password
+	private int openRanges = 0;
+	private byte[] password = null;						// Null until the password is found
+
+	public PasswordSearch(PasswordRow row) {
+		this.row = row;
+		this.chars = row.getPasswordChars();
+		this.size = Products.size(this.chars.length, row.getLength());
+	}
+
+	public void addRange() {
+		this.openRanges++;
+	}
+
+	/**
+	 * Record the result of a range.
+	 * @param password the password or an empty array if it is not in the range
+	 */
+	public void complete(byte[] password) {
+		this.openRanges--;
+		if (password.length > 0)
+			this.password = password;
+	}
+
+	public boolean isFound() {
+		return this.password != null;
+	}
+
+	public boolean isDone() {
+		return this.isFound() || (this.openRanges == 0);
+	}
+}
@@ -0,0 +1,176 @@
+package de.hpi.ddm.actors;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.testkit.CallingThreadDispatcher;
+import akka.testkit.javadsl.TestKit;
+import de.hpi.ddm.cracking.Digests;
+
+public class DispatcherTest {
+
+	private static final int NUM_WORKERS = 2;
+	private static final Duration QUIET = Duration.ofMillis(200);
+
+	private static ActorSystem system;
+
+	private TestKit master;
+	private TestKit workers;
+
+	/**
+	 * Stands in for a worker and hands everything to the probe of the test, as sent by this worker.
+	 */
+	public static class Forwarder extends AbstractActor {
+
+		private final ActorRef probe;
+
+		public Forwarder(ActorRef probe) {
+			this.probe = probe;
+		}
+
+		@Override
+		public Receive createReceive() {
+			return receiveBuilder()
+					.matchAny(message -> this.probe.tell(message, this.self()))
+					.build();
+		}
+	}
+
+	/**
+	 * Stands in for a worker and answers every task right away without finding anything.
+	 */
+	public static class Echo extends AbstractActor {
+
+		@Override
+		public Receive createReceive() {
+			return receiveBuilder()
+					.match(Worker.CrackHintsMessage.class, message -> this.sender().tell(result(message.getId()), this.self()))
+					.build();
+		}
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+		system = TestSystems.cluster("dispatcher");
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		TestKit.shutdownActorSystem(system);
+	}
+
+	@Before
+	public void setUp() {
+		this.master = new TestKit(system);
+		this.workers = new TestKit(system);
+	}
+
+	private static Worker.CrackHintsMessage task(int id) {
+		return new Worker.CrackHintsMessage(id, "ABC".getBytes(StandardCharsets.UTF_8), new byte[Digests.DIGEST_LENGTH], 1, 0, 6);
+	}
+
+	private static Master.HintsCrackedMessage result(int id) {
+		return new Master.HintsCrackedMessage(id, new int[0], new byte[0], 1, 6);
+	}
+
+	private static Dispatcher.TaskBatchMessage batch(int numTasks) {
+		List<Serializable> tasks = new ArrayList<>();
+		for (int id = 0; id < numTasks; id++)
+			tasks.add(task(id));
+		return new Dispatcher.TaskBatchMessage(tasks);
+	}
+
+	// Send one more task than the workers have credits for and return the worker of every handed out task
+	private Map<Integer, ActorRef> fill(ActorRef dispatcher) {
+		dispatcher.tell(batch(NUM_WORKERS * Dispatcher.LOCAL_CREDITS + 1), this.master.getRef());
+		Map<Integer, ActorRef> assignments = new HashMap<>();
+		for (int i = 0; i < NUM_WORKERS * Dispatcher.LOCAL_CREDITS; i++)
+			assignments.put(this.workers.expectMsgClass(Worker.CrackHintsMessage.class).getId(), this.workers.getLastSender());
+		this.workers.expectNoMessage(QUIET);
+		return assignments;
+	}
+
+	private ActorRef forwardingDispatcher() {
+		return system.actorOf(Dispatcher.props(NUM_WORKERS, Props.create(Forwarder.class, this.workers.getRef())));
+	}
+
+	@Test
+	public void testTasksAreHandedOutByCredits() {
+		ActorRef dispatcher = this.forwardingDispatcher();
+		Map<Integer, ActorRef> assignments = this.fill(dispatcher);
+		for (ActorRef worker : assignments.values())
+			assertEquals(Dispatcher.LOCAL_CREDITS, assignments.values().stream().filter(worker::equals).count());
+
+		// The result frees a credit of its worker, which receives the queued task
+		ActorRef worker = assignments.get(1);
+		dispatcher.tell(result(1), worker);
+		assertEquals(NUM_WORKERS * Dispatcher.LOCAL_CREDITS, this.workers.expectMsgClass(Worker.CrackHintsMessage.class).getId());
+		assertEquals(worker, this.workers.getLastSender());
+		assertEquals(1, this.master.expectMsgClass(Master.HintsCrackedMessage.class).getId());
+	}
+
+	@Test
+	public void testCancelQueuedTask() {
+		ActorRef dispatcher = this.forwardingDispatcher();
+		Map<Integer, ActorRef> assignments = this.fill(dispatcher);
+
+		// The queued task never reaches a worker
+		dispatcher.tell(new Worker.CancelTaskMessage(NUM_WORKERS * Dispatcher.LOCAL_CREDITS), this.master.getRef());
+		this.workers.expectNoMessage(QUIET);
+
+		dispatcher.tell(result(0), assignments.get(0));
+		assertEquals(0, this.master.expectMsgClass(Master.HintsCrackedMessage.class).getId());
+		this.workers.expectNoMessage(QUIET);
+	}
+
+	@Test
+	public void testCancelAssignedTask() {
+		ActorRef dispatcher = this.forwardingDispatcher();
+		Map<Integer, ActorRef> assignments = this.fill(dispatcher);
+
+		// The worker of the task stops it and gets the queued task for the freed credit
+		dispatcher.tell(new Worker.CancelTaskMessage(0), this.master.getRef());
+		assertEquals(0, this.workers.expectMsgClass(Worker.CancelTaskMessage.class).getId());
+		assertEquals(assignments.get(0), this.workers.getLastSender());
+		assertEquals(NUM_WORKERS * Dispatcher.LOCAL_CREDITS, this.workers.expectMsgClass(Worker.CrackHintsMessage.class).getId());
+		assertEquals(assignments.get(0), this.workers.getLastSender());
+
+		// A late result of the cancelled task is dropped and frees no further credit
+		dispatcher.tell(result(0), assignments.get(0));
+		this.master.expectNoMessage(QUIET);
+		dispatcher.tell(task(NUM_WORKERS * Dispatcher.LOCAL_CREDITS + 1), this.master.getRef());
+		this.workers.expectNoMessage(QUIET);
+	}
+
+	@Test
+	public void testResultsTravelInBatches() {
+		// The workers answer while the dispatcher still hands out the batch, so that all results wait for one flush
+		ActorRef dispatcher = system.actorOf(Dispatcher.props(NUM_WORKERS, Props.create(Echo.class).withDispatcher(CallingThreadDispatcher.Id())));
+		dispatcher.tell(batch(3), this.master.getRef());
+		List<Serializable> results = this.master.expectMsgClass(Master.ResultBatchMessage.class).getResults();
+		assertEquals(3, results.size());
+		for (int id = 0; id < results.size(); id++)
+			assertEquals(id, ((Master.HintsCrackedMessage) results.get(id)).getId());
+
+		// A single result travels on its own
+		dispatcher.tell(task(3), this.master.getRef());
+		assertEquals(3, this.master.expectMsgClass(Master.HintsCrackedMessage.class).getId());
+		this.master.expectNoMessage(QUIET);
+	}
+}
@@ -0,0 +1,77 @@
+package de.hpi.ddm.actors;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.javadsl.TestKit;
+import de.hpi.ddm.cracking.Digests;
+import de.hpi.ddm.structures.PasswordRecord;
+
+public class MasterTest {
+
+	private static final Duration QUIET = Duration.ofMillis(200);
+
+	private static ActorSystem system;
+
+	@BeforeClass
+	public static void setUpClass() {
+		system = TestSystems.cluster("master");
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		TestKit.shutdownActorSystem(system);
+	}
+
+	private static int id(Serializable task) {
+		return ((Worker.CrackHintsMessage) task).getId();
+	}
+
+	// A result that took a second, which keeps the round-trip estimate and thus the credit window of the dispatcher
+	private static Master.HintsCrackedMessage result(int id) {
+		return new Master.HintsCrackedMessage(id, new int[0], new byte[0], 1_000_000_000L, 1_000_000);
+	}
+
+	@Test
+	public void testTasksForDispatcherTravelInBatches() {
+		TestKit reader = new TestKit(system);
+		TestKit collector = new TestKit(system);
+		TestKit dispatcher = new TestKit(system);
+		ActorRef master = system.actorOf(Master.props(reader.getRef(), collector.getRef()));
+
+		// Nothing to do yet, so the master asks for rows
+		master.tell(new Master.RegistrationMessage(4, 0, 4), dispatcher.getRef());
+		reader.expectMsgClass(Reader.ReadMessage.class);
+		PasswordRecord record = new PasswordRecord(0, "Name", "ABCDEFGHIJK".getBytes(StandardCharsets.UTF_8), 10, new byte[10 * Digests.DIGEST_LENGTH]);
+		master.tell(new Master.BatchMessage(Collections.singletonList(record)), reader.getRef());
+		reader.expectMsgClass(Reader.ReadMessage.class);
+
+		// The last batch seals the group; the dispatcher's whole window of two credits per worker arrives at once
+		master.tell(new Master.BatchMessage(Collections.emptyList()), reader.getRef());
+		List<Serializable> tasks = dispatcher.expectMsgClass(Dispatcher.TaskBatchMessage.class).getTasks();
+		assertEquals(8, tasks.size());
+		dispatcher.expectNoMessage(QUIET);
+
+		// The tasks that refill the credits of a batch of results travel back in one batch as well
+		master.tell(new Master.ResultBatchMessage(Arrays.asList(result(id(tasks.get(1))), result(id(tasks.get(2))))), dispatcher.getRef());
+		assertEquals(2, dispatcher.expectMsgClass(Dispatcher.TaskBatchMessage.class).getTasks().size());
+		dispatcher.expectNoMessage(QUIET);
+
+		// A single task is sent on its own
+		master.tell(result(id(tasks.get(3))), dispatcher.getRef());
+		dispatcher.expectMsgClass(Worker.CrackHintsMessage.class);
+		dispatcher.expectNoMessage(QUIET);
+	}
+}
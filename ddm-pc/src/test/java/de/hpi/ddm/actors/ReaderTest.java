@@ -0,0 +1,159 @@
+package de.hpi.ddm.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.javadsl.TestKit;
+import de.hpi.ddm.configuration.Configuration;
+import de.hpi.ddm.configuration.ConfigurationSingleton;
+import de.hpi.ddm.configuration.DatasetDescriptor;
+import de.hpi.ddm.configuration.DatasetDescriptorSingleton;
+import de.hpi.ddm.structures.PasswordRecord;
+
+public class ReaderTest {
+
+	private static final Duration QUIET = Duration.ofMillis(200);
+	private static final String DIGEST = "c4712866799881ac48ca55bf78a9540b1883ae033b52109169eb784969be09d5";
+
+	private static ActorSystem system;
+
+	private Path directory;
+
+	@BeforeClass
+	public static void setUpClass() {
+		system = TestSystems.cluster("reader");
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		TestKit.shutdownActorSystem(system);
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory(this.getClass().getSimpleName());
+
+		// Batches of two records with one batch read ahead, so that the requests below outrun the reads
+		Configuration configuration = new Configuration();
+		configuration.setBufferSize(2);
+		configuration.setReadAhead(1);
+		ConfigurationSingleton.set(configuration);
+
+		DatasetDescriptor descriptor = new DatasetDescriptor();
+		descriptor.setDatasetPath(this.directory.toString() + File.separator);
+		DatasetDescriptorSingleton.set(descriptor);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		ConfigurationSingleton.set(new Configuration());
+		DatasetDescriptorSingleton.set(new DatasetDescriptor());
+
+		Files.list(this.directory).forEach(file -> file.toFile().delete());
+		Files.delete(this.directory);
+	}
+
+	// A dataset with a header and the given number of rows, whose ids count from 1
+	private void write(int rows) throws IOException {
+		List<String> lines = new ArrayList<>(rows + 1);
+		lines.add("ID;Name;PasswordChars;PasswordLength;Password;Hint1");
+		for (int id = 1; id <= rows; id++)
+			lines.add(id + ";Name" + id + ";ABCDEFGHIJK;10;" + DIGEST + ";" + DIGEST);
+		Files.write(this.directory.resolve("passwords.csv"), lines, StandardCharsets.UTF_8);
+	}
+
+	private static List<PasswordRecord> read(TestKit requester) {
+		return requester.expectMsgClass(Master.BatchMessage.class).getRecords();
+	}
+
+	private static List<Integer> ids(List<PasswordRecord> records) {
+		List<Integer> ids = new ArrayList<>(records.size());
+		for (PasswordRecord record : records)
+			ids.add(record.getId());
+		return ids;
+	}
+
+	@Test
+	public void testBatchesUntilExhausted() throws IOException {
+		this.write(5);
+		TestKit master = new TestKit(system);
+		ActorRef reader = system.actorOf(Reader.props());
+
+		List<PasswordRecord> records = new ArrayList<>();
+		List<PasswordRecord> batch;
+		do {
+			reader.tell(new Reader.ReadMessage(), master.getRef());
+			batch = read(master);
+			records.addAll(batch);
+		} while (!batch.isEmpty());
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5), ids(records));
+
+		// Every further request is answered with the end of the input
+		reader.tell(new Reader.ReadMessage(), master.getRef());
+		assertTrue(read(master).isEmpty());
+		system.stop(reader);
+	}
+
+	@Test
+	public void testWaitingRequestersAreServedInOrder() throws IOException {
+		this.write(5);
+		TestKit first = new TestKit(system);
+		TestKit second = new TestKit(system);
+		TestKit third = new TestKit(system);
+		ActorRef reader = system.actorOf(Reader.props());
+
+		// At most one batch is buffered, so the later requests wait for reads that complete after they arrived
+		reader.tell(new Reader.ReadMessage(), first.getRef());
+		reader.tell(new Reader.ReadMessage(), second.getRef());
+		reader.tell(new Reader.ReadMessage(), third.getRef());
+
+		// Every request is answered exactly once, and the batches follow the order of the requests
+		List<PasswordRecord> records = new ArrayList<>(read(first));
+		records.addAll(read(second));
+		records.addAll(read(third));
+		first.expectNoMessage(QUIET);
+		second.expectNoMessage(QUIET);
+		third.expectNoMessage(QUIET);
+
+		List<PasswordRecord> batch;
+		do {
+			reader.tell(new Reader.ReadMessage(), first.getRef());
+			batch = read(first);
+			records.addAll(batch);
+		} while (!batch.isEmpty());
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5), ids(records));
+		system.stop(reader);
+	}
+
+	@Test
+	public void testWaitingRequesterIsServedAtEndOfInput() throws IOException {
+		this.write(0);
+		TestKit first = new TestKit(system);
+		TestKit second = new TestKit(system);
+		ActorRef reader = system.actorOf(Reader.props());
+
+		reader.tell(new Reader.ReadMessage(), first.getRef());
+		reader.tell(new Reader.ReadMessage(), second.getRef());
+		assertTrue(read(first).isEmpty());
+		assertTrue(read(second).isEmpty());
+		system.stop(reader);
+	}
+}
@@ -0,0 +1,21 @@
+package de.hpi.ddm.actors;
+
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorSystem;
+
+/**
+ * Actor systems for the tests of the actors, which need the cluster extension but must not join any cluster.
+ */
+class TestSystems {
+
+	static ActorSystem cluster(String name) {
+		return ActorSystem.create(name, ConfigFactory.parseString(
+				"akka.remote.artery.canonical.hostname = \"127.0.0.1\"\n" +
+				"akka.remote.artery.canonical.port = 0\n" +
+				"akka.cluster.jmx.multi-mbeans-in-same-jvm = on\n" +
+				"akka.extensions = []\n" +
+				"akka.loglevel = \"WARNING\"")
+			.withFallback(ConfigFactory.load("application")));
+	}
+}
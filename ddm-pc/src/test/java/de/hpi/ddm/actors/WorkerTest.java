@@ -0,0 +1,99 @@
+package de.hpi.ddm.actors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.javadsl.TestKit;
+import de.hpi.ddm.cracking.DigestEngine;
+import de.hpi.ddm.cracking.Digests;
+import de.hpi.ddm.cracking.Permutations;
+import de.hpi.ddm.io.PermutationTable;
+import de.hpi.ddm.io.PermutationTablesSingleton;
+
+public class WorkerTest {
+
+	private static final byte[] CHARS = "ABCDEFG".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SYMBOLS = "BCDEFG".getBytes(StandardCharsets.UTF_8);
+
+	private static ActorSystem system;
+
+	private final DigestEngine engine = new DigestEngine();
+	private Path directory;
+	private PermutationTable table;
+
+	@BeforeClass
+	public static void setUpClass() {
+		system = TestSystems.cluster("worker");
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		TestKit.shutdownActorSystem(system);
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory(this.getClass().getSimpleName());
+		this.table = new PermutationTable(PermutationTable.build(CHARS, this.directory, 2));
+		PermutationTablesSingleton.set(Collections.singletonList(this.table));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		PermutationTablesSingleton.set(Collections.emptyList());
+		this.table.close();
+		Files.list(this.directory).forEach(file -> file.toFile().delete());
+		Files.delete(this.directory);
+	}
+
+	private byte[] digests(String... clearTexts) {
+		byte[] digests = new byte[clearTexts.length * Digests.DIGEST_LENGTH];
+		for (int i = 0; i < clearTexts.length; i++) {
+			byte[] clearText = clearTexts[i].getBytes(StandardCharsets.UTF_8);
+			System.arraycopy(this.engine.digest(clearText, clearText.length), 0, digests, i * Digests.DIGEST_LENGTH, Digests.DIGEST_LENGTH);
+		}
+		return digests;
+	}
+
+	@Test
+	public void testTableHitsAreReportedByTheirRangeOnly() {
+		TestKit master = new TestKit(system);
+		ActorRef worker = system.actorOf(Worker.props(false));
+		byte[] hints = this.digests("BCDEFG", "GFEDCB");
+		long size = Permutations.factorial(SYMBOLS.length);
+
+		// The first hint has the lowest rank, the second one the highest; the middle range holds neither
+		worker.tell(new Worker.CrackHintsMessage(1, SYMBOLS, hints, 2, 0, size / 3), master.getRef());
+		worker.tell(new Worker.CrackHintsMessage(2, SYMBOLS, hints, 2, size / 3, 2 * size / 3), master.getRef());
+		worker.tell(new Worker.CrackHintsMessage(3, SYMBOLS, hints, 2, 2 * size / 3, size), master.getRef());
+
+		Master.HintsCrackedMessage first = master.expectMsgClass(Master.HintsCrackedMessage.class);
+		assertEquals(1, first.getId());
+		assertArrayEquals(new int[] { 0 }, first.getHints());
+		assertArrayEquals("BCDEFG".getBytes(StandardCharsets.UTF_8), first.getClearTexts());
+
+		Master.HintsCrackedMessage second = master.expectMsgClass(Master.HintsCrackedMessage.class);
+		assertEquals(2, second.getId());
+		assertEquals(0, second.getHints().length);
+
+		Master.HintsCrackedMessage third = master.expectMsgClass(Master.HintsCrackedMessage.class);
+		assertEquals(3, third.getId());
+		assertArrayEquals(new int[] { 1 }, third.getHints());
+		assertArrayEquals("GFEDCB".getBytes(StandardCharsets.UTF_8), third.getClearTexts());
+		system.stop(worker);
+	}
+}
@@ -0,0 +1,58 @@
+package de.hpi.ddm.cracking;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class DigestEngineTest {
+
+	// The hex digest of a line as the baseline worker computed it
+	private static String hash(String line) throws Exception {
+		byte[] hashedBytes = MessageDigest.getInstance("SHA-256").digest(line.getBytes(StandardCharsets.UTF_8));
+		StringBuilder stringBuffer = new StringBuilder();
+		for (byte hashedByte : hashedBytes)
+			stringBuffer.append(Integer.toString((hashedByte & 0xff) + 0x100, 16).substring(1));
+		return stringBuffer.toString();
+	}
+
+	@Test
+	public void testDigestMatchesBaselineHash() throws Exception {
+		DigestEngine engine = new DigestEngine();
+		// Lengths up to and beyond a single SHA-256 block, hashed in an order that changes the length back and forth
+		for (int length : new int[] { 0, 1, 10, 55, 56, 64, 120, 10, 0 }) {
+			char[] chars = new char[length];
+			for (int i = 0; i < length; i++)
+				chars[i] = (char) ('A' + (i * 7) % 26);
+			String line = new String(chars);
+			byte[] candidate = Arrays.copyOf(line.getBytes(StandardCharsets.UTF_8), length + 3);
+			assertEquals(hash(line), Digests.toHex(engine.digest(candidate, length)));
+			assertArrayEquals(Digests.fromHex(hash(line)), engine.digest(candidate, length));
+		}
+	}
+
+	@Test
+	public void testDigestReusesSharedPrefix() throws Exception {
+		DigestEngine engine = new DigestEngine();
+		ProductEnumerator candidates = new ProductEnumerator("ABC".getBytes(StandardCharsets.UTF_8), 6);
+		while (candidates.next()) {
+			String line = new String(candidates.candidate(), 0, candidates.length(), StandardCharsets.UTF_8);
+			assertEquals(hash(line), Digests.toHex(engine.digest(candidates.candidate(), candidates.length(), candidates.firstChanged())));
+		}
+	}
+
+	@Test
+	public void testMatches() throws Exception {
+		DigestEngine engine = new DigestEngine();
+		byte[] target = Digests.fromHex(hash("ABCDEFGHIJ"));
+		assertTrue(engine.matches("ABCDEFGHIJ".getBytes(StandardCharsets.UTF_8), 10, target));
+		assertTrue(engine.matches("ABCDEFGHIJK".getBytes(StandardCharsets.UTF_8), 10, target));
+		assertFalse(engine.matches("ABCDEFGHIK".getBytes(StandardCharsets.UTF_8), 10, target));
+	}
+}
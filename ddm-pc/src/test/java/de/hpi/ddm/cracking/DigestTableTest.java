@@ -0,0 +1,78 @@
+package de.hpi.ddm.cracking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DigestTableTest {
+
+	// A digest whose first word puts it into the given slot of a table with eight slots; the last byte tells apart
+	// digests of the same slot
+	private static byte[] digest(int slot, int last) {
+		byte[] digest = new byte[Digests.DIGEST_LENGTH];
+		for (int b = 0; b < 256; b++) {
+			digest[0] = (byte) b;
+			digest[7] = (byte) b;
+			if ((Digests.word(digest, 0) & 7) == slot)
+				break;
+		}
+		digest[Digests.DIGEST_LENGTH - 1] = (byte) last;
+		return digest;
+	}
+
+	@Test
+	public void testPutIfAbsentKeepsFirstValue() {
+		DigestTable table = new DigestTable(4);
+		assertTrue(table.isEmpty());
+		assertEquals(1, table.putIfAbsent(digest(3, 0), 1));
+		assertEquals(1, table.putIfAbsent(digest(3, 0), 2));
+		assertEquals(1, table.size());
+		assertEquals(1, table.get(digest(3, 0)));
+		assertEquals(-1, table.get(digest(3, 1)));
+	}
+
+	@Test
+	public void testCollisionsAreProbedLinearly() {
+		// Four digests share the last slot of eight, so their probes wrap around to the first ones
+		DigestTable table = new DigestTable(4);
+		for (int i = 0; i < 4; i++)
+			assertEquals(i, table.putIfAbsent(digest(7, i), i));
+		assertEquals(4, table.putIfAbsent(digest(1, 0), 4));
+		assertEquals(5, table.size());
+		for (int i = 0; i < 4; i++) {
+			byte[] digest = digest(7, i);
+			assertEquals(i, table.get(digest));
+			assertEquals(i, table.get(Digests.word(digest, 0), Digests.word(digest, 1), Digests.word(digest, 2), Digests.word(digest, 3)));
+			assertEquals(i, table.putIfAbsent(digest, 10 + i));
+		}
+		assertEquals(4, table.get(digest(1, 0)));
+		assertEquals(-1, table.get(digest(7, 4)));
+		assertEquals(-1, table.get(digest(2, 0)));
+	}
+
+	@Test
+	public void testPackedDigests() {
+		DigestTable table = new DigestTable(2);
+		byte[] digests = new byte[3 * Digests.DIGEST_LENGTH];
+		System.arraycopy(digest(5, 1), 0, digests, Digests.DIGEST_LENGTH, Digests.DIGEST_LENGTH);
+		System.arraycopy(digest(5, 2), 0, digests, 2 * Digests.DIGEST_LENGTH, Digests.DIGEST_LENGTH);
+		assertEquals(1, table.putIfAbsent(digests, Digests.DIGEST_LENGTH, 1));
+		assertEquals(2, table.putIfAbsent(digests, 2 * Digests.DIGEST_LENGTH, 2));
+		assertEquals(1, table.get(digest(5, 1)));
+		assertEquals(2, table.get(digest(5, 2)));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFullTable() {
+		// Eight slots, one of which always stays free to terminate the probes
+		DigestTable table = new DigestTable(4);
+		for (int i = 0; i < 8; i++)
+			table.putIfAbsent(digest(0, i), i);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeValue() {
+		new DigestTable(1).putIfAbsent(digest(0, 0), -1);
+	}
+}
@@ -0,0 +1,87 @@
+package de.hpi.ddm.cracking;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+public class EnumeratorTest {
+
+	private static final String SYMBOLS = "ABCDEF";
+
+	// The recursive generators that the enumerators replaced
+	private static void heapPermutation(char[] a, int size, List<String> permutations) {
+		if (size == 1) {
+			permutations.add(new String(a));
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			heapPermutation(a, size - 1, permutations);
+			int swap = (size % 2 == 1) ? 0 : i;
+			char temp = a[swap];
+			a[swap] = a[size - 1];
+			a[size - 1] = temp;
+		}
+	}
+
+	private static void products(String symbols, String prefix, int k, List<String> products) {
+		if (k == 0) {
+			products.add(prefix);
+			return;
+		}
+		for (int i = 0; i < symbols.length(); ++i)
+			products(symbols, prefix + symbols.charAt(i), k - 1, products);
+	}
+
+	// Walk the enumerator and check that the bytes before firstChanged() are the ones of the previous candidate and the
+	// byte at firstChanged() is not
+	private static List<String> enumerate(CandidateEnumerator candidates) {
+		List<String> list = new ArrayList<>();
+		byte[] previous = null;
+		while (candidates.next()) {
+			byte[] candidate = Arrays.copyOf(candidates.candidate(), candidates.length());
+			int firstChanged = candidates.firstChanged();
+			if (previous == null) {
+				assertEquals(0, firstChanged);
+			} else {
+				assertArrayEquals(Arrays.copyOf(previous, firstChanged), Arrays.copyOf(candidate, firstChanged));
+				assertTrue(previous[firstChanged] != candidate[firstChanged]);
+			}
+			list.add(new String(candidate, StandardCharsets.UTF_8));
+			previous = candidate;
+		}
+		return list;
+	}
+
+	@Test
+	public void testPermutationsMatchRecursiveHeapsAlgorithm() {
+		for (int n = 1; n <= SYMBOLS.length(); n++) {
+			List<String> expected = new ArrayList<>();
+			heapPermutation(SYMBOLS.substring(0, n).toCharArray(), n, expected);
+			List<String> permutations = enumerate(new PermutationEnumerator(SYMBOLS.substring(0, n).getBytes(StandardCharsets.UTF_8)));
+			assertEquals(Permutations.factorial(n), permutations.size());
+			// The order differs from the recursive variant, but every permutation occurs exactly once
+			assertEquals(permutations.size(), new HashSet<>(permutations).size());
+			assertEquals(new HashSet<>(expected), new HashSet<>(permutations));
+		}
+	}
+
+	@Test
+	public void testProductsMatchRecursiveGenerator() {
+		for (int length = 1; length <= 5; length++) {
+			List<String> expected = new ArrayList<>();
+			products("ABC", "", length, expected);
+			assertEquals(expected, enumerate(new ProductEnumerator("ABC".getBytes(StandardCharsets.UTF_8), length)));
+		}
+		List<String> expected = new ArrayList<>();
+		products("A", "", 4, expected);
+		assertEquals(expected, enumerate(new ProductEnumerator("A".getBytes(StandardCharsets.UTF_8), 4)));
+	}
+}
@@ -0,0 +1,136 @@
+package de.hpi.ddm.cracking;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class ForkJoinSearchTest {
+
+	private static final byte[] SYMBOLS = "ABCDEF".getBytes(StandardCharsets.UTF_8);
+
+	private static List<String> enumerate(CandidateEnumerator candidates) {
+		List<String> list = new ArrayList<>();
+		while (candidates.next())
+			list.add(new String(candidates.candidate(), 0, candidates.length(), StandardCharsets.UTF_8));
+		return list;
+	}
+
+	private static List<String> enumerate(List<CandidateEnumerator> parts) {
+		List<String> list = new ArrayList<>();
+		for (CandidateEnumerator part : parts)
+			list.addAll(enumerate(part));
+		return list;
+	}
+
+	@Test
+	public void testPartsCoverTheSpaceInOrder() {
+		assertEquals(enumerate(new LexicographicPermutationEnumerator(SYMBOLS)), enumerate(Ranges.permutations(SYMBOLS, 0, 720, 7)));
+		assertEquals(enumerate(new ProductEnumerator(SYMBOLS, 4)), enumerate(Ranges.products(SYMBOLS, 4, 0, 1296, 5)));
+		assertEquals(enumerate(new ProductEnumerator(SYMBOLS, 1)), enumerate(Ranges.products(SYMBOLS, 1, 0, 6, 16)));
+		assertEquals(1, enumerate(Ranges.permutations(new byte[0], 0, 1, 4)).size());
+	}
+
+	@Test
+	public void testPartsReportTheirChanges() {
+		// The single-block SHA-256 reuses everything before the first changed byte, so wrong reports yield wrong digests
+		DigestEngine engine = new DigestEngine(HashKernels.SCALAR.create());
+		DigestEngine reference = new DigestEngine(HashKernels.MESSAGE_DIGEST.create());
+		for (CandidateEnumerator part : Ranges.products(SYMBOLS, 9, 0, 6 * 6 * 6 * 6 * 6 * 6 * 6 * 6 * 6, 7)) {
+			for (int i = 0; (i < 5000) && part.next(); i++) {
+				byte[] expected = reference.digest(part.candidate(), part.length()).clone();
+				assertArrayEquals(expected, engine.digest(part.candidate(), part.length(), part.firstChanged()));
+			}
+		}
+	}
+
+	@Test
+	public void testSearchFindsEveryCandidate() throws Exception {
+		DigestEngine reference = new DigestEngine(HashKernels.MESSAGE_DIGEST.create());
+		DigestTable targets = new DigestTable(1000);
+		List<String> permutations = enumerate(new LexicographicPermutationEnumerator(SYMBOLS));
+		for (int i = 0; i < permutations.size(); i += 3)
+			targets.putIfAbsent(reference.digest(permutations.get(i).getBytes(StandardCharsets.UTF_8), SYMBOLS.length).clone(), i);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			List<Integer> found = new ArrayList<>();
+			long hashed = pool.submit(() -> ForkJoinSearch.search(Ranges.permutations(SYMBOLS, 0, 720, 16), targets, (value, candidate, length) -> {
+				assertEquals(permutations.get(value), new String(candidate, 0, length, StandardCharsets.UTF_8));
+				found.add(value);
+				return true;
+			}, new CancellationToken())).get();
+			assertEquals(permutations.size(), hashed);
+			assertEquals(targets.size(), found.size());
+
+			// Once the listener stops the search, it is not called again
+			List<Integer> first = new ArrayList<>();
+			pool.submit(() -> ForkJoinSearch.search(Ranges.permutations(SYMBOLS, 0, 720, 16), targets, (value, candidate, length) -> {
+				first.add(value);
+				return false;
+			}, new CancellationToken())).get();
+			assertEquals(1, first.size());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSearchRestoresCandidate() throws Exception {
+		byte[] password = "FACADE".getBytes(StandardCharsets.UTF_8);
+		DigestTable targets = new DigestTable(1);
+		targets.putIfAbsent(new DigestEngine().digest(password, password.length).clone(), 0);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			List<String> found = new ArrayList<>();
+			pool.submit(() -> ForkJoinSearch.search(Ranges.products(SYMBOLS, 6, 0, 46656, 16), targets, (value, candidate, length) -> {
+				found.add(new String(candidate, 0, length, StandardCharsets.UTF_8));
+				return false;
+			}, new CancellationToken())).get();
+			assertEquals(Arrays.asList("FACADE"), found);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testCancelledSearchDoesNotStart() throws Exception {
+		DigestTable targets = new DigestTable(1);
+		targets.putIfAbsent(new byte[Digests.DIGEST_LENGTH], 0);
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			List<CandidateEnumerator> parts = Ranges.products(SYMBOLS, 9, 0, 6 * 6 * 6 * 6 * 6 * 6 * 6 * 6 * 6, 4);
+			long hashed = pool.submit(() -> ForkJoinSearch.search(parts, targets, (value, candidate, length) -> true, token)).get();
+			assertEquals(0, hashed);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSlicesResumeTheSearch() {
+		DigestEngine engine = new DigestEngine();
+		DigestTable targets = new DigestTable(1);
+		byte[] password = "FEDCBA".getBytes(StandardCharsets.UTF_8);
+		targets.putIfAbsent(engine.digest(password, password.length).clone(), 0);
+
+		ProductEnumerator passwords = new ProductEnumerator(SYMBOLS, 6);
+		List<String> found = new ArrayList<>();
+		long hashed = 0;
+		long slice;
+		do {
+			slice = engine.search(passwords, targets, (value, candidate, length) -> found.add(new String(candidate, 0, length, StandardCharsets.UTF_8)), 4096);
+			hashed += slice;
+		} while (slice == 4096);
+		assertEquals(6 * 6 * 6 * 6 * 6 * 6, hashed);
+		assertEquals(Arrays.asList("FEDCBA"), found);
+	}
+}
@@ -0,0 +1,77 @@
+package de.hpi.ddm.cracking;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class HashKernelTest {
+
+	private void assertSearch(HashKernels kernel, CandidateEnumerator space, CandidateEnumerator candidates) {
+		DigestEngine reference = new DigestEngine(HashKernels.MESSAGE_DIGEST.create());
+		DigestTable targets = new DigestTable(1 << 12);
+		while (space.next())
+			targets.putIfAbsent(reference.digest(space.candidate(), space.length()).clone(), targets.size());
+
+		DigestEngine engine = new DigestEngine(kernel.create());
+		boolean[] found = new boolean[targets.size()];
+		long hashed = engine.search(candidates, targets, (value, candidate, length) -> {
+			assertEquals(value, targets.get(reference.digest(candidate, length).clone()));
+			found[value] = true;
+			return true;
+		});
+		assertEquals(targets.size(), hashed);
+		for (boolean candidate : found)
+			assertTrue(candidate);
+	}
+
+	@Test
+	public void testAllKernelsFindEveryCandidate() {
+		byte[] symbols = "ABCDEF".getBytes(StandardCharsets.UTF_8);
+		for (HashKernels kernel : HashKernels.values()) {
+			if (kernel == HashKernels.AUTO)
+				continue;
+			this.assertSearch(kernel, new LexicographicPermutationEnumerator(symbols), new LexicographicPermutationEnumerator(symbols));
+			this.assertSearch(kernel, new PermutationEnumerator(symbols), new PermutationEnumerator(symbols));
+			this.assertSearch(kernel, new ProductEnumerator("ABC".getBytes(StandardCharsets.UTF_8), 7), new ProductEnumerator("ABC".getBytes(StandardCharsets.UTF_8), 7));
+		}
+	}
+
+	@Test
+	public void testAllKernelsRestoreFoundCandidate() {
+		byte[] password = "CBAACBC".getBytes(StandardCharsets.UTF_8);
+		byte[] target = new DigestEngine().digest(password, password.length).clone();
+		for (HashKernels kernel : HashKernels.values()) {
+			if (kernel == HashKernels.AUTO)
+				continue;
+			DigestTable targets = new DigestTable(1);
+			targets.putIfAbsent(target, 0);
+			List<byte[]> found = new ArrayList<>();
+			new DigestEngine(kernel.create()).search(new ProductEnumerator("ABC".getBytes(StandardCharsets.UTF_8), 7), targets, (value, candidate, length) -> {
+				assertEquals(0, value);
+				found.add(Arrays.copyOf(candidate, length));
+				return false;
+			});
+			assertEquals(1, found.size());
+			assertArrayEquals(password, found.get(0));
+		}
+	}
+
+	@Test
+	public void testCalibrationChoosesCorrectKernel() {
+		List<HashKernelCalibration.Measurement> measurements = HashKernelCalibration.measure(20);
+		assertEquals(HashKernels.values().length - 1, measurements.size());
+		for (HashKernelCalibration.Measurement measurement : measurements)
+			assertTrue(measurement.isCorrect() && (measurement.getHashesPerSecond() > 0));
+
+		measurements.get(0).setHashesPerSecond(Double.MAX_VALUE);
+		measurements.get(0).setCorrect(false);
+		assertTrue(HashKernelCalibration.fastest(measurements) != measurements.get(0).getKernel());
+	}
+}
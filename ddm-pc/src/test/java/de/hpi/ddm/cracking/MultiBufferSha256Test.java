@@ -0,0 +1,104 @@
+package de.hpi.ddm.cracking;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MultiBufferSha256Test {
+
+	@Test
+	public void testMatchesMessageDigest() throws Exception {
+		MessageDigest reference = MessageDigest.getInstance(DigestEngine.ALGORITHM);
+		MultiBufferSha256 sha = new MultiBufferSha256();
+		Random random = new Random(42);
+		byte[][] messages = new byte[MultiBufferSha256.LANES][];
+		byte[] digest = new byte[Digests.DIGEST_LENGTH];
+
+		// Every length of a single block, with different lengths in the lanes of one batch
+		for (int round = 0; round <= MultiBufferSha256.MAX_LENGTH; round++) {
+			for (int lane = 0; lane < MultiBufferSha256.LANES; lane++) {
+				messages[lane] = new byte[(round + 7 * lane) % (MultiBufferSha256.MAX_LENGTH + 1)];
+				random.nextBytes(messages[lane]);
+				sha.load(lane, messages[lane], 0, messages[lane].length);
+			}
+			sha.compress();
+			for (int lane = 0; lane < MultiBufferSha256.LANES; lane++) {
+				sha.digest(lane, digest, 0);
+				assertArrayEquals(reference.digest(messages[lane]), digest);
+			}
+		}
+	}
+
+	@Test
+	public void testSearchFindsAllHints() {
+		byte[] symbols = "ABCDEFG".getBytes(StandardCharsets.UTF_8);
+		DigestEngine engine = new DigestEngine();
+		String[] hints = { "ABCDEFG", "GFEDCBA", "CAGFDEB", "BACDEFG" };
+		DigestTable targets = new DigestTable(hints.length);
+		for (int i = 0; i < hints.length; i++) {
+			byte[] hint = hints[i].getBytes(StandardCharsets.UTF_8);
+			targets.putIfAbsent(engine.digest(hint, hint.length).clone(), i);
+		}
+
+		List<String> found = new ArrayList<>(Arrays.asList(new String[hints.length]));
+		long hashed = engine.search(new PermutationEnumerator(symbols), targets, (value, candidate, length) -> {
+			found.set(value, new String(candidate, 0, length, StandardCharsets.UTF_8));
+			return true;
+		});
+		assertEquals(5040, hashed);
+		assertEquals(Arrays.asList(hints), found);
+	}
+
+	@Test
+	public void testSearchFindsEveryCandidate() {
+		byte[] symbols = "ABCDE".getBytes(StandardCharsets.UTF_8);
+		DigestEngine engine = new DigestEngine();
+		DigestTable targets = new DigestTable(120);
+		PermutationEnumerator permutations = new PermutationEnumerator(symbols);
+		while (permutations.next())
+			targets.putIfAbsent(engine.digest(permutations.candidate(), permutations.length()).clone(), targets.size());
+
+		// Every match must leave the enumeration intact
+		boolean[] found = new boolean[targets.size()];
+		engine.search(new PermutationEnumerator(symbols), targets, (value, candidate, length) -> {
+			assertEquals(value, targets.get(engine.digest(candidate, length).clone()));
+			found[value] = true;
+			return true;
+		});
+		for (boolean hint : found)
+			assertTrue(hint);
+	}
+
+	@Test
+	public void testSearchRestoresCandidate() {
+		DigestEngine engine = new DigestEngine();
+		byte[] password = "CBAAC".getBytes(StandardCharsets.UTF_8);
+		byte[] target = engine.digest(password, password.length).clone();
+		DigestTable targets = new DigestTable(1);
+		targets.putIfAbsent(target, 0);
+
+		List<byte[]> found = new ArrayList<>();
+		engine.search(new ProductEnumerator("ABC".getBytes(StandardCharsets.UTF_8), 5), targets, (value, candidate, length) -> {
+			assertEquals(0, value);
+			assertTrue(engine.matches(candidate, length, target));
+			found.add(Arrays.copyOf(candidate, length));
+			return false;
+		});
+		assertEquals(1, found.size());
+		assertArrayEquals(password, found.get(0));
+
+		// 3^5 candidates do not fill the last batch
+		assertEquals(243, engine.search(new ProductEnumerator("ABC".getBytes(StandardCharsets.UTF_8), 5), new DigestTable(1), (value, candidate, length) -> {
+			throw new AssertionError("Nothing to find");
+		}));
+	}
+}
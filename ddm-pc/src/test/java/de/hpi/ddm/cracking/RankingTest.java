@@ -0,0 +1,89 @@
+package de.hpi.ddm.cracking;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RankingTest {
+
+	private static final byte[] SYMBOLS = "ABCDE".getBytes(StandardCharsets.UTF_8);
+
+	private static List<String> enumerate(CandidateEnumerator candidates) {
+		List<String> list = new ArrayList<>();
+		while (candidates.next())
+			list.add(new String(candidates.candidate(), 0, candidates.length(), StandardCharsets.UTF_8));
+		return list;
+	}
+
+	@Test
+	public void testPermutationRanksFollowTheEnumeration() {
+		List<String> permutations = enumerate(new LexicographicPermutationEnumerator(SYMBOLS));
+		assertEquals(Permutations.factorial(SYMBOLS.length), permutations.size());
+		byte[] buffer = new byte[SYMBOLS.length];
+		for (int rank = 0; rank < permutations.size(); rank++) {
+			Permutations.unrank(SYMBOLS, rank, buffer);
+			assertEquals(permutations.get(rank), new String(buffer, StandardCharsets.UTF_8));
+			assertEquals(rank, Permutations.rank(SYMBOLS, buffer));
+		}
+	}
+
+	@Test
+	public void testProductRanksFollowTheEnumeration() {
+		List<String> products = enumerate(new ProductEnumerator(SYMBOLS, 4));
+		assertEquals(Products.size(SYMBOLS.length, 4), products.size());
+		byte[] buffer = new byte[4];
+		for (int rank = 0; rank < products.size(); rank++) {
+			Products.unrank(SYMBOLS, 4, rank, buffer);
+			assertEquals(products.get(rank), new String(buffer, StandardCharsets.UTF_8));
+			assertEquals(rank, Products.rank(SYMBOLS, buffer, 4));
+		}
+	}
+
+	@Test
+	public void testRangesEnumerateSublists() {
+		List<String> permutations = enumerate(new LexicographicPermutationEnumerator(SYMBOLS));
+		List<String> products = enumerate(new ProductEnumerator(SYMBOLS, 4));
+		long[][] ranges = { { 0, 1 }, { 0, 120 }, { 7, 8 }, { 23, 97 }, { 119, 120 }, { 50, 50 } };
+		for (long[] range : ranges) {
+			int from = (int) range[0], to = (int) range[1];
+			assertEquals(permutations.subList(from, to), enumerate(new LexicographicPermutationEnumerator(SYMBOLS, from, to)));
+			assertEquals(products.subList(from, to), enumerate(new ProductEnumerator(SYMBOLS, 4, from, to)));
+		}
+	}
+
+	@Test
+	public void testRangesReportTheirChanges() {
+		DigestEngine engine = new DigestEngine(HashKernels.SCALAR.create());
+		DigestEngine reference = new DigestEngine(HashKernels.MESSAGE_DIGEST.create());
+		byte[] symbols = "ABCDEFGHI".getBytes(StandardCharsets.UTF_8);
+		CandidateEnumerator[] enumerators = {
+				new LexicographicPermutationEnumerator(symbols, 12345, 17345),
+				new ProductEnumerator(symbols, 9, 1234567, 1239567) };
+		for (CandidateEnumerator candidates : enumerators) {
+			while (candidates.next()) {
+				byte[] expected = reference.digest(candidates.candidate(), candidates.length()).clone();
+				assertArrayEquals(expected, engine.digest(candidates.candidate(), candidates.length(), candidates.firstChanged()));
+			}
+		}
+	}
+
+	@Test
+	public void testSplitIntoBalancedParts() {
+		assertArrayEquals(new long[] { 10, 14, 18, 21, 24 }, Ranges.split(10, 24, 4));
+		assertArrayEquals(new long[] { 0, 1, 2, 3 }, Ranges.split(0, 3, 8));
+		assertArrayEquals(new long[] { 5, 5 }, Ranges.split(5, 5, 3));
+		assertEquals(1, Ranges.count(100, 0));
+		assertEquals(1, Ranges.count(100, 100));
+		assertEquals(4, Ranges.count(301, 100));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnrankOutOfRange() {
+		Permutations.unrank(SYMBOLS, 120, new byte[SYMBOLS.length]);
+	}
+}
@@ -0,0 +1,53 @@
+package de.hpi.ddm.cracking;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SingleBlockSha256Test {
+
+	private final byte[] digest = new byte[Digests.DIGEST_LENGTH];
+
+	private void assertEnumeration(CandidateEnumerator candidates, int limit) throws Exception {
+		MessageDigest reference = MessageDigest.getInstance(DigestEngine.ALGORITHM);
+		SingleBlockSha256 sha = new SingleBlockSha256(candidates.length());
+		for (int i = 0; (i < limit) && candidates.next(); i++) {
+			sha.hash(candidates.candidate(), candidates.firstChanged());
+			sha.digest(this.digest, 0);
+			assertArrayEquals(reference.digest(Arrays.copyOf(candidates.candidate(), candidates.length())), this.digest);
+		}
+	}
+
+	@Test
+	public void testMatchesMessageDigest() throws Exception {
+		MessageDigest reference = MessageDigest.getInstance(DigestEngine.ALGORITHM);
+		Random random = new Random(42);
+		for (int length = 0; length <= MultiBufferSha256.MAX_LENGTH; length++) {
+			SingleBlockSha256 sha = new SingleBlockSha256(length);
+			byte[] message = new byte[length];
+			for (int i = 0; i < 3; i++) {
+				random.nextBytes(message);
+				sha.hash(message, 0);
+				sha.digest(this.digest, 0);
+				assertArrayEquals(reference.digest(message), this.digest);
+			}
+		}
+	}
+
+	@Test
+	public void testReusePrefixOfSuffixEnumerations() throws Exception {
+		this.assertEnumeration(new LexicographicPermutationEnumerator("ABCDEFG".getBytes(StandardCharsets.UTF_8)), 5040);
+		this.assertEnumeration(new ProductEnumerator("AB".getBytes(StandardCharsets.UTF_8), 13), 8192);
+		this.assertEnumeration(new ProductEnumerator("ABC".getBytes(StandardCharsets.UTF_8), 47), 20000);
+	}
+
+	@Test
+	public void testReusePrefixOfHeapsAlgorithm() throws Exception {
+		this.assertEnumeration(new PermutationEnumerator("ABCDEFG".getBytes(StandardCharsets.UTF_8)), 5040);
+	}
+}
@@ -0,0 +1,64 @@
+package de.hpi.ddm.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class DigestCacheTest extends DigestFileFixture {
+
+	@Test
+	public void testEntriesSurviveReopening() throws IOException {
+		Path path = this.directory.resolve("digests.cache");
+		try (DigestCache cache = new DigestCache(path)) {
+			assertTrue(cache.put(this.digest("ABCDEFGHIJ"), "ABCDEFGHIJ".getBytes(StandardCharsets.UTF_8)));
+			assertFalse(cache.put(this.digest("ABCDEFGHIJ"), "ABCDEFGHIJ".getBytes(StandardCharsets.UTF_8)));
+			assertNull(cache.get(this.digest("JIHGFEDCBA")));
+		}
+		try (DigestCache cache = new DigestCache(path)) {
+			assertEquals(1, cache.size());
+			assertArrayEquals("ABCDEFGHIJ".getBytes(StandardCharsets.UTF_8), cache.get(this.digest("ABCDEFGHIJ")));
+		}
+	}
+
+	@Test
+	public void testCacheGrows() throws IOException {
+		Path path = this.directory.resolve("digests.cache");
+		int numEntries = 40000;
+		try (DigestCache cache = new DigestCache(path)) {
+			int initialCapacity = cache.capacity();
+			for (int i = 0; i < numEntries; i++)
+				assertTrue(cache.put(this.digest("entry" + i), ("entry" + i).getBytes(StandardCharsets.UTF_8)));
+			assertTrue(cache.capacity() > initialCapacity);
+		}
+		try (DigestCache cache = new DigestCache(path)) {
+			assertEquals(numEntries, cache.size());
+			for (int i = 0; i < numEntries; i++)
+				assertArrayEquals(("entry" + i).getBytes(StandardCharsets.UTF_8), cache.get(this.digest("entry" + i)));
+		}
+	}
+
+	@Test
+	public void testLongClearTextsAreNotCached() throws IOException {
+		byte[] clearText = new byte[DigestCache.MAX_CLEAR_TEXT_LENGTH + 1];
+		try (DigestCache cache = new DigestCache(this.directory.resolve("digests.cache"))) {
+			assertFalse(cache.put(this.digest("long"), clearText));
+			assertNull(cache.get(this.digest("long")));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testOtherFilesAreRejected() throws IOException {
+		Path path = this.directory.resolve("other.cache");
+		Files.write(path, "ID;Name;PasswordChars;PasswordLength;Password".getBytes(StandardCharsets.UTF_8));
+		new DigestCache(path).close();
+	}
+}
@@ -0,0 +1,37 @@
+package de.hpi.ddm.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+
+import de.hpi.ddm.cracking.DigestEngine;
+
+/**
+ * The common setup of the tests of files that map digests to clear texts: a temporary directory for the files, which
+ * is deleted after every test, and an engine that computes the digests.
+ */
+public abstract class DigestFileFixture {
+
+	protected final DigestEngine engine = new DigestEngine();
+	protected Path directory;
+
+	protected byte[] digest(String clearText) {
+		byte[] bytes = clearText.getBytes(StandardCharsets.UTF_8);
+		return this.engine.digest(bytes, bytes.length).clone();
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory(this.getClass().getSimpleName());
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.list(this.directory).forEach(file -> file.toFile().delete());
+		Files.delete(this.directory);
+	}
+}
@@ -0,0 +1,126 @@
+package de.hpi.ddm.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.hpi.ddm.cracking.DigestEngine;
+import de.hpi.ddm.cracking.Digests;
+
+public class MappedCsvReaderTest {
+
+	private Path file;
+
+	@Before
+	public void setUp() throws IOException {
+		this.file = Files.createTempFile(this.getClass().getSimpleName(), ".csv");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.delete(this.file);
+	}
+
+	private MappedCsvReader open(String content, boolean skipDifferingLines, int windowSize) throws IOException {
+		Files.write(this.file, content.getBytes(StandardCharsets.UTF_8));
+		return new MappedCsvReader(this.file, StandardCharsets.UTF_8, ';', '"', '\\', false, true, skipDifferingLines, windowSize);
+	}
+
+	private List<List<String>> read(String content, boolean skipDifferingLines, int windowSize) throws IOException {
+		List<List<String>> records = new ArrayList<>();
+		try (MappedCsvReader reader = this.open(content, skipDifferingLines, windowSize)) {
+			while (reader.next()) {
+				List<String> record = new ArrayList<>(reader.size());
+				for (int i = 0; i < reader.size(); i++)
+					record.add(reader.getString(i));
+				records.add(record);
+			}
+			assertFalse(reader.next());
+		}
+		return records;
+	}
+
+	private List<List<String>> read(String content) throws IOException {
+		return this.read(content, true, MappedCsvReader.MAX_WINDOW_SIZE);
+	}
+
+	@Test
+	public void testQuotesAndEscapes() throws IOException {
+		assertEquals(Arrays.asList(
+				Arrays.asList("a", "b;c", "say \"hi\"", "x\"y", "c:\\d"),
+				Arrays.asList("e", "", "f", "", "g")),
+			this.read("a;\"b;c\";\"say \"\"hi\"\"\";\"x\\\"y\";c:\\\\d\n e;;f;\"\";g\n"));
+	}
+
+	@Test
+	public void testLineBreaksAndBlankLines() throws IOException {
+		assertEquals(Arrays.asList(
+				Arrays.asList("a", "b"),
+				Arrays.asList("c", "d"),
+				Arrays.asList("e", "f"),
+				Arrays.asList("g", "h")),
+			this.read("\na;b\r\nc;d\r\ne;f\n\n\r\n\rg;h"));
+	}
+
+	@Test
+	public void testDifferingLines() throws IOException {
+		String content = "a;b\nc\nd;e;f\ng;h\n";
+		assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("g", "h")), this.read(content));
+		assertEquals(4, this.read(content, false, MappedCsvReader.MAX_WINDOW_SIZE).size());
+	}
+
+	@Test
+	public void testIntsAndDigests() throws IOException {
+		byte[] clearText = "ABC".getBytes(StandardCharsets.UTF_8);
+		byte[] digest = new DigestEngine().digest(clearText, clearText.length).clone();
+
+		try (MappedCsvReader reader = this.open("42;" + Digests.toHex(digest) + ";\"7\";x1\n", true, MappedCsvReader.MAX_WINDOW_SIZE)) {
+			assertTrue(reader.next());
+			assertEquals(42, reader.getInt(0));
+			assertEquals(7, reader.getInt(2));
+
+			byte[] digests = new byte[2 * Digests.DIGEST_LENGTH];
+			reader.getDigest(1, digests, Digests.DIGEST_LENGTH);
+			assertArrayEquals(digest, Arrays.copyOfRange(digests, Digests.DIGEST_LENGTH, digests.length));
+
+			try {
+				reader.getInt(3);
+				throw new AssertionError("Parsed a value that is not an integer");
+			} catch (NumberFormatException e) {
+				// Expected
+			}
+		}
+	}
+
+	@Test
+	public void testRecordsAcrossWindows() throws IOException {
+		String content = "ID;Name;Hint\r\n1;\"Sophia; the \"\"first\"\"\";ABC\r\n\r\n2;Jack\\\"son;\"A\r\nB\"\n3;Emma;X\rwrong;width;here;x\n4;\"\";CBA";
+		List<List<String>> expected = this.read(content);
+		assertEquals(5, expected.size());
+		assertEquals("Sophia; the \"first\"", expected.get(1).get(1));
+		assertEquals("A\r\nB", expected.get(2).get(2));
+
+		// The longest record has 30 bytes; every window size splits the others at a different byte, e.g., inside quotes,
+		// after an escape or between CR and LF
+		for (int windowSize = 32; windowSize <= content.length(); windowSize++)
+			assertEquals("Window of " + windowSize + " bytes", expected, this.read(content, true, windowSize));
+	}
+
+	@Test(expected = IOException.class)
+	public void testRecordLongerThanWindow() throws IOException {
+		this.read("a;b\nlonger;record\n", true, 8);
+	}
+}
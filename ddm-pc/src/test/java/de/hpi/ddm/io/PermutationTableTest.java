@@ -0,0 +1,70 @@
+package de.hpi.ddm.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import de.hpi.ddm.cracking.LexicographicPermutationEnumerator;
+import de.hpi.ddm.cracking.Permutations;
+
+public class PermutationTableTest extends DigestFileFixture {
+
+	private static final byte[] CHARS = "ABCDEFG".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void testUnrankFollowsLexicographicOrder() {
+		LexicographicPermutationEnumerator permutations = new LexicographicPermutationEnumerator(CHARS);
+		byte[] buffer = new byte[CHARS.length];
+		long rank = 0;
+		while (permutations.next()) {
+			Permutations.unrank(CHARS, rank++, buffer);
+			assertArrayEquals(permutations.candidate(), buffer);
+		}
+		assertEquals(Permutations.factorial(CHARS.length), rank);
+	}
+
+	@Test
+	public void testFindHints() throws IOException {
+		Path path = PermutationTable.build(CHARS, this.directory, 2);
+		try (PermutationTable table = new PermutationTable(path)) {
+			assertTrue(table.covers("GFEDCB".getBytes(StandardCharsets.UTF_8)));
+			assertTrue(table.covers("ABCDEF".getBytes(StandardCharsets.UTF_8)));
+			assertFalse(table.covers("ABCDEFG".getBytes(StandardCharsets.UTF_8)));
+			assertFalse(table.covers("ABCDEH".getBytes(StandardCharsets.UTF_8)));
+
+			for (String hint : new String[] { "BCDEFG", "GFEDCA", "ACEGBD", "ABCDEF" })
+				assertArrayEquals(hint.getBytes(StandardCharsets.UTF_8), table.find(this.digest(hint), 0, this.engine));
+			assertNull(table.find(this.digest("ABCDEFG"), 0, this.engine));
+			assertNull(table.find(this.digest("AABCDE"), 0, this.engine));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testRejectForeignFile() throws IOException {
+		Path path = this.directory.resolve("foreign" + PermutationTable.FILE_ENDING);
+		Files.write(path, new byte[PermutationTable.HEADER_SIZE]);
+		new PermutationTable(path).close();
+	}
+
+	@Test
+	public void testOpenFailsOnForeignFile() throws IOException {
+		PermutationTable.build(CHARS, this.directory, 2);
+		Files.write(this.directory.resolve("foreign" + PermutationTable.FILE_ENDING), new byte[PermutationTable.HEADER_SIZE]);
+		try {
+			PermutationTablesSingleton.open(this.directory.toString());
+			fail();
+		} catch (IOException e) {
+			assertTrue(PermutationTablesSingleton.get().isEmpty());
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package de.hpi.ddm.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResultWriterTest {
+
+	private Path directory;
+	private Path file;
+
+	@Before
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory(this.getClass().getSimpleName());
+		this.file = this.directory.resolve("results").resolve("results.csv");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(this.file);
+		Files.deleteIfExists(this.file.getParent());
+		Files.delete(this.directory);
+	}
+
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private String content() throws IOException {
+		return new String(Files.readAllBytes(this.file), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testHeaderAndRows() throws IOException {
+		try (ResultWriter writer = new ResultWriter(this.file, StandardCharsets.UTF_8, ';', 1024)) {
+			writer.write(1, "Sophia", bytes("ABC"), 2, bytes("CA"), new byte[][] { bytes("AB"), bytes("BC") });
+			writer.write(2, "Jackson", bytes("ABC"), 2, bytes("BB"), new byte[][] { bytes("AC"), bytes("BC") });
+			assertEquals(2, writer.getNumResults());
+		}
+
+		assertEquals(
+				"ID;Name;PasswordChars;PasswordLength;Password;Hint1;Hint2\n" +
+				"1;Sophia;ABC;2;CA;AB;BC\n" +
+				"2;Jackson;ABC;2;BB;AC;BC\n", this.content());
+	}
+
+	@Test
+	public void testUncrackedHintsAreEmpty() throws IOException {
+		try (ResultWriter writer = new ResultWriter(this.file, StandardCharsets.UTF_8, ',', 1024)) {
+			writer.write(1, "Sophia", bytes("ABC"), 2, bytes("CA"), new byte[][] { null, bytes("BC"), null });
+		}
+
+		// The header uses the configured separator as well
+		assertEquals(
+				"ID,Name,PasswordChars,PasswordLength,Password,Hint1,Hint2,Hint3\n" +
+				"1,Sophia,ABC,2,CA,,BC,\n", this.content());
+	}
+
+	@Test
+	public void testFullBufferIsDrained() throws IOException {
+		final int bufferSize = 8;
+		String expected =
+				"ID;Name;PasswordChars;PasswordLength;Password;Hint1\n" +
+				"1;Sophia;ABCDEFGHIJK;10;ABCDEFGHIJ;BCDEFGHIJK\n";
+
+		ResultWriter writer = new ResultWriter(this.file, StandardCharsets.UTF_8, ';', bufferSize);
+		writer.write(1, "Sophia", bytes("ABCDEFGHIJK"), 10, bytes("ABCDEFGHIJ"), new byte[][] { bytes("BCDEFGHIJK") });
+
+		// Only full buffers have been written so far
+		long written = Files.size(this.file);
+		assertEquals(0, written % bufferSize);
+		assertTrue(written > expected.length() - bufferSize);
+		assertEquals(expected.substring(0, (int) written), this.content());
+
+		writer.flush();
+		assertEquals(expected, this.content());
+		writer.flush();
+		writer.close();
+		assertEquals(expected, this.content());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSeparatorMustBeAsciiByte() throws IOException {
+		new ResultWriter(this.file, StandardCharsets.UTF_8, '\u00a7', 16).close();
+	}
+}
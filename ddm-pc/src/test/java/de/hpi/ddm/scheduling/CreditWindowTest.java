@@ -0,0 +1,80 @@
+package de.hpi.ddm.scheduling;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class CreditWindowTest {
+
+	private static final long MILLIS = 1000000;	// Nanoseconds per millisecond
+
+	@Test
+	public void testInitialSize() {
+		assertEquals(2, new CreditWindow(8, 1, new CreditWindow.RoundTrip()).getSize());
+		assertEquals(8, new CreditWindow(8, 4, new CreditWindow.RoundTrip()).getSize());
+		assertEquals(3, new CreditWindow(1, 3, new CreditWindow.RoundTrip()).getSize());
+		assertEquals(1, new CreditWindow(0, 0, new CreditWindow.RoundTrip()).getSize());
+	}
+
+	@Test
+	public void testSizeIsKeptWithoutRoundTrip() {
+		CreditWindow window = new CreditWindow(8, 1, new CreditWindow.RoundTrip());
+		// The worker was busy, so the turnaround is no round-trip sample
+		window.assigned(1, 1, 0);
+		window.completed(1, 10 * MILLIS, 500);
+		assertEquals(2, window.getSize());
+	}
+
+	@Test
+	public void testWindowGrowsToCoverRoundTrip() {
+		CreditWindow.RoundTrip roundTrip = new CreditWindow.RoundTrip();
+		CreditWindow window = new CreditWindow(16, 2, roundTrip);
+		window.assigned(1, 0, 0);
+		window.completed(1, 10 * MILLIS, 110);
+
+		assertEquals(100, roundTrip.getMillis(), 1e-9);
+		assertEquals(2 * (1 + 10), window.getSize());
+	}
+
+	@Test
+	public void testWindowIsBoundedByMaxCredits() {
+		CreditWindow window = new CreditWindow(4, 3, new CreditWindow.RoundTrip());
+		window.assigned(1, 0, 0);
+		window.completed(1, 1 * MILLIS, 1001);
+		assertEquals(3 * 4, window.getSize());
+	}
+
+	@Test
+	public void testWindowShrinksWithLongerTasks() {
+		CreditWindow window = new CreditWindow(16, 1, new CreditWindow.RoundTrip());
+		window.assigned(1, 0, 0);
+		window.completed(1, 10 * MILLIS, 110);
+		assertEquals(11, window.getSize());
+
+		for (int task = 2; task < 50; task++) {
+			window.assigned(task, 1, 0);
+			window.completed(task, 1000 * MILLIS, 0);
+		}
+		assertEquals(2, window.getSize());
+	}
+
+	@Test
+	public void testRoundTripIsSharedByNode() {
+		CreditWindow.RoundTrip roundTrip = new CreditWindow.RoundTrip();
+		CreditWindow first = new CreditWindow(16, 1, roundTrip);
+		CreditWindow second = new CreditWindow(16, 1, roundTrip);
+		first.assigned(1, 0, 0);
+		first.completed(1, 10 * MILLIS, 60);
+
+		// The second worker has no probe of its own, but sizes its window with the node's round-trip
+		second.assigned(2, 1, 0);
+		second.completed(2, 10 * MILLIS, 1000);
+		assertEquals(50, roundTrip.getMillis(), 1e-9);
+		assertEquals(1 + 5, second.getSize());
+
+		// Later samples are smoothed instead of replacing the estimate
+		second.assigned(3, 0, 1000);
+		second.completed(3, 10 * MILLIS, 1160);
+		assertEquals(0.8 * 50 + 0.2 * 150, roundTrip.getMillis(), 1e-9);
+	}
+}
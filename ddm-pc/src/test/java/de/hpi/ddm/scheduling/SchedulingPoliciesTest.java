@@ -0,0 +1,85 @@
+package de.hpi.ddm.scheduling;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.junit.Test;
+
+import de.hpi.ddm.cracking.Digests;
+import de.hpi.ddm.structures.HintGroup;
+import de.hpi.ddm.structures.PasswordRecord;
+import de.hpi.ddm.structures.PasswordRow;
+import de.hpi.ddm.structures.PasswordSearch;
+
+public class SchedulingPoliciesTest {
+
+	private static final byte[] CHARS = "ABCD".getBytes(StandardCharsets.UTF_8);
+
+	private final CostEstimator estimator = new CostEstimator();
+
+	// A password space of 4^3 = 64 candidates
+	private static PasswordSearch passwordSearch() {
+		return new PasswordSearch(new PasswordRow(new PasswordRecord(0, "Name", CHARS, 3, new byte[Digests.DIGEST_LENGTH])));
+	}
+
+	// Tasks whose estimated costs are 6, 32, 14, 18 and 14 hashes in creation order
+	private List<Task> tasks() {
+		HintGroup group = new HintGroup(CHARS);
+		PasswordSearch search = passwordSearch();
+		List<Task> tasks = Arrays.asList(
+				new HintTask(1, group, 0, 0, 6),
+				new PasswordTask(2, search, 0, 64),
+				new PasswordTask(3, search, 0, 16),
+				new HintTask(4, group, 0, 6, 24),
+				new HintTask(5, group, 0, 24, 38));
+		for (Task task : tasks)
+			task.setCost(this.estimator.estimate(task));
+		return tasks;
+	}
+
+	private List<Integer> schedule(SchedulingPolicy policy) {
+		PriorityQueue<Task> queue = new PriorityQueue<>(policy.order());
+		queue.addAll(this.tasks());
+		List<Integer> ids = new ArrayList<>(queue.size());
+		while (!queue.isEmpty())
+			ids.add(queue.poll().getId());
+		return ids;
+	}
+
+	@Test
+	public void testCostEstimates() {
+		List<Task> tasks = this.tasks();
+		assertEquals(6, tasks.get(0).getCost(), 1e-9);
+		// The password is found after half of a range that covers the whole space
+		assertEquals(32, tasks.get(1).getCost(), 1e-9);
+		// A quarter of the space holds the password with a probability of 1/4
+		assertEquals(16 * (1 - 16 / 128.0), tasks.get(2).getCost(), 1e-9);
+		assertEquals(18, tasks.get(3).getCost(), 1e-9);
+		assertEquals(14, tasks.get(4).getCost(), 1e-9);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownTaskCannotBeEstimated() {
+		this.estimator.estimate(new TestTask(1, 0, 10));
+	}
+
+	@Test
+	public void testFifo() {
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5), this.schedule(SchedulingPolicies.FIFO));
+	}
+
+	@Test
+	public void testLongestProcessingTimeFirst() {
+		assertEquals(Arrays.asList(2, 4, 3, 5, 1), this.schedule(SchedulingPolicies.LPT));
+	}
+
+	@Test
+	public void testShortestJobFirst() {
+		assertEquals(Arrays.asList(1, 3, 5, 4, 2), this.schedule(SchedulingPolicies.SJF));
+	}
+}
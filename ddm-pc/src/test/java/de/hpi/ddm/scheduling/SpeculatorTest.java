@@ -0,0 +1,106 @@
+package de.hpi.ddm.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.javadsl.TestKit;
+
+public class SpeculatorTest {
+
+	private static ActorSystem system;
+
+	@BeforeClass
+	public static void setUpClass() {
+		system = ActorSystem.create("scheduling", ConfigFactory.parseString("akka.actor.provider = local"));
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		TestKit.shutdownActorSystem(system);
+	}
+
+	private static ActorRef worker() {
+		return new TestKit(system).getRef();
+	}
+
+	// Turnarounds of 10, 20, ... ms
+	private static Speculator speculator(double percentile, int samples) {
+		Speculator speculator = new Speculator(percentile);
+		for (int i = samples; i > 0; i--)
+			speculator.completed(i * 10);
+		return speculator;
+	}
+
+	@Test
+	public void testThresholdNeedsEnoughSamples() {
+		assertEquals(-1, speculator(50, 0).threshold());
+		assertEquals(-1, speculator(50, Speculator.MIN_SAMPLES - 1).threshold());
+		assertEquals(Speculator.MIN_SAMPLES / 2 * 10, speculator(50, Speculator.MIN_SAMPLES).threshold());
+		assertEquals(Speculator.MIN_SAMPLES * 10, speculator(100, Speculator.MIN_SAMPLES).threshold());
+	}
+
+	@Test
+	public void testSelectNothingWhenDisabledOrUnknown() {
+		TaskTracker tracker = new TaskTracker(Long.MAX_VALUE / 2);
+		tracker.assign(new TestTask(1, 0, 10), worker(), 0);
+
+		assertNull(speculator(0, Speculator.MIN_SAMPLES).select(tracker.getLeases(), worker(), 1000));
+		assertNull(speculator(50, Speculator.MIN_SAMPLES - 1).select(tracker.getLeases(), worker(), 1000));
+	}
+
+	@Test
+	public void testSelectOldestStraggler() {
+		TaskTracker tracker = new TaskTracker(Long.MAX_VALUE / 2);
+		Task older = new TestTask(1, 0, 10);
+		Task newer = new TestTask(2, 10, 20);
+		tracker.assign(older, worker(), 0);
+		tracker.assign(newer, worker(), 20);
+		Speculator speculator = speculator(50, Speculator.MIN_SAMPLES);
+
+		// Neither task has been out for longer than the threshold of 40 ms yet
+		assertNull(speculator.select(tracker.getLeases(), worker(), 40));
+		assertSame(older, speculator.select(tracker.getLeases(), worker(), 50));
+		assertSame(older, speculator.select(tracker.getLeases(), worker(), 100));
+	}
+
+	@Test
+	public void testSelectDuplicatesAtMostOnce() {
+		TaskTracker tracker = new TaskTracker(Long.MAX_VALUE / 2);
+		Task older = new TestTask(1, 0, 10);
+		Task newer = new TestTask(2, 10, 20);
+		tracker.assign(older, worker(), 0);
+		tracker.assign(newer, worker(), 20);
+		Speculator speculator = speculator(50, Speculator.MIN_SAMPLES);
+
+		ActorRef backup = worker();
+		tracker.duplicate(speculator.select(tracker.getLeases(), backup, 100), backup, 100);
+		assertSame(newer, speculator.select(tracker.getLeases(), worker(), 100));
+
+		tracker.duplicate(newer, worker(), 100);
+		assertNull(speculator.select(tracker.getLeases(), worker(), 1000));
+	}
+
+	@Test
+	public void testSelectNeverOntoHoldingWorker() {
+		TaskTracker tracker = new TaskTracker(Long.MAX_VALUE / 2);
+		ActorRef straggler = worker();
+		Task older = new TestTask(1, 0, 10);
+		Task newer = new TestTask(2, 10, 20);
+		tracker.assign(older, straggler, 0);
+		tracker.assign(newer, worker(), 20);
+		Speculator speculator = speculator(50, Speculator.MIN_SAMPLES);
+
+		assertSame(newer, speculator.select(tracker.getLeases(), straggler, 100));
+		tracker.assign(newer, straggler, 20);
+		assertNull(speculator.select(tracker.getLeases(), straggler, 100));
+	}
+}
@@ -0,0 +1,116 @@
+package de.hpi.ddm.scheduling;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.javadsl.TestKit;
+
+public class TaskSizerTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	private static ActorSystem system;
+
+	@BeforeClass
+	public static void setUpClass() {
+		system = ActorSystem.create("scheduling", ConfigFactory.parseString("akka.actor.provider = local"));
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		TestKit.shutdownActorSystem(system);
+	}
+
+	private static ActorRef worker() {
+		return new TestKit(system).getRef();
+	}
+
+	private static WorkerCapacities capacities() {
+		return new WorkerCapacities(system.provider().getDefaultAddress());
+	}
+
+	@Test
+	public void testSizeIsRateTimesDuration() {
+		TaskSizer sizer = new TaskSizer(500, 1, 0, capacities());
+		ActorRef worker = worker();
+		sizer.completed(worker, 2_000_000, SECOND);
+		assertEquals(2e6, sizer.rate(worker), 1e-6);
+		assertEquals(1_000_000, sizer.size(worker, Long.MAX_VALUE, 1));
+
+		// The rate is a moving average of the samples
+		sizer.completed(worker, 4_000_000, SECOND);
+		assertEquals(2.4e6, sizer.rate(worker), 1e-6);
+		assertEquals(1_200_000, sizer.size(worker, Long.MAX_VALUE, 1));
+	}
+
+	@Test
+	public void testSamplesWithoutWorkAreIgnored() {
+		TaskSizer sizer = new TaskSizer(1000, 100, 0, capacities());
+		ActorRef worker = worker();
+		sizer.completed(worker, 99, 1);
+		sizer.completed(worker, 1_000_000, 0);
+		assertEquals(TaskSizer.DEFAULT_RATE, sizer.rate(worker), 1e-6);
+	}
+
+	@Test
+	public void testTailIsSharedByAllWorkers() {
+		TaskSizer sizer = new TaskSizer(1000, 1, 0, capacities());
+		ActorRef worker = worker();
+		sizer.completed(worker, 1_000_000, SECOND);
+
+		assertEquals(1_000_000, sizer.size(worker, TaskSizer.TAIL_SHARES * 4 * 1_000_000L, 4));
+		assertEquals(1000, sizer.size(worker, TaskSizer.TAIL_SHARES * 4 * 1000L, 4));
+		assertEquals(1001, sizer.size(worker, TaskSizer.TAIL_SHARES * 4 * 1000L + 1, 4));
+		// Without any worker, the remaining work is shared as if there was one
+		assertEquals(500, sizer.size(worker, 1000, 0));
+	}
+
+	@Test
+	public void testSizeIsClamped() {
+		ActorRef worker = worker();
+		TaskSizer sizer = new TaskSizer(1000, 1000, 5000, capacities());
+		sizer.completed(worker, 1_000_000, SECOND);
+		assertEquals(5000, sizer.size(worker, Long.MAX_VALUE, 1));
+		assertEquals(1000, sizer.size(worker, 10, 1));
+
+		// Without a target duration, every task has the maximum size
+		assertEquals(5000, new TaskSizer(0, 1000, 5000, capacities()).size(worker, 10, 1));
+		// A maximum below the minimum is raised to the minimum
+		assertEquals(1000, new TaskSizer(1000, 1000, 10, capacities()).size(worker, Long.MAX_VALUE, 1));
+	}
+
+	@Test
+	public void testRateFallsBackToCapacityAverageAndDefault() {
+		WorkerCapacities capacities = capacities();
+		TaskSizer sizer = new TaskSizer(1000, 1, 0, capacities);
+		ActorRef measured = worker();
+		ActorRef advertised = worker();
+		ActorRef unknown = worker();
+		capacities.register(measured, 4, 3e6, 1);
+		capacities.register(advertised, 4, 3e6, 1);
+		capacities.register(unknown, 4, 0, 1);
+
+		// Nobody reported yet, and the node did not advertise a rate for one of them
+		assertEquals(3e6, sizer.rate(measured), 1e-6);
+		assertEquals(TaskSizer.DEFAULT_RATE, sizer.rate(unknown), 1e-6);
+
+		sizer.completed(measured, 1_000_000, SECOND);
+		assertEquals(1e6, sizer.rate(measured), 1e-6);
+		assertEquals(3e6, sizer.rate(advertised), 1e-6);
+		assertEquals(1e6, sizer.rate(unknown), 1e-6);
+
+		sizer.completed(advertised, 2_000_000, SECOND);
+		assertEquals(1.5e6, sizer.rate(unknown), 1e-6);
+
+		sizer.remove(measured);
+		sizer.remove(advertised);
+		assertEquals(TaskSizer.DEFAULT_RATE, sizer.rate(unknown), 1e-6);
+	}
+}
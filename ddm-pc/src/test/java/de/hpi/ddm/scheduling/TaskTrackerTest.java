@@ -0,0 +1,171 @@
+package de.hpi.ddm.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.javadsl.TestKit;
+
+public class TaskTrackerTest {
+
+	private static final long TIMEOUT = 100;
+
+	private static ActorSystem system;
+
+	@BeforeClass
+	public static void setUpClass() {
+		system = ActorSystem.create("scheduling", ConfigFactory.parseString("akka.actor.provider = local"));
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		TestKit.shutdownActorSystem(system);
+	}
+
+	private static ActorRef worker() {
+		return new TestKit(system).getRef();
+	}
+
+	@Test
+	public void testCompleteClosesTaskOnce() {
+		TaskTracker tracker = new TaskTracker(TIMEOUT);
+		ActorRef worker = worker();
+		Task task = new TestTask(1, 0, 10);
+		tracker.assign(task, worker, 0);
+		assertTrue(tracker.isOpen(1));
+		assertEquals(1, tracker.leases(worker));
+
+		assertSame(task, tracker.complete(1));
+		assertTrue(task.isCompleted());
+		assertFalse(tracker.isOpen(1));
+		assertEquals(0, tracker.leases(worker));
+		assertNull(tracker.complete(1));
+	}
+
+	@Test
+	public void testAssignReplacesLeases() {
+		TaskTracker tracker = new TaskTracker(TIMEOUT);
+		ActorRef first = worker();
+		ActorRef second = worker();
+		Task task = new TestTask(1, 0, 10);
+		tracker.assign(task, first, 0);
+		tracker.assign(task, second, 10);
+
+		assertEquals(0, tracker.leases(first));
+		assertEquals(1, tracker.leases(second));
+		assertEquals(1, tracker.size());
+	}
+
+	@Test
+	public void testExpiredTaskIsAssignedAgain() {
+		TaskTracker tracker = new TaskTracker(TIMEOUT);
+		ActorRef slow = worker();
+		ActorRef other = worker();
+		Task task = new TestTask(1, 0, 10);
+		tracker.assign(task, slow, 0);
+		tracker.assign(new TestTask(2, 10, 20), other, 0);
+		tracker.complete(2);
+
+		assertEquals(Collections.singletonList(task), tracker.expire(TIMEOUT));
+		assertEquals(0, tracker.leases(slow));
+		assertTrue(tracker.isOpen(1));
+
+		// The new lease starts a new deadline
+		tracker.assign(task, other, TIMEOUT);
+		assertEquals(Collections.emptyList(), tracker.expire(2 * TIMEOUT - 1));
+		assertSame(other, tracker.getLeases(1).get(0).getWorker());
+
+		// The late result of the slow worker closes the task and the lease of the other worker
+		assertSame(task, tracker.complete(1));
+		assertEquals(0, tracker.leases(other));
+		assertEquals(0, tracker.size());
+	}
+
+	@Test
+	public void testRevokeAddressRevokesAllItsWorkers() {
+		TaskTracker tracker = new TaskTracker(TIMEOUT);
+		ActorRef first = worker();
+		ActorRef second = worker();
+		tracker.assign(new TestTask(1, 0, 10), first, 0);
+		tracker.assign(new TestTask(2, 10, 20), second, 0);
+
+		assertEquals(2, tracker.revoke(first.path().address()).size());
+		assertTrue(tracker.getLeases().isEmpty());
+		assertEquals(2, tracker.size());
+	}
+
+	@Test
+	public void testRevokeKeepsDuplicatedTaskUntilLastLease() {
+		TaskTracker tracker = new TaskTracker(TIMEOUT);
+		ActorRef original = worker();
+		ActorRef backup = worker();
+		Task task = new TestTask(1, 0, 10);
+		tracker.assign(task, original, 0);
+		tracker.duplicate(task, backup, 10);
+		assertEquals(2, tracker.getLeases(1).size());
+
+		// The backup still works on the task, so there is nothing to assign again
+		assertEquals(Collections.emptyList(), tracker.revoke(original));
+		assertEquals(1, tracker.getLeases(1).size());
+		assertSame(backup, tracker.getLeases(1).get(0).getWorker());
+
+		assertEquals(Collections.singletonList(task), tracker.revoke(backup));
+		assertTrue(tracker.getLeases(1).isEmpty());
+		// A revoked task stays open for a late result
+		assertTrue(tracker.isOpen(1));
+		assertSame(task, tracker.complete(1));
+	}
+
+	@Test
+	public void testExpireKeepsDuplicatedTaskUntilLastLease() {
+		TaskTracker tracker = new TaskTracker(TIMEOUT);
+		ActorRef original = worker();
+		ActorRef backup = worker();
+		Task task = new TestTask(1, 0, 10);
+		tracker.assign(task, original, 0);
+		tracker.duplicate(task, backup, 50);
+
+		assertEquals(Collections.emptyList(), tracker.expire(TIMEOUT - 1));
+		assertEquals(2, tracker.getLeases(1).size());
+
+		// Only the lease of the original worker expired
+		assertEquals(Collections.emptyList(), tracker.expire(TIMEOUT));
+		assertEquals(0, tracker.leases(original));
+		assertEquals(1, tracker.leases(backup));
+
+		assertEquals(Collections.singletonList(task), tracker.expire(50 + TIMEOUT));
+		assertTrue(tracker.getLeases().isEmpty());
+		assertTrue(tracker.isOpen(1));
+	}
+
+	@Test
+	public void testCompleteReleasesAllLeases() {
+		TaskTracker tracker = new TaskTracker(TIMEOUT);
+		ActorRef original = worker();
+		ActorRef backup = worker();
+		Task task = new TestTask(1, 0, 10);
+		tracker.assign(task, original, 0);
+		tracker.duplicate(task, backup, 10);
+		tracker.assign(new TestTask(2, 10, 20), backup, 10);
+
+		tracker.complete(1);
+		assertEquals(0, tracker.leases(original));
+		assertEquals(1, tracker.leases(backup));
+		assertEquals(1, tracker.getLeases().size());
+		assertEquals(Collections.emptyList(), tracker.revoke(original));
+		assertEquals(Collections.emptyList(), tracker.expire(TIMEOUT));
+		assertEquals(1, tracker.size());
+	}
+}
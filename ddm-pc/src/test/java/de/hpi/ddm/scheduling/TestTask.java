@@ -0,0 +1,23 @@
+package de.hpi.ddm.scheduling;
+
+import java.io.Serializable;
+
+/**
+ * A task of no particular search space for the tests of the scheduling classes.
+ */
+class TestTask extends Task {
+
+	TestTask(int id, long from, long to) {
+		super(id, from, to);
+	}
+
+	@Override
+	protected Task range(int id, long from, long to) {
+		return new TestTask(id, from, to);
+	}
+
+	@Override
+	public Serializable toMessage() {
+		return this.getId();
+	}
+}
@@ -0,0 +1,149 @@
+package de.hpi.ddm.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Address;
+import akka.cluster.Cluster;
+import akka.testkit.javadsl.TestKit;
+
+public class WorkerCapacitiesTest {
+
+	private static final double RATE = 2e6;
+
+	private static ActorSystem system;
+	private static Address node;		// All test workers live on the same node
+
+	@BeforeClass
+	public static void setUpClass() {
+		system = ActorSystem.create("scheduling", ConfigFactory.parseString("akka.actor.provider = local"));
+		node = new TestKit(system).getRef().path().address();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		TestKit.shutdownActorSystem(system);
+	}
+
+	private static ActorRef worker() {
+		return new TestKit(system).getRef();
+	}
+
+	@Test
+	public void testUnknownWorker() {
+		WorkerCapacities capacities = new WorkerCapacities(node);
+		ActorRef worker = worker();
+		assertEquals(0, capacities.rate(worker), 0);
+		assertEquals(1, capacities.availability(worker), 0);
+
+		capacities.register(worker, 4, 0, 1);
+		assertEquals(0, capacities.rate(worker), 0);
+	}
+
+	@Test
+	public void testWorkersShareTheCoresOfTheirNode() {
+		WorkerCapacities capacities = new WorkerCapacities(node);
+		ActorRef first = worker();
+		capacities.register(first, 2, RATE, 1);
+		assertEquals(RATE, capacities.rate(first), 1e-6);
+
+		ActorRef[] others = { worker(), worker(), worker() };
+		for (ActorRef other : others)
+			capacities.register(other, 2, RATE, 1);
+		assertEquals(4, capacities.getNumWorkers());
+		assertEquals(RATE / 2, capacities.rate(first), 1e-6);
+
+		// Registering again replaces the previous capacity
+		capacities.register(first, 2, RATE, 1);
+		assertEquals(4, capacities.getNumWorkers());
+
+		for (ActorRef other : others)
+			capacities.remove(other);
+		assertEquals(1, capacities.getNumWorkers());
+		assertEquals(RATE, capacities.rate(first), 1e-6);
+		capacities.remove(first);
+		assertEquals(0, capacities.getNumWorkers());
+		assertEquals(0, capacities.rate(first), 0);
+	}
+
+	@Test
+	public void testLoadedNode() {
+		WorkerCapacities capacities = new WorkerCapacities(node);
+		ActorRef worker = worker();
+		capacities.register(worker, 4, RATE, 1);
+
+		// The load of our own worker does not count against it
+		capacities.load(node, 1);
+		assertEquals(1, capacities.availability(worker), 1e-6);
+		assertEquals(RATE, capacities.rate(worker), 1e-6);
+
+		// Two foreign threads occupy half of the cores
+		capacities.load(node, 3);
+		assertEquals(0.5, capacities.availability(worker), 1e-6);
+		assertEquals(RATE / 2, capacities.rate(worker), 1e-6);
+
+		capacities.load(node, 100);
+		assertEquals(WorkerCapacities.MIN_AVAILABILITY, capacities.availability(worker), 1e-6);
+		assertEquals(RATE * WorkerCapacities.MIN_AVAILABILITY, capacities.rate(worker), 1e-6);
+	}
+
+	@Test
+	public void testDispatcherRegistersItsWorkers() {
+		WorkerCapacities capacities = new WorkerCapacities(node);
+		ActorRef dispatcher = worker();
+		capacities.register(dispatcher, 8, RATE, 4);
+		assertEquals(4, capacities.getNumWorkers());
+		// Every task of the dispatcher runs on a core of its own
+		assertEquals(RATE, capacities.rate(dispatcher), 1e-6);
+
+		// The dispatcher's workers explain four threads of load, the other two are foreign
+		capacities.load(node, 4);
+		assertEquals(1, capacities.availability(dispatcher), 1e-6);
+		capacities.load(node, 6);
+		assertEquals(0.75, capacities.availability(dispatcher), 1e-6);
+		assertEquals(RATE * 0.75, capacities.rate(dispatcher), 1e-6);
+
+		// More workers than cores share them
+		capacities.register(dispatcher, 2, RATE, 4);
+		assertEquals(4, capacities.getNumWorkers());
+		assertEquals(RATE / 2 * WorkerCapacities.MIN_AVAILABILITY, capacities.rate(dispatcher), 1e-6);
+
+		capacities.remove(dispatcher);
+		assertEquals(0, capacities.getNumWorkers());
+	}
+
+	@Test
+	public void testLocalWorkersGetTheLoadOfTheClusterAddress() {
+		ActorSystem cluster = ActorSystem.create("capacities", ConfigFactory.parseString(
+				"akka.actor.provider = cluster\n" +
+				"akka.remote.artery.canonical.hostname = \"127.0.0.1\"\n" +
+				"akka.remote.artery.canonical.port = 0\n" +
+				"akka.cluster.jmx.multi-mbeans-in-same-jvm = on\n" +
+				"akka.extensions = []\n" +
+				"akka.loglevel = \"WARNING\"")
+			.withFallback(ConfigFactory.load("application")));
+		try {
+			Address self = Cluster.get(cluster).selfAddress();
+			ActorRef worker = new TestKit(cluster).getRef();
+			assertTrue(worker.path().address().hasLocalScope());
+
+			// The metrics report the master's node under its cluster address, which must reach its local workers
+			WorkerCapacities capacities = new WorkerCapacities(self);
+			capacities.register(worker, 4, RATE, 1);
+			assertEquals(self, capacities.node(worker));
+			capacities.load(self, 3);
+			assertEquals(0.5, capacities.availability(worker), 1e-6);
+			assertEquals(RATE / 2, capacities.rate(worker), 1e-6);
+		} finally {
+			TestKit.shutdownActorSystem(cluster);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package de.hpi.ddm.serialization;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorSystem;
+import akka.serialization.Serialization;
+import akka.serialization.SerializationExtension;
+import akka.serialization.Serializer;
+import akka.testkit.javadsl.TestKit;
+import de.hpi.ddm.actors.Collector;
+import de.hpi.ddm.actors.Dispatcher;
+import de.hpi.ddm.actors.Master;
+import de.hpi.ddm.actors.Reader;
+import de.hpi.ddm.actors.Reaper;
+import de.hpi.ddm.actors.Worker;
+import de.hpi.ddm.cracking.Digests;
+import de.hpi.ddm.structures.PasswordRecord;
+
+public class MessageSerializersTest {
+
+	private Kryo kryo;
+
+	private static byte[] digests(int count) {
+		byte[] digests = new byte[count * Digests.DIGEST_LENGTH];
+		for (int i = 0; i < digests.length; i++)
+			digests[i] = (byte) (i * 31 + 7);
+		return digests;
+	}
+
+	private static PasswordRecord record(int id) {
+		return new PasswordRecord(id, "Name" + id, "ABCDEFGHIJK".getBytes(StandardCharsets.UTF_8), 10, digests(10));
+	}
+
+	private static Serializable[] messages() {
+		return new Serializable[] {
+				new Worker.CrackHintsMessage(42, "ABCDEFGHIJ".getBytes(StandardCharsets.UTF_8), digests(3), 2, 0, 40320),
+				new Worker.CrackPasswordMessage(Integer.MAX_VALUE, "AB".getBytes(StandardCharsets.UTF_8), 10, digests(1), 512, 1024),
+				new Master.HintsCrackedMessage(7, new int[] { 0, 2 }, "ABCDEFGHIJBCDEFGHIJA".getBytes(StandardCharsets.UTF_8), 123456789012L, 40320),
+				new Master.HintsCrackedMessage(8, new int[0], new byte[0], 0, 0),
+				new Master.FoundPassword(3, "AABBAABBAA".getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE, 1L << 40),
+				new Master.FoundPassword(4, new byte[0], 1, 1024),
+				new Master.RegistrationMessage(16, 2.5e6, 0),
+				new Master.RegistrationMessage(8, 0, 4),
+				new Master.BatchMessage(Arrays.asList(record(1), record(2))),
+				new Master.BatchMessage(Collections.emptyList()),
+				new Master.StartMessage(),
+				new Master.LeaseCheckMessage(),
+				new Reader.ReadMessage(),
+				new Reader.ReadCompletedMessage(Arrays.asList(record(3)), 5),
+				new Collector.CollectMessage(1, "Sophia", "ABC".getBytes(StandardCharsets.UTF_8), 4, "AABB".getBytes(StandardCharsets.UTF_8),
+						new byte[][] { "BC".getBytes(StandardCharsets.UTF_8), null, new byte[0] }),
+				new Collector.PrintMessage(),
+				new Collector.FlushMessage(),
+				new Reaper.WatchMeMessage(),
+				new Worker.CancelTaskMessage(12),
+				new Worker.SliceMessage(),
+				new Dispatcher.TaskBatchMessage(Arrays.asList(
+						new Worker.CrackHintsMessage(43, "ABC".getBytes(StandardCharsets.UTF_8), digests(1), 1, 0, 2),
+						new Worker.CrackPasswordMessage(44, "AB".getBytes(StandardCharsets.UTF_8), 4, digests(1), 0, 16))),
+				new Master.ResultBatchMessage(Arrays.asList(
+						new Master.HintsCrackedMessage(43, new int[] { 0 }, "AB".getBytes(StandardCharsets.UTF_8), 1000, 2),
+						new Master.FoundPassword(44, new byte[0], 2000, 16))),
+				new Master.ResultBatchMessage(Collections.emptyList()),
+				new Dispatcher.FlushMessage(),
+				record(4)
+		};
+	}
+
+	@Before
+	public void setUp() {
+		this.kryo = new MessageKryoInstantiator().newKryo();
+	}
+
+	@Test
+	public void testRoundTripOfEveryMessage() {
+		for (Serializable message : messages()) {
+			Output output = new Output(1024, -1);
+			this.kryo.writeClassAndObject(output, message);
+			Object copy = this.kryo.readClassAndObject(new Input(output.toBytes()));
+
+			assertEquals(message.getClass(), copy.getClass());
+			assertEquals(message, copy);
+		}
+	}
+
+	@Test
+	public void testMessagesAreWrittenWithoutClassNames() {
+		for (Serializable message : messages()) {
+			assertTrue(message.getClass().getName(), this.kryo.getRegistration(message.getClass()).getId() >= MessageKryoInstantiator.FIRST_ID);
+
+			Output output = new Output(1024, -1);
+			this.kryo.writeClassAndObject(output, message);
+			String bytes = new String(output.toBytes(), StandardCharsets.ISO_8859_1);
+			assertFalse(message.getClass().getName(), bytes.contains(message.getClass().getSimpleName()));
+		}
+	}
+
+	@Test
+	public void testAkkaSerializationUsesTheRegistrations() throws Exception {
+		final Config config = ConfigFactory.parseString(
+				"akka.actor.provider = local\n" +
+				"akka.extensions = []\n" +
+				"akka.loglevel = \"WARNING\"")
+			.withFallback(ConfigFactory.load("application"));
+		ActorSystem system = ActorSystem.create("serialization", config);
+		try {
+			Serialization serialization = SerializationExtension.get(system);
+			Worker.CrackPasswordMessage message = new Worker.CrackPasswordMessage(1, "AB".getBytes(StandardCharsets.UTF_8), 10, digests(1), 0, 1024);
+
+			Serializer serializer = serialization.findSerializerFor(message);
+			byte[] bytes = serializer.toBinary(message);
+			Object copy = serializer.fromBinary(bytes, Worker.CrackPasswordMessage.class);
+
+			assertEquals(message, copy);
+			assertFalse(new String(bytes, StandardCharsets.ISO_8859_1).contains(message.getClass().getSimpleName()));
+			assertArrayEquals(message.getPassword(), ((Worker.CrackPasswordMessage) copy).getPassword());
+		} finally {
+			TestKit.shutdownActorSystem(system);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package de.hpi.ddm.structures;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.hpi.ddm.cracking.DigestEngine;
+import de.hpi.ddm.cracking.Digests;
+
+public class HintGroupTest {
+
+	private static final byte[] CHARS = "ABCD".getBytes(StandardCharsets.UTF_8);
+
+	private final DigestEngine engine = new DigestEngine();
+
+	// A row whose password digest is irrelevant, followed by the digests of the hints
+	private PasswordRow row(int id, String... hints) {
+		byte[] digests = new byte[(hints.length + 1) * Digests.DIGEST_LENGTH];
+		for (int i = 0; i < hints.length; i++) {
+			byte[] hint = hints[i].getBytes(StandardCharsets.UTF_8);
+			System.arraycopy(this.engine.digest(hint, hint.length), 0, digests, (i + 1) * Digests.DIGEST_LENGTH, Digests.DIGEST_LENGTH);
+		}
+		return new PasswordRow(new PasswordRecord(id, "Name" + id, CHARS, 3, digests));
+	}
+
+	private static byte[] bytes(String clearTexts) {
+		return clearTexts.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testSharedHintsAreSearchedOnce() {
+		HintGroup group = new HintGroup(CHARS);
+		PasswordRow first = this.row(0, "DCB", "CAD");
+		PasswordRow second = this.row(1, "DCB", "BDA");
+		group.add(first);
+		group.add(second);
+
+		// Both rows contain the digest of "DCB", so the space of all chars but A has three distinct targets
+		HintGroup.Search search = group.search(0);
+		assertEquals(3, search.getTargets().size());
+		assertEquals(3 * Digests.DIGEST_LENGTH, search.getDigests().size());
+		assertEquals(2, search.getLimit());
+		assertArrayEquals(bytes("BCD"), search.getSymbols());
+
+		group.addSearch();
+		List<PasswordRow> released = new ArrayList<>();
+		group.complete(search, new int[] { 0 }, bytes("DCB"), released);
+		assertTrue(first.isHintCracked(0));
+		assertTrue(second.isHintCracked(0));
+		assertTrue(first.isExcluded(0));
+		assertTrue(second.isExcluded(0));
+		assertTrue(group.isDone());
+
+		// All rows are released once the group is done, whether or not all of their hints are cracked
+		assertEquals(Arrays.asList(first, second), released);
+	}
+
+	@Test
+	public void testSearchesResolveAcrossRows() {
+		HintGroup group = new HintGroup(CHARS);
+		PasswordRow first = this.row(0, "DCB", "CAD");
+		PasswordRow second = this.row(1, "DCB", "BDA");
+		group.add(first);
+		group.add(second);
+		HintGroup.Search[] searches = new HintGroup.Search[CHARS.length];
+		for (int excludedChar = 0; excludedChar < CHARS.length; excludedChar++) {
+			searches[excludedChar] = group.search(excludedChar);
+			group.addSearch();
+		}
+
+		List<PasswordRow> released = new ArrayList<>();
+		group.complete(searches[0], new int[] { 0 }, bytes("DCB"), released);
+		assertEquals(Collections.emptyList(), released);
+		assertFalse(searches[3].isResolved());
+
+		// The first row is complete and excludes B, the second still waits for its hint without C
+		group.complete(searches[1], new int[] { 1 }, bytes("CAD"), released);
+		assertEquals(Collections.singletonList(first), released);
+		assertFalse(searches[3].isResolved());
+		assertFalse(searches[2].isResolved());
+
+		// A later search only sees the hints that are still outstanding
+		assertEquals(1, group.search(2).getTargets().size());
+
+		group.complete(searches[2], new int[] { 2 }, bytes("BDA"), released);
+		assertEquals(Arrays.asList(first, second), released);
+		assertTrue(searches[3].isResolved());
+		assertTrue(group.search(3).isEmpty());
+
+		assertFalse(group.isDone());
+		group.complete(searches[3], new int[0], new byte[0], released);
+		assertTrue(group.isDone());
+		assertEquals(2, released.size());
+	}
+}